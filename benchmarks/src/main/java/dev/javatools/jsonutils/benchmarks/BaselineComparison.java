@@ -0,0 +1,94 @@
+package dev.javatools.jsonutils.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH json result files and prints the change of the average time and of the allocated bytes
+ * per operation (gc.alloc.rate.norm) of every benchmark that is in both files.
+ * <pre>
+ *     java -cp target/benchmarks.jar dev.javatools.jsonutils.benchmarks.BaselineComparison results/baseline.json results/latest.json [tolerance %]
+ * </pre>
+ * Changes above the tolerance (default 10%) are marked as regressions and the exit code is 1 when there is any.
+ */
+public final class BaselineComparison {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final double DEFAULT_TOLERANCE = 10;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <latest.json> [tolerance %]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        Map<String, double[]> baseline = read(new File(args[0]));
+        Map<String, double[]> latest = read(new File(args[1]));
+        int regressions = 0;
+        System.out.printf("%-90s %12s %12s%n", "Benchmark", "time", "alloc/op");
+        for (Map.Entry<String, double[]> entry : latest.entrySet()) {
+            double[] before = baseline.get(entry.getKey());
+            if (null == before) {
+                continue;
+            }
+            double[] after = entry.getValue();
+            double timeChange = change(before[0], after[0]);
+            double allocationChange = change(before[1], after[1]);
+            boolean regression = timeChange > tolerance || allocationChange > tolerance;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %+11.1f%% %+11.1f%%%s%n", entry.getKey(), timeChange, allocationChange, regression ? "  REGRESSION" : "");
+        }
+        System.out.println(regressions + " regression(s) above " + tolerance + "%");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return benchmark name with its parameters, and its [score, allocated bytes per operation]
+     */
+    private static Map<String, double[]> read(File resultFile) throws IOException {
+        Map<String, double[]> results = new TreeMap<>();
+        for (JsonNode result : OBJECT_MAPPER.readTree(resultFile)) {
+            StringBuilder name = new StringBuilder(result.path("benchmark").asText());
+            Map<String, String> params = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            if (!params.isEmpty()) {
+                name.append(params);
+            }
+            double allocation = Double.NaN;
+            Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+            while (metrics.hasNext()) {
+                Map.Entry<String, JsonNode> metric = metrics.next();
+                if (metric.getKey().endsWith("gc.alloc.rate.norm")) {
+                    allocation = metric.getValue().path("score").asDouble();
+                }
+            }
+            results.put(name.toString(), new double[]{result.path("primaryMetric").path("score").asDouble(), allocation});
+        }
+        return results;
+    }
+
+    private static double change(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return 0;
+        }
+        return (after - before) * 100 / before;
+    }
+}
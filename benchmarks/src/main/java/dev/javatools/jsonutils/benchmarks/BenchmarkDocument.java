@@ -0,0 +1,186 @@
+package dev.javatools.jsonutils.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Json documents used by the benchmarks, in the three input forms of the APIs (String, File and java model).
+ * <pre>
+ * SMALL   - sample-input.json of the json-utils tests (about 5 KB)
+ * MEDIUM  - 200 generated people with the same structure as the sample (about 250 KB)
+ * LARGE   - 5000 generated people (about 6 MB)
+ * DEEP    - objects nested 500 levels deep, with a short list at every level
+ * WIDE    - one list of 100000 small objects
+ * </pre>
+ * The documents are generated with a fixed seed, so every run benchmarks the same input.
+ */
+public final class BenchmarkDocument {
+
+    /**
+     * Shapes of the benchmarked documents, the names are used as the JMH parameter values.
+     */
+    public enum Shape {
+        SMALL, MEDIUM, LARGE, DEEP, WIDE
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String[] STATES = {"AK", "AZ", "CA", "IL", "KS", "MD", "MI", "NJ", "NY", "OH", "PA", "TX", "WI"};
+
+    private final String json;
+    private final File file;
+    private final Object model;
+    private final String propertyPath;
+    private final Map<String, String> listKeys;
+
+    private BenchmarkDocument(String json, String propertyPath, Map<String, String> listKeys) throws IOException {
+        this.json = json;
+        this.file = File.createTempFile("json-utils-benchmark", ".json");
+        this.file.deleteOnExit();
+        Files.writeString(file.toPath(), json);
+        this.model = OBJECT_MAPPER.readValue(json, LinkedHashMap.class);
+        this.propertyPath = propertyPath;
+        this.listKeys = listKeys;
+    }
+
+    /**
+     * @param shape shape of the document
+     * @return document written to a temporary file that is deleted when the JVM exits
+     */
+    public static BenchmarkDocument of(Shape shape) throws IOException {
+        switch (shape) {
+            case SMALL:
+                return new BenchmarkDocument(sample(), "friends[{name=Art Venere}].primaryAddress.city", peopleListKeys());
+            case MEDIUM:
+                return new BenchmarkDocument(people(200), "friends[{name=Friend 100}].primaryAddress.city", peopleListKeys());
+            case LARGE:
+                return new BenchmarkDocument(people(5000), "friends[{name=Friend 2500}].primaryAddress.city", peopleListKeys());
+            case DEEP:
+                return new BenchmarkDocument(deep(500), "child.child.child.child.child.tags[]", Collections.emptyMap());
+            default:
+                Map<String, String> listKeys = new HashMap<>();
+                listKeys.put("items[]", "id");
+                return new BenchmarkDocument(wide(100_000), "items[{id=item 50000}].value", listKeys);
+        }
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the document as Map, used for the Object overloads
+     */
+    public Object getModel() {
+        return model;
+    }
+
+    /**
+     * @return path of a field that exists in the document, used for getProperty and setProperty
+     */
+    public String getPropertyPath() {
+        return propertyPath;
+    }
+
+    /**
+     * @return listKeys that sort the lists of objects in the document
+     */
+    public Map<String, String> getListKeys() {
+        return listKeys;
+    }
+
+    private static Map<String, String> peopleListKeys() {
+        Map<String, String> listKeys = new HashMap<>();
+        listKeys.put("friends[]", "name");
+        listKeys.put("friends[].associatedAddresses[]", "city");
+        listKeys.put("associatedAddresses[]", "city");
+        return listKeys;
+    }
+
+    private static String sample() throws IOException {
+        try (InputStream input = BenchmarkDocument.class.getResourceAsStream("/sample-input.json")) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Same structure as sample-input.json, with the given number of friends.
+     */
+    static String people(int friends) throws IOException {
+        Random random = new Random(friends);
+        Map<String, Object> person = person("James Butt", random);
+        List<Object> friendList = new ArrayList<>(friends);
+        for (int i = 0; i < friends; i++) {
+            friendList.add(person("Friend " + i, random));
+        }
+        person.put("friends", friendList);
+        return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(person);
+    }
+
+    private static Map<String, Object> person(String name, Random random) {
+        Map<String, Object> person = new LinkedHashMap<>();
+        person.put("name", name);
+        person.put("age", 18 + random.nextInt(70));
+        person.put("dateOfBirth", (1940 + random.nextInt(70)) + "-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10));
+        person.put("primaryAddress", address(random));
+        List<Object> addresses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            addresses.add(address(random));
+        }
+        person.put("associatedAddresses", addresses);
+        return person;
+    }
+
+    private static Map<String, Object> address(Random random) {
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("street", (1 + random.nextInt(9999)) + " Main St #" + random.nextInt(100));
+        address.put("city", "City " + random.nextInt(1000));
+        address.put("state", STATES[random.nextInt(STATES.length)]);
+        address.put("zip", String.valueOf(10000 + random.nextInt(89999)));
+        return address;
+    }
+
+    static String deep(int depth) throws IOException {
+        Map<String, Object> root = new LinkedHashMap<>();
+        Map<String, Object> level = root;
+        for (int i = 0; i < depth; i++) {
+            level.put("level", i);
+            level.put("tags", List.of("tag " + i % 7, "tag " + i % 3));
+            Map<String, Object> child = new LinkedHashMap<>();
+            level.put("child", child);
+            level = child;
+        }
+        level.put("level", depth);
+        return OBJECT_MAPPER.writeValueAsString(root);
+    }
+
+    static String wide(int size) throws IOException {
+        Random random = new Random(size);
+        List<Object> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", "item " + (i * 7919 % size));
+            item.put("value", random.nextInt(1_000_000));
+            item.put("active", random.nextBoolean());
+            items.add(item);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("items", items);
+        return OBJECT_MAPPER.writeValueAsString(root);
+    }
+}
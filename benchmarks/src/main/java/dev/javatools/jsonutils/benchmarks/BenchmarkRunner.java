@@ -0,0 +1,46 @@
+package dev.javatools.jsonutils.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks with the GC profiler and saves the results as json.
+ * <pre>
+ *     java -jar target/benchmarks.jar                         - all the benchmarks
+ *     java -jar target/benchmarks.jar JsonSortBenchmark       - benchmarks that match the regex
+ *     java -jar target/benchmarks.jar -p shape=SMALL,MEDIUM   - any other JMH command line option
+ * </pre>
+ * The results are written to results/latest.json. When results/baseline.json exists, the results are compared
+ * with it, see {@link BaselineComparison}.
+ */
+public final class BenchmarkRunner {
+
+    static final File LATEST = new File("results", "latest.json");
+    static final File BASELINE = new File("results", "baseline.json");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (!LATEST.getParentFile().isDirectory() && !LATEST.getParentFile().mkdirs()) {
+            throw new IllegalStateException("Can't create " + LATEST.getParentFile());
+        }
+        Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(LATEST.getPath())
+                .build();
+        new Runner(options).run();
+        if (BASELINE.isFile()) {
+            BaselineComparison.main(new String[]{BASELINE.getPath(), LATEST.getPath()});
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dev.javatools.jsonutils.benchmarks;
+
+import dev.javatools.jsonutils.JsonCompare;
+import dev.javatools.jsonutils.JsonDifference;
+import dev.javatools.jsonutils.JsonProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonCompare#compare} against diffing the two getAllProperties maps, for two documents that differ in one field.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonCompareBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE", "WIDE"})
+    public BenchmarkDocument.Shape shape;
+
+    private String left;
+    private String right;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkDocument document = BenchmarkDocument.of(shape);
+        left = document.getJson();
+        right = JsonProperty.setProperty(document.getPropertyPath(), left, "benchmark");
+    }
+
+    @Benchmark
+    public List<JsonDifference> compare() {
+        return JsonCompare.compare(left, right);
+    }
+
+    @Benchmark
+    public List<String> compareAllProperties() {
+        Map<String, Object> leftProperties = JsonProperty.getAllProperties(left);
+        Map<String, Object> rightProperties = JsonProperty.getAllProperties(right);
+        List<String> differences = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : leftProperties.entrySet()) {
+            if (!Objects.equals(entry.getValue(), rightProperties.get(entry.getKey()))) {
+                differences.add(entry.getKey());
+            }
+        }
+        for (String path : rightProperties.keySet()) {
+            if (!leftProperties.containsKey(path)) {
+                differences.add(path);
+            }
+        }
+        return differences;
+    }
+}
@@ -0,0 +1,79 @@
+package dev.javatools.jsonutils.benchmarks;
+
+import dev.javatools.jsonutils.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Every String, File and Object overload of {@link JsonPath#getAllPaths} and {@link JsonPath#getAllUniquePaths},
+ * and the streaming variant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonPathBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE", "DEEP", "WIDE"})
+    public BenchmarkDocument.Shape shape;
+
+    private BenchmarkDocument document;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = BenchmarkDocument.of(shape);
+    }
+
+    @Benchmark
+    public Set<String> getAllPathsFromString() {
+        return JsonPath.getAllPaths(document.getJson());
+    }
+
+    @Benchmark
+    public Set<String> getAllPathsFromFile() {
+        return JsonPath.getAllPaths(document.getFile());
+    }
+
+    @Benchmark
+    public Set<String> getAllPathsFromObject() {
+        return JsonPath.getAllPaths(document.getModel());
+    }
+
+    @Benchmark
+    public Set<String> getAllUniquePathsFromString() {
+        return JsonPath.getAllUniquePaths(document.getJson());
+    }
+
+    @Benchmark
+    public Set<String> getAllUniquePathsFromFile() {
+        return JsonPath.getAllUniquePaths(document.getFile());
+    }
+
+    @Benchmark
+    public Set<String> getAllUniquePathsFromObject() {
+        return JsonPath.getAllUniquePaths(document.getModel());
+    }
+
+    @Benchmark
+    public long streamAllPaths() {
+        try (Stream<String> paths = JsonPath.streamAllPaths(document.getFile())) {
+            return paths.count();
+        }
+    }
+}
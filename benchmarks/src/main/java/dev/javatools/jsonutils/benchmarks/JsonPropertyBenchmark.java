@@ -0,0 +1,89 @@
+package dev.javatools.jsonutils.benchmarks;
+
+import dev.javatools.jsonutils.CompiledJsonPath;
+import dev.javatools.jsonutils.JsonProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every String, File and Object overload of {@link JsonProperty#getAllProperties}, {@link JsonProperty#getProperty}
+ * and {@link JsonProperty#setProperty}, with a String path and a compiled path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonPropertyBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE", "DEEP", "WIDE"})
+    public BenchmarkDocument.Shape shape;
+
+    private BenchmarkDocument document;
+    private CompiledJsonPath compiledPath;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = BenchmarkDocument.of(shape);
+        compiledPath = JsonProperty.compile(document.getPropertyPath());
+    }
+
+    @Benchmark
+    public Map<String, Object> getAllPropertiesFromString() {
+        return JsonProperty.getAllProperties(document.getJson());
+    }
+
+    @Benchmark
+    public Map<String, Object> getAllPropertiesFromFile() {
+        return JsonProperty.getAllProperties(document.getFile());
+    }
+
+    @Benchmark
+    public Map<String, Object> getAllPropertiesFromObject() {
+        return JsonProperty.getAllProperties(document.getModel());
+    }
+
+    @Benchmark
+    public Object getPropertyFromString() {
+        return JsonProperty.getProperty(document.getPropertyPath(), document.getJson());
+    }
+
+    @Benchmark
+    public Object getPropertyFromFile() {
+        return JsonProperty.getProperty(document.getPropertyPath(), document.getFile());
+    }
+
+    @Benchmark
+    public Object getPropertyFromObject() {
+        return JsonProperty.getProperty(document.getPropertyPath(), document.getModel());
+    }
+
+    @Benchmark
+    public Object getCompiledPropertyFromString() {
+        return JsonProperty.getProperty(compiledPath, document.getJson());
+    }
+
+    @Benchmark
+    public String setProperty() {
+        return JsonProperty.setProperty(document.getPropertyPath(), document.getJson(), "benchmark");
+    }
+
+    @Benchmark
+    public String setCompiledProperty() {
+        return JsonProperty.setProperty(compiledPath, document.getJson(), "benchmark");
+    }
+}
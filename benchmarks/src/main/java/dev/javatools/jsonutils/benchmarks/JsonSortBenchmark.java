@@ -0,0 +1,82 @@
+package dev.javatools.jsonutils.benchmarks;
+
+import dev.javatools.jsonutils.JsonSort;
+import dev.javatools.jsonutils.SortOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every String, File and Object overload of {@link JsonSort#sort}, with and without listKeys,
+ * and the streaming sort to an OutputStream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonSortBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE", "DEEP", "WIDE"})
+    public BenchmarkDocument.Shape shape;
+
+    private BenchmarkDocument document;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = BenchmarkDocument.of(shape);
+    }
+
+    @Benchmark
+    public String sortString() {
+        return JsonSort.sort(document.getJson());
+    }
+
+    @Benchmark
+    public String sortStringWithListKeys() {
+        return JsonSort.sort(document.getJson(), document.getListKeys());
+    }
+
+    @Benchmark
+    public String sortFile() {
+        return JsonSort.sort(document.getFile());
+    }
+
+    @Benchmark
+    public String sortFileWithListKeys() {
+        return JsonSort.sort(document.getFile(), document.getListKeys());
+    }
+
+    @Benchmark
+    public String sortObject() {
+        return JsonSort.sort(document.getModel());
+    }
+
+    @Benchmark
+    public String sortObjectWithListKeys() {
+        return JsonSort.sort(document.getModel(), document.getListKeys());
+    }
+
+    @Benchmark
+    public String sortStringWithSortOptions() {
+        return JsonSort.sort(document.getJson(), document.getListKeys(), SortOptions.pretty());
+    }
+
+    @Benchmark
+    public void sortFileToOutputStream() {
+        JsonSort.sort(document.getFile(), document.getListKeys(), OutputStream.nullOutputStream(), SortOptions.compact());
+    }
+}
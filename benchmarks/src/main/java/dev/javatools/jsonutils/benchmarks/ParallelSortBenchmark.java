@@ -0,0 +1,73 @@
+package dev.javatools.jsonutils.benchmarks;
+
+import dev.javatools.jsonutils.JsonSort;
+import dev.javatools.jsonutils.SortOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential against parallel {@link JsonSort} on lists of growing size, to find where the parallel mode starts to pay off.
+ * keyed sorts the list by listKeys, otherwise the list is ordered by hash. threshold is the parallel threshold of
+ * {@link SortOptions}, the default is {@value SortOptions#DEFAULT_PARALLEL_THRESHOLD}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParallelSortBenchmark {
+
+    @Param({"1000", "10000", "100000", "500000"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean keyed;
+
+    @Param({"1000", "10000", "100000"})
+    public int threshold;
+
+    private String json;
+    private Map<String, String> listKeys;
+    private ForkJoinPool pool;
+    private SortOptions parallel;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = BenchmarkDocument.wide(size);
+        listKeys = keyed ? Collections.singletonMap("items[]", "id") : Collections.emptyMap();
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        parallel = SortOptions.compact().withPool(pool).withParallelThreshold(threshold);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String sequential() {
+        return JsonSort.sort(json, listKeys, SortOptions.compact());
+    }
+
+    @Benchmark
+    public String parallel() {
+        return JsonSort.sort(json, listKeys, parallel);
+    }
+}
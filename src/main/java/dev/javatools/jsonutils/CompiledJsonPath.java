@@ -0,0 +1,507 @@
+package dev.javatools.jsonutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A json path that has been parsed once into an immutable list of segments, so it can be evaluated any number of
+ * times without tokenizing the path String again.
+ * <pre>
+ * The path grammar is the one documented in {@link JsonProperty}
+ *
+ * 1. name                                      - field
+ * 2. primaryAddress.street                     - field in an inner object
+ * 3. associatedAddresses[]                     - any element of the list (on set, a new element at the end of the list)
+ * 4. associatedAddresses[1]                    - element at location 1 in the list
+ * 5. associatedAddresses[{state=CA}]           - element(s) of the list whose state is CA
+ * 6. associatedAddresses[{state:CA}, {zip:94599}] - element(s) of the list whose state is CA and zip is 94599
+ *
+ * While reading, "[]" and "[{...}]" pick the first element from which the rest of the path resolves to a value.
+ * While writing, "[{...}]" updates the first matching element, and adds a new element with the predicate fields
+ * when nothing matches.
+ * </pre>
+ * Instances are thread safe. Use {@link #compile(String)} (or {@link JsonProperty#compile(String)}) to get one.
+ */
+public final class CompiledJsonPath {
+
+    private static final int CACHE_SIZE = 1024;
+    private static final int CACHE_STRIPES = 16;
+
+    /**
+     * The paths are spread over stripes by their hash, each stripe has its own lock and evicts its least recently used
+     * paths once it holds its part of CACHE_SIZE, like {@link JsonResultCache}.
+     */
+    private static final CacheStripe[] CACHE = new CacheStripe[CACHE_STRIPES];
+
+    static {
+        for (int i = 0; i < CACHE_STRIPES; i++) {
+            CACHE[i] = new CacheStripe(CACHE_SIZE / CACHE_STRIPES);
+        }
+    }
+
+    private final String path;
+    private final List<Segment> segments;
+
+    private CompiledJsonPath(String path, List<Segment> segments) {
+        this.path = path;
+        this.segments = Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Compiled paths are cached (about the 1024 most recently used paths), so calling this method repeatedly with the same
+     * path is cheap.
+     *
+     * @param jsonPath path of the field, see the class level documentation for details
+     * @return compiled form of the path
+     */
+    public static CompiledJsonPath compile(String jsonPath) {
+        if (null == jsonPath) {
+            throw new JsonUtilsException("Not a valid input, Json Path is a mandatory field.");
+        }
+        int hash = jsonPath.hashCode();
+        CacheStripe stripe = CACHE[(hash ^ (hash >>> 16)) & (CACHE_STRIPES - 1)];
+        CompiledJsonPath compiledJsonPath;
+        synchronized (stripe) {
+            compiledJsonPath = stripe.get(jsonPath);
+        }
+        if (null == compiledJsonPath) {
+            // parsed outside of the lock, two threads that miss the same path both parse it and the first one is kept
+            CompiledJsonPath parsed = new CompiledJsonPath(jsonPath, parse(jsonPath));
+            synchronized (stripe) {
+                compiledJsonPath = stripe.putIfAbsent(jsonPath, parsed);
+            }
+            if (null == compiledJsonPath) {
+                compiledJsonPath = parsed;
+            }
+        }
+        return compiledJsonPath;
+    }
+
+    /**
+     * @return the path this instance was compiled from
+     */
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CompiledJsonPath && path.equals(((CompiledJsonPath) other).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    List<Segment> segments() {
+        return segments;
+    }
+
+    /**
+     * @param root Map/List structure of the json
+     * @return value in the path, null if the path doesn't exist
+     */
+    Object read(Object root) {
+        return read(root, 0);
+    }
+
+    Object read(Object node, int from) {
+        Object current = node;
+        for (int i = from; i < segments.size() && null != current; i++) {
+            Segment segment = segments.get(i);
+            switch (segment.kind) {
+                case FIELD:
+                    current = current instanceof Map ? ((Map) current).get(segment.name) : null;
+                    break;
+                case INDEX:
+                    current = current instanceof List && segment.index < ((List) current).size()
+                            ? ((List) current).get(segment.index) : null;
+                    break;
+                default:
+                    if (!(current instanceof List)) {
+                        return null;
+                    }
+                    for (Object element : (List) current) {
+                        if (segment.matches(element)) {
+                            Object value = read(element, i + 1);
+                            if (null != value) {
+                                return value;
+                            }
+                        }
+                    }
+                    return null;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Creates the missing objects and lists along the path.
+     *
+     * @param root  Map structure of the json, updated in place
+     * @param value the value that needs to be set
+     */
+    void write(Map root, Object value) {
+        write(root, 0, segments.size(), value);
+    }
+
+    /**
+     * Applies the segments from (inclusive) to to (exclusive), creating the missing objects and lists.
+     *
+     * @param node  object or list reached by the segments before from
+     * @param value the value that needs to be set, used only when to is the end of the path
+     * @return object or list reached by the segments before to, null when the value was set
+     */
+    @SuppressWarnings("unchecked")
+    Object write(Object node, int from, int to, Object value) {
+        Object current = node;
+        for (int i = from; i < to; i++) {
+            Segment segment = segments.get(i);
+            Segment next = i + 1 < segments.size() ? segments.get(i + 1) : null;
+            if (segment.kind == Kind.FIELD) {
+                if (!(current instanceof Map)) {
+                    throw new JsonUtilsException(path + ": " + segment.name + " can only be set on an object.");
+                }
+                Map map = (Map) current;
+                if (null == next) {
+                    map.put(segment.name, value);
+                    return null;
+                }
+                Object child = map.get(segment.name);
+                if (null == child) {
+                    child = newContainer(next);
+                    map.put(segment.name, child);
+                }
+                current = child;
+                continue;
+            }
+            if (!(current instanceof List)) {
+                throw new JsonUtilsException(path + ": " + segment + " can only be applied on a list.");
+            }
+            List list = (List) current;
+            switch (segment.kind) {
+                case APPEND:
+                    current = null == next ? value : newContainer(next);
+                    list.add(current);
+                    break;
+                case INDEX:
+                    while (list.size() < segment.index) {
+                        list.add(new LinkedHashMap<>());
+                    }
+                    if (null == next) {
+                        if (list.size() == segment.index) {
+                            list.add(value);
+                        } else {
+                            list.set(segment.index, value);
+                        }
+                        return null;
+                    }
+                    if (list.size() == segment.index || null == list.get(segment.index)) {
+                        current = newContainer(next);
+                        if (list.size() == segment.index) {
+                            list.add(current);
+                        } else {
+                            list.set(segment.index, current);
+                        }
+                    } else {
+                        current = list.get(segment.index);
+                    }
+                    break;
+                default:
+                    if (null == next) {
+                        throw new JsonUtilsException(path + ": Found the element in this path, but to assign the value, we also need a key.");
+                    }
+                    current = null;
+                    for (Object element : list) {
+                        if (segment.matches(element)) {
+                            current = element;
+                            break;
+                        }
+                    }
+                    if (null == current) {
+                        Map element = new LinkedHashMap<>();
+                        for (Predicate predicate : segment.predicates) {
+                            element.put(predicate.key, predicate.value);
+                        }
+                        list.add(element);
+                        current = element;
+                    }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Removes the field or the list elements at the end of the path.
+     * "[]" at the end removes all the elements of the list and "[{...}]" removes all the matching elements.
+     * Selectors before the end pick the first element in which the rest of the path can be removed.
+     *
+     * @param root Map/List structure of the json, updated in place
+     * @return true if something was removed
+     */
+    boolean remove(Object root) {
+        return remove(root, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean remove(Object node, int from) {
+        Object current = node;
+        int last = segments.size() - 1;
+        for (int i = from; i < last && null != current; i++) {
+            Segment segment = segments.get(i);
+            switch (segment.kind) {
+                case FIELD:
+                    current = current instanceof Map ? ((Map) current).get(segment.name) : null;
+                    break;
+                case INDEX:
+                    current = current instanceof List && segment.index < ((List) current).size()
+                            ? ((List) current).get(segment.index) : null;
+                    break;
+                default:
+                    if (current instanceof List) {
+                        for (Object element : (List) current) {
+                            if (segment.matches(element) && remove(element, i + 1)) {
+                                return true;
+                            }
+                        }
+                    }
+                    return false;
+            }
+        }
+        Segment segment = segments.get(last);
+        if (segment.kind == Kind.FIELD) {
+            if (current instanceof Map && ((Map) current).containsKey(segment.name)) {
+                ((Map) current).remove(segment.name);
+                return true;
+            }
+            return false;
+        }
+        if (!(current instanceof List)) {
+            return false;
+        }
+        List list = (List) current;
+        if (segment.kind == Kind.INDEX) {
+            if (segment.index < list.size()) {
+                list.remove(segment.index);
+                return true;
+            }
+            return false;
+        }
+        return list.removeIf(segment::matches);
+    }
+
+    /**
+     * @return empty object or list, the one the segment can be applied on
+     */
+    static Object newContainer(Segment next) {
+        return next.kind == Kind.FIELD ? new LinkedHashMap<>() : new ArrayList<>();
+    }
+
+    private static List<Segment> parse(String jsonPath) {
+        List<Segment> segments = new ArrayList<>();
+        int length = jsonPath.length();
+        int position = 0;
+        while (position < length) {
+            int nameEnd = position;
+            while (nameEnd < length && jsonPath.charAt(nameEnd) != '.' && jsonPath.charAt(nameEnd) != '[') {
+                nameEnd++;
+            }
+            String name = jsonPath.substring(position, nameEnd).trim();
+            if (!name.isEmpty()) {
+                segments.add(Segment.field(name));
+            } else if (nameEnd >= length || jsonPath.charAt(nameEnd) != '[' || (position > 0 && jsonPath.charAt(position - 1) == '.')) {
+                throw invalid(jsonPath);
+            }
+            position = nameEnd;
+            while (position < length && jsonPath.charAt(position) == '[') {
+                int close = findClosingBracket(jsonPath, position);
+                segments.add(Segment.selector(jsonPath, jsonPath.substring(position + 1, close).trim()));
+                position = close + 1;
+            }
+            if (position < length) {
+                if (jsonPath.charAt(position) != '.' || position == length - 1) {
+                    throw invalid(jsonPath);
+                }
+                position++;
+            }
+        }
+        if (segments.isEmpty()) {
+            throw invalid(jsonPath);
+        }
+        return segments;
+    }
+
+    private static int findClosingBracket(String jsonPath, int open) {
+        boolean inPredicate = false;
+        for (int i = open + 1; i < jsonPath.length(); i++) {
+            char c = jsonPath.charAt(i);
+            if (c == '{') {
+                inPredicate = true;
+            } else if (c == '}') {
+                inPredicate = false;
+            } else if (c == ']' && !inPredicate) {
+                return i;
+            }
+        }
+        throw invalid(jsonPath);
+    }
+
+    private static JsonUtilsException invalid(String jsonPath) {
+        return new JsonUtilsException("Not a valid Json Path: " + jsonPath);
+    }
+
+    enum Kind {
+        FIELD, APPEND, INDEX, MATCH
+    }
+
+    /**
+     * One step in the path: a field name, or a selector on a list.
+     */
+    static final class Segment {
+
+        final Kind kind;
+        final String name;
+        final int index;
+        final List<Predicate> predicates;
+
+        private Segment(Kind kind, String name, int index, List<Predicate> predicates) {
+            this.kind = kind;
+            this.name = name;
+            this.index = index;
+            this.predicates = predicates;
+        }
+
+        static Segment field(String name) {
+            return new Segment(Kind.FIELD, name, -1, Collections.emptyList());
+        }
+
+        static Segment selector(String jsonPath, String selector) {
+            if (selector.isEmpty()) {
+                return new Segment(Kind.APPEND, null, -1, Collections.emptyList());
+            }
+            if (selector.charAt(0) != '{') {
+                try {
+                    int index = Integer.parseInt(selector);
+                    if (index < 0) {
+                        throw invalid(jsonPath);
+                    }
+                    return new Segment(Kind.INDEX, null, index, Collections.emptyList());
+                } catch (NumberFormatException numberFormatException) {
+                    throw invalid(jsonPath);
+                }
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            int position = 0;
+            while (position < selector.length()) {
+                int close = selector.indexOf('}', position);
+                if (selector.charAt(position) != '{' || close < 0) {
+                    throw invalid(jsonPath);
+                }
+                String condition = selector.substring(position + 1, close);
+                int separator = indexOfSeparator(condition);
+                String key = separator < 0 ? "" : condition.substring(0, separator).trim();
+                if (key.isEmpty()) {
+                    throw invalid(jsonPath);
+                }
+                predicates.add(new Predicate(key, condition.substring(separator + 1).trim()));
+                position = close + 1;
+                while (position < selector.length() && (selector.charAt(position) == ',' || Character.isWhitespace(selector.charAt(position)))) {
+                    position++;
+                }
+            }
+            return new Segment(Kind.MATCH, null, -1, Collections.unmodifiableList(predicates));
+        }
+
+        private static int indexOfSeparator(String condition) {
+            int equals = condition.indexOf('=');
+            int colon = condition.indexOf(':');
+            if (equals < 0 || colon < 0) {
+                return Math.max(equals, colon);
+            }
+            return Math.min(equals, colon);
+        }
+
+        /**
+         * @param element element of a list
+         * @return true if the element is selected by this segment
+         */
+        boolean matches(Object element) {
+            if (kind != Kind.MATCH) {
+                return true;
+            }
+            if (!(element instanceof Map)) {
+                return false;
+            }
+            for (Predicate predicate : predicates) {
+                if (!predicate.matches(((Map) element).get(predicate.key))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            switch (kind) {
+                case FIELD:
+                    return name;
+                case APPEND:
+                    return "[]";
+                case INDEX:
+                    return "[" + index + "]";
+                default:
+                    StringBuilder builder = new StringBuilder("[");
+                    for (Predicate predicate : predicates) {
+                        builder.append(builder.length() > 1 ? "," : "").append('{').append(predicate.key).append('=').append(predicate.value).append('}');
+                    }
+                    return builder.append(']').toString();
+            }
+        }
+    }
+
+    /**
+     * key=value condition of a list selector. Values are compared with the String form of the field value.
+     */
+    static final class Predicate {
+
+        final String key;
+        final String value;
+
+        Predicate(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        boolean matches(Object fieldValue) {
+            return null != fieldValue && !(fieldValue instanceof Map) && !(fieldValue instanceof List)
+                    && value.equals(String.valueOf(fieldValue));
+        }
+    }
+
+    /**
+     * Part of the cache of compiled paths, ordered from the least to the most recently used path.
+     */
+    private static final class CacheStripe extends LinkedHashMap<String, CompiledJsonPath> {
+
+        private final int maxSize;
+
+        private CacheStripe(int maxSize) {
+            super(maxSize * 4 / 3 + 1, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledJsonPath> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * Formats the File and InputStream based APIs read, and the APIs that take an OutputStream can write.
+ * The format of an input is detected from its first bytes.
+ */
+public enum DataFormat {
+
+    /**
+     * Json text, this is the default.
+     */
+    JSON,
+
+    /**
+     * Binary json of Jackson, starts with the header ":)\n". Repeated field names are written once and referenced after that.
+     */
+    SMILE,
+
+    /**
+     * Concise Binary Object Representation (RFC 8949), detected when the first byte is not a json text byte
+     * (a list, a map, a tag or a simple value).
+     */
+    CBOR;
+
+    /**
+     * Number of bytes needed to detect the format.
+     */
+    static final int HEADER_LENGTH = 3;
+
+    /**
+     * @param header first bytes of the input
+     * @param length number of bytes read, can be less than HEADER_LENGTH for short inputs
+     * @return format of the input, JSON when it is not Smile or CBOR
+     */
+    public static DataFormat detect(byte[] header, int length) {
+        if (length >= 3 && header[0] == ':' && header[1] == ')' && header[2] == '\n') {
+            return SMILE;
+        }
+        if (length >= 1) {
+            int first = header[0] & 0xFF;
+            // 0xEF, 0xFE and 0xFF start the byte order marks of json text
+            if (first >= 0x80 && first <= 0xFB && first != 0xEF) {
+                return CBOR;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * @return factory of the parsers and generators of this format, see {@link JsonUtilsConfig}
+     */
+    JsonFactory factory() {
+        return JsonUtilsConfig.mappers().factoryOf(this);
+    }
+}
@@ -0,0 +1,155 @@
+package dev.javatools.jsonutils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sorts properties by path without keeping all of them in memory.
+ * <pre>
+ * Properties are read in runs of runSize entries, each run is sorted and written to a temporary file
+ * (one [path, value] Json array per line), and the runs are merged lazily while the result is consumed.
+ * When everything fits in one run, nothing is written to disk.
+ * Temporary files are deleted when the returned stream is closed.
+ * </pre>
+ */
+final class ExternalMergeSort {
+
+    static final int DEFAULT_RUN_SIZE = 250_000;
+
+    private static final Comparator<Map.Entry<String, Object>> BY_PATH = Map.Entry.comparingByKey();
+
+    private ExternalMergeSort() {
+    }
+
+    static Stream<Map.Entry<String, Object>> sort(Stream<Map.Entry<String, Object>> properties, int runSize) {
+        if (runSize < 1) {
+            throw new JsonUtilsException("Not a valid input, run size must be greater than 0.");
+        }
+        List<File> runs = new ArrayList<>();
+        try (Stream<Map.Entry<String, Object>> input = properties) {
+            Iterator<Map.Entry<String, Object>> iterator = input.iterator();
+            List<Map.Entry<String, Object>> run = new ArrayList<>();
+            while (iterator.hasNext()) {
+                run.add(iterator.next());
+                if (run.size() == runSize && iterator.hasNext()) {
+                    runs.add(writeRun(run));
+                    run.clear();
+                }
+            }
+            run.sort(BY_PATH);
+            if (runs.isEmpty()) {
+                return run.stream();
+            }
+            if (!run.isEmpty()) {
+                runs.add(writeRun(run));
+            }
+            Merger merger = new Merger(runs);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merger, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(merger::close);
+        } catch (IOException | RuntimeException exception) {
+            delete(runs);
+            throw exception instanceof JsonUtilsException ? (JsonUtilsException) exception : new JsonUtilsException(exception);
+        }
+    }
+
+    private static File writeRun(List<Map.Entry<String, Object>> run) throws IOException {
+        run.sort(BY_PATH);
+        File file = File.createTempFile("json-utils-", ".run");
+        file.deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Object> entry : run) {
+                writer.write(JsonUtilsConfig.getWriter().writeValueAsString(new Object[]{entry.getKey(), entry.getValue()}));
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    private static void delete(List<File> runs) {
+        for (File run : runs) {
+            run.delete();
+        }
+    }
+
+    private static final class Merger implements Iterator<Map.Entry<String, Object>> {
+
+        private final List<File> runs;
+        private final List<BufferedReader> readers = new ArrayList<>();
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((first, second) -> BY_PATH.compare(first.entry, second.entry));
+
+        private Merger(List<File> runs) throws IOException {
+            this.runs = runs;
+            for (File run : runs) {
+                BufferedReader reader = Files.newBufferedReader(run.toPath(), StandardCharsets.UTF_8);
+                readers.add(reader);
+                offer(reader);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            Head head = heads.poll();
+            if (null == head) {
+                throw new NoSuchElementException();
+            }
+            try {
+                offer(head.reader);
+            } catch (IOException ioException) {
+                close();
+                throw new JsonUtilsException(ioException);
+            }
+            return head.entry;
+        }
+
+        private void offer(BufferedReader reader) throws IOException {
+            String line = reader.readLine();
+            if (null != line) {
+                List<?> pair = JsonInput.objectMapper().readValue(line, List.class);
+                heads.add(new Head(new AbstractMap.SimpleImmutableEntry<>((String) pair.get(0), pair.get(1)), reader));
+            }
+        }
+
+        private void close() {
+            heads.clear();
+            for (BufferedReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException ignored) {
+                    // the run is deleted next, nothing else to release
+                }
+            }
+            delete(runs);
+        }
+    }
+
+    private static final class Head {
+        private final Map.Entry<String, Object> entry;
+        private final BufferedReader reader;
+
+        private Head(Map.Entry<String, Object> entry, BufferedReader reader) {
+            this.entry = entry;
+            this.reader = reader;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dev.javatools.jsonutils;
+
+/**
+ * How the File based APIs read the json file.
+ */
+public enum FileReadMode {
+
+    /**
+     * The file is read with buffered I/O, this is the default.
+     */
+    BUFFERED,
+
+    /**
+     * The file is mapped into memory with FileChannel.map and the parser reads the bytes straight from the mapped
+     * region, without creating a String or char[] copy of the file. Best for large files on a local disk.
+     */
+    MEMORY_MAPPED
+}
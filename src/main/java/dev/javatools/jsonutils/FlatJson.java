@@ -0,0 +1,371 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All the properties (full json path and value) of a Json, stored in columns instead of a Map of boxed values.
+ * <pre>
+ *     FlatJson flatJson = JsonProperty.getAllPropertiesFlat(jsonFile);
+ *     long age = flatJson.getLong("friends[1].age");
+ *     for (int ordinal = 0; ordinal &lt; flatJson.size(); ordinal++) {
+ *         if (flatJson.type(ordinal) == FlatJson.Type.DOUBLE) {
+ *             total += flatJson.getDouble(ordinal);
+ *         }
+ *     }
+ * </pre>
+ * Each property has an ordinal, the properties are ordered by path like getAllProperties. Numbers and booleans are
+ * read from the parser as primitives (getLongValue, getDoubleValue) and kept in a long array, strings in a String
+ * array, so no value is boxed. The paths are stored as a trie like getAllPathsCompact and built when they are read.
+ * <p>
+ * The Json is read one token at a time, the list positions are the positions in the Json (the same as getProperty
+ * and streamAllProperties), lists are not sorted. Null values and empty objects or lists have no property.
+ * Instances are immutable.
+ */
+public final class FlatJson {
+
+    /**
+     * Type of the value of a property.
+     */
+    public enum Type {
+        STRING, LONG, DOUBLE, BOOLEAN,
+        /**
+         * Integer that doesn't fit in a long, read it with getString
+         */
+        BIG_INTEGER
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final int ROOT = -1;
+
+    private final String[] texts;
+    private final int[] parents;
+    private final int[] textOf;
+    private final int[] nodeOf;
+    private final byte[] types;
+    private final long[] values;
+    private final String[] strings;
+
+    private FlatJson(Builder builder) {
+        texts = builder.texts.toArray(new String[0]);
+        parents = Arrays.copyOf(builder.parents, builder.nodes);
+        textOf = Arrays.copyOf(builder.textOf, builder.nodes);
+        strings = builder.strings.toArray(new String[0]);
+        int[] sorted = builder.sortedLeaves();
+        nodeOf = new int[sorted.length];
+        types = new byte[sorted.length];
+        values = new long[sorted.length];
+        for (int ordinal = 0; ordinal < sorted.length; ordinal++) {
+            int leaf = sorted[ordinal];
+            nodeOf[ordinal] = builder.leafNodes[leaf];
+            types[ordinal] = builder.types[leaf];
+            values[ordinal] = builder.values[leaf];
+        }
+    }
+
+    /**
+     * @param parser parser positioned before the root of the Json, it is closed by this method
+     */
+    static FlatJson read(JsonParser parser) throws IOException {
+        try (JsonParser input = parser) {
+            if (null == input.nextToken()) {
+                throw new JsonUtilsException("Not a valid input, the json is empty.");
+            }
+            Builder builder = new Builder();
+            builder.read(input, ROOT, "");
+            return new FlatJson(builder);
+        }
+    }
+
+    /**
+     * @return number of properties
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * @param jsonPath full path of the property, like friends[0].associatedAddresses[1].city
+     * @return ordinal of the property, -1 if the Json has no value in the path
+     */
+    public int ordinal(String jsonPath) {
+        if (null == jsonPath) {
+            throw new JsonUtilsException("Not a valid input, Json Path is a mandatory field.");
+        }
+        int low = 0;
+        int high = nodeOf.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = path(middle).compareTo(jsonPath);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param ordinal ordinal of the property
+     * @return full path of the property
+     */
+    public String path(int ordinal) {
+        StringBuilder path = new StringBuilder();
+        append(nodeOf[ordinal], path);
+        return path.toString();
+    }
+
+    /**
+     * @return type of the value in the path, null if the Json has no value in the path
+     */
+    public Type type(String jsonPath) {
+        int ordinal = ordinal(jsonPath);
+        return ordinal < 0 ? null : type(ordinal);
+    }
+
+    public Type type(int ordinal) {
+        return TYPES[types[ordinal]];
+    }
+
+    /**
+     * @return value of a LONG property
+     */
+    public long getLong(String jsonPath) {
+        return getLong(existing(jsonPath));
+    }
+
+    public long getLong(int ordinal) {
+        check(ordinal, Type.LONG);
+        return values[ordinal];
+    }
+
+    /**
+     * @return value of a DOUBLE or LONG property
+     */
+    public double getDouble(String jsonPath) {
+        return getDouble(existing(jsonPath));
+    }
+
+    public double getDouble(int ordinal) {
+        if (type(ordinal) == Type.LONG) {
+            return values[ordinal];
+        }
+        check(ordinal, Type.DOUBLE);
+        return Double.longBitsToDouble(values[ordinal]);
+    }
+
+    /**
+     * @return value of a BOOLEAN property
+     */
+    public boolean getBoolean(String jsonPath) {
+        return getBoolean(existing(jsonPath));
+    }
+
+    public boolean getBoolean(int ordinal) {
+        check(ordinal, Type.BOOLEAN);
+        return values[ordinal] != 0;
+    }
+
+    /**
+     * @return value of a STRING or BIG_INTEGER property, the text form of the other values,
+     * null if the Json has no value in the path
+     */
+    public String getString(String jsonPath) {
+        int ordinal = ordinal(jsonPath);
+        return ordinal < 0 ? null : getString(ordinal);
+    }
+
+    public String getString(int ordinal) {
+        switch (type(ordinal)) {
+            case LONG:
+                return String.valueOf(values[ordinal]);
+            case DOUBLE:
+                return String.valueOf(Double.longBitsToDouble(values[ordinal]));
+            case BOOLEAN:
+                return String.valueOf(values[ordinal] != 0);
+            default:
+                return strings[(int) values[ordinal]];
+        }
+    }
+
+    private int existing(String jsonPath) {
+        int ordinal = ordinal(jsonPath);
+        if (ordinal < 0) {
+            throw new JsonUtilsException(jsonPath + ": the Json has no value in this path.");
+        }
+        return ordinal;
+    }
+
+    private void check(int ordinal, Type type) {
+        if (type(ordinal) != type) {
+            throw new JsonUtilsException(path(ordinal) + ": the value is " + type(ordinal) + ", not " + type + ".");
+        }
+    }
+
+    private void append(int node, StringBuilder path) {
+        if (node != ROOT) {
+            append(parents[node], path);
+            path.append(texts[textOf[node]]);
+        }
+    }
+
+    /**
+     * Adds a node for every field and list element while reading the tokens, then orders the leaves by path.
+     */
+    private static final class Builder {
+
+        private final List<String> texts = new ArrayList<>();
+        private final Map<String, Integer> textIds = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private int[] parents = new int[64];
+        private int[] textOf = new int[64];
+        private byte[] kinds = new byte[64];
+        private int nodes;
+        private int[] leafNodes = new int[64];
+        private byte[] types = new byte[64];
+        private long[] values = new long[64];
+        private int leaves;
+
+        private void read(JsonParser parser, int parent, String text) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return;
+            }
+            int node = addNode(parent, text);
+            if (token == JsonToken.START_OBJECT) {
+                kinds[node] = '.';
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.currentName();
+                    parser.nextToken();
+                    read(parser, node, parent == ROOT ? fieldName : "." + fieldName);
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                kinds[node] = '[';
+                for (int index = 0; parser.nextToken() != JsonToken.END_ARRAY; index++) {
+                    read(parser, node, "[" + index + "]");
+                }
+            } else {
+                addLeaf(node, parser, token);
+            }
+        }
+
+        private void addLeaf(int node, JsonParser parser, JsonToken token) throws IOException {
+            if (leaves == leafNodes.length) {
+                leafNodes = Arrays.copyOf(leafNodes, leaves * 2);
+                types = Arrays.copyOf(types, leaves * 2);
+                values = Arrays.copyOf(values, leaves * 2);
+            }
+            leafNodes[leaves] = node;
+            switch (token) {
+                case VALUE_NUMBER_INT:
+                    if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                        addString(Type.BIG_INTEGER, parser.getText());
+                    } else {
+                        types[leaves] = (byte) Type.LONG.ordinal();
+                        values[leaves] = parser.getLongValue();
+                    }
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    types[leaves] = (byte) Type.DOUBLE.ordinal();
+                    values[leaves] = Double.doubleToRawLongBits(parser.getDoubleValue());
+                    break;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    types[leaves] = (byte) Type.BOOLEAN.ordinal();
+                    values[leaves] = token == JsonToken.VALUE_TRUE ? 1 : 0;
+                    break;
+                default:
+                    addString(Type.STRING, parser.getText());
+            }
+            leaves++;
+        }
+
+        private void addString(Type type, String value) {
+            types[leaves] = (byte) type.ordinal();
+            values[leaves] = strings.size();
+            strings.add(value);
+        }
+
+        private int addNode(int parent, String text) {
+            if (nodes == parents.length) {
+                parents = Arrays.copyOf(parents, nodes * 2);
+                textOf = Arrays.copyOf(textOf, nodes * 2);
+                kinds = Arrays.copyOf(kinds, nodes * 2);
+            }
+            Integer textId = textIds.get(text);
+            if (null == textId) {
+                textId = texts.size();
+                texts.add(text);
+                textIds.put(text, textId);
+            }
+            parents[nodes] = parent;
+            textOf[nodes] = textId;
+            return nodes++;
+        }
+
+        /**
+         * @return the leaves in the String order of their paths. The children of each node are ordered by their text
+         * followed by the first character the paths below them add, that gives the String order of the full paths.
+         */
+        private int[] sortedLeaves() {
+            int[] leafOf = new int[nodes];
+            Arrays.fill(leafOf, -1);
+            for (int leaf = 0; leaf < leaves; leaf++) {
+                leafOf[leafNodes[leaf]] = leaf;
+            }
+            int[] firstChild = new int[nodes];
+            int[] nextSibling = new int[nodes];
+            Arrays.fill(firstChild, -1);
+            int firstRoot = -1;
+            for (int node = nodes - 1; node >= 0; node--) {
+                if (parents[node] == ROOT) {
+                    nextSibling[node] = firstRoot;
+                    firstRoot = node;
+                } else {
+                    nextSibling[node] = firstChild[parents[node]];
+                    firstChild[parents[node]] = node;
+                }
+            }
+            int[] sorted = new int[leaves];
+            int count = 0;
+            List<Integer> pending = new ArrayList<>();
+            addChildren(pending, firstRoot, nextSibling);
+            while (!pending.isEmpty()) {
+                int node = pending.remove(pending.size() - 1);
+                if (leafOf[node] >= 0) {
+                    sorted[count++] = leafOf[node];
+                }
+                addChildren(pending, firstChild[node], nextSibling);
+            }
+            return sorted;
+        }
+
+        /**
+         * Adds the children in reverse order, so the first one is taken next from the end of the pending list.
+         */
+        private void addChildren(List<Integer> pending, int first, int[] nextSibling) {
+            Map<Integer, String> sortKeys = new HashMap<>();
+            for (int child = first; child != -1; child = nextSibling[child]) {
+                sortKeys.put(child, sortKey(child));
+            }
+            List<Integer> children = new ArrayList<>(sortKeys.keySet());
+            children.sort((a, b) -> sortKeys.get(b).compareTo(sortKeys.get(a)));
+            pending.addAll(children);
+        }
+
+        private String sortKey(int node) {
+            String text = texts.get(textOf[node]);
+            return kinds[node] == 0 ? text : text + (char) kinds[node];
+        }
+    }
+}
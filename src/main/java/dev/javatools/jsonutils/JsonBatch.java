@@ -0,0 +1,294 @@
+package dev.javatools.jsonutils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs an operation on many Json files at the same time.
+ * <pre>
+ *     JsonBatch.of(directory, "*.json").run(JsonSort::sort, result -&gt; ...);
+ *     JsonBatch.of(directory).ordered().withMaxInFlight(16).run(JsonProperty::getAllProperties, result -&gt; ...);
+ *     JsonBatch.of(paths).run(file -&gt; JsonProperty.update(file).set("age", 26).toJson(), result -&gt; ...);
+ * </pre>
+ * The operation runs on virtual threads when the JVM has them (Java 21 and above), otherwise on a pool with one
+ * platform thread per processor. A caller's executor can be used instead with withExecutor.
+ * <p>
+ * At most maxInFlight files are being processed or waiting to be delivered at any time, so the memory used depends
+ * on maxInFlight and not on the number of files. Results are passed to the consumer on the thread that called run,
+ * one at a time, in the order the files complete or, with ordered(), in the order of the files.
+ * A failure of one file is delivered as its result and doesn't stop the others. An Error (like OutOfMemoryError)
+ * stops the batch and is rethrown by run.
+ * Instances are immutable, but a batch created from a Stream can only be run once.
+ */
+public final class JsonBatch {
+
+    /**
+     * Default maximum number of files being processed, and of results waiting to be delivered.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4 * Runtime.getRuntime().availableProcessors();
+
+    private final Supplier<Stream<Path>> files;
+    private final boolean ordered;
+    private final int maxInFlight;
+    private final ExecutorService executor;
+
+    private JsonBatch(Supplier<Stream<Path>> files, boolean ordered, int maxInFlight, ExecutorService executor) {
+        this.files = files;
+        this.ordered = ordered;
+        this.maxInFlight = maxInFlight;
+        this.executor = executor;
+    }
+
+    /**
+     * @param directory directory containing the Json files, sub directories are not included
+     * @return batch of all the files in the directory
+     */
+    public static JsonBatch of(Path directory) {
+        return of(directory, "*");
+    }
+
+    /**
+     * @param directory directory containing the Json files, sub directories are not included
+     * @param glob      pattern of the file names, like *.json
+     * @return batch of the files in the directory that match the pattern
+     */
+    public static JsonBatch of(Path directory, String glob) {
+        if (null == directory || null == glob) {
+            throw new JsonUtilsException("Not a valid input, directory and glob are mandatory fields.");
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        return new JsonBatch(() -> {
+            try {
+                return Files.list(directory).filter(path -> Files.isRegularFile(path) && matcher.matches(path.getFileName()));
+            } catch (IOException ioException) {
+                throw new JsonUtilsException(ioException);
+            }
+        }, false, DEFAULT_MAX_IN_FLIGHT, null);
+    }
+
+    /**
+     * @param paths paths of the Json files, the stream is read lazily and closed by run
+     * @return batch of the files
+     */
+    public static JsonBatch of(Stream<Path> paths) {
+        if (null == paths) {
+            throw new JsonUtilsException("Not a valid input, paths is a mandatory field.");
+        }
+        return new JsonBatch(() -> paths, false, DEFAULT_MAX_IN_FLIGHT, null);
+    }
+
+    /**
+     * @return copy of this batch that delivers the results in the order of the files
+     */
+    public JsonBatch ordered() {
+        return new JsonBatch(files, true, maxInFlight, executor);
+    }
+
+    /**
+     * @return copy of this batch that delivers the results as soon as they are ready, the default
+     */
+    public JsonBatch unordered() {
+        return new JsonBatch(files, false, maxInFlight, executor);
+    }
+
+    /**
+     * @param maxInFlight maximum number of files being processed, and of results waiting to be delivered
+     * @return copy of this batch with the given limit
+     */
+    public JsonBatch withMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new JsonUtilsException("Not a valid input, max in flight must be greater than 0.");
+        }
+        return new JsonBatch(files, ordered, maxInFlight, executor);
+    }
+
+    /**
+     * @param executor executor that runs the operation, it is not shut down by run
+     * @return copy of this batch that uses the executor
+     */
+    public JsonBatch withExecutor(ExecutorService executor) {
+        if (null == executor) {
+            throw new JsonUtilsException("Not a valid input, executor is a mandatory field.");
+        }
+        return new JsonBatch(files, ordered, maxInFlight, executor);
+    }
+
+    /**
+     * Runs the operation on every file and returns when all the results are delivered.
+     *
+     * @param operation operation on one file, like JsonSort::sort or JsonProperty::getAllProperties
+     * @param consumer  receives the result of each file, on the thread that called run
+     * @param <T>       type of the result of the operation
+     * @return number of files processed
+     */
+    public <T> long run(Function<File, T> operation, Consumer<Result<T>> consumer) {
+        if (null == operation || null == consumer) {
+            throw new JsonUtilsException("Not a valid input, operation and consumer are mandatory fields.");
+        }
+        ExecutorService service = null == executor ? newExecutor() : executor;
+        BlockingQueue<Result<T>> completed = new LinkedBlockingQueue<>();
+        Map<Long, Result<T>> waiting = new HashMap<>();
+        long submitted = 0;
+        long delivered = 0;
+        try (Stream<Path> paths = files.get()) {
+            Iterator<Path> iterator = paths.iterator();
+            while (iterator.hasNext()) {
+                while (submitted - delivered >= maxInFlight) {
+                    delivered += deliver(take(completed), waiting, delivered, consumer);
+                }
+                Path path = iterator.next();
+                long sequence = submitted++;
+                service.execute(() -> completed.add(apply(operation, path, sequence)));
+            }
+            while (delivered < submitted) {
+                delivered += deliver(take(completed), waiting, delivered, consumer);
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new JsonUtilsException(interruptedException);
+        } catch (UncheckedIOException uncheckedIOException) {
+            throw new JsonUtilsException(uncheckedIOException.getCause());
+        } finally {
+            if (null == executor) {
+                service.shutdownNow();
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * @param delivered number of results delivered so far
+     * @return number of results delivered by this call
+     */
+    private <T> int deliver(Result<T> result, Map<Long, Result<T>> waiting, long delivered, Consumer<Result<T>> consumer) {
+        if (!ordered) {
+            consumer.accept(result);
+            return 1;
+        }
+        waiting.put(result.sequence, result);
+        int count = 0;
+        Result<T> next;
+        while (null != (next = waiting.remove(delivered + count))) {
+            consumer.accept(next);
+            count++;
+        }
+        return count;
+    }
+
+    private static <T> Result<T> apply(Function<File, T> operation, Path path, long sequence) {
+        try {
+            return new Result<>(path, sequence, operation.apply(path.toFile()), null);
+        } catch (JsonUtilsException jsonUtilsException) {
+            return new Result<>(path, sequence, null, jsonUtilsException);
+        } catch (RuntimeException runtimeException) {
+            return new Result<>(path, sequence, null, new JsonUtilsException(runtimeException));
+        } catch (Error error) {
+            // the slot is completed so run doesn't wait for it, run rethrows the error
+            return new Result<>(path, sequence, error);
+        }
+    }
+
+    /**
+     * @return next completed result, an Error thrown by the operation (like OutOfMemoryError) is rethrown
+     */
+    private static <T> Result<T> take(BlockingQueue<Result<T>> completed) throws InterruptedException {
+        Result<T> result = completed.take();
+        if (null != result.fatal) {
+            throw result.fatal;
+        }
+        return result;
+    }
+
+    /**
+     * @return executor with virtual threads when the JVM has them, else a pool with one thread per processor
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException reflectiveOperationException) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "json-batch-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory);
+        }
+    }
+
+    /**
+     * Result of the operation on one file: its value, or the error if the operation failed.
+     *
+     * @param <T> type of the result of the operation
+     */
+    public static final class Result<T> {
+
+        private final Path path;
+        private final long sequence;
+        private final T value;
+        private final JsonUtilsException error;
+        private final Error fatal;
+
+        private Result(Path path, long sequence, T value, JsonUtilsException error) {
+            this.path = path;
+            this.sequence = sequence;
+            this.value = value;
+            this.error = error;
+            this.fatal = null;
+        }
+
+        private Result(Path path, long sequence, Error fatal) {
+            this.path = path;
+            this.sequence = sequence;
+            this.value = null;
+            this.error = null;
+            this.fatal = fatal;
+        }
+
+        /**
+         * @return path of the file
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * @return value returned by the operation, null if it failed
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return error thrown by the operation, wrapped in a JsonUtilsException if needed, null if it succeeded
+         */
+        public JsonUtilsException getError() {
+            return error;
+        }
+
+        /**
+         * @return true if the operation succeeded
+         */
+        public boolean isSuccess() {
+            return null == error;
+        }
+    }
+}
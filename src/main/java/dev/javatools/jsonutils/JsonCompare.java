@@ -1,7 +1,274 @@
 package dev.javatools.jsonutils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 /**
- * Coming Soon.
+ * Structural comparison of two Jsons.
+ * <pre>
+ *     Example:
+ *          left:  { "name": "James Butt", "age": 25, "friends": [ { "name": "Art Venere", "age": 28 } ] }
+ *          right: { "name": "James Butt", "age": 26, "friends": [ { "name": "Art Venere", "age": 28 }, { "name": "Lenna Paprocki" } ] }
+ *
+ *      The above Jsons will generate the below differences
+ *
+ *          CHANGED age: 25 -> 26
+ *          ADDED friends[1]: null -> {name=Lenna Paprocki}
+ *
+ *      and the below Json Patch (RFC 6902)
+ *
+ *          [{"op":"replace","path":"/age","value":26},{"op":"add","path":"/friends/1","value":{"name":"Lenna Paprocki"}}]
+ * </pre>
+ * Identical objects and lists are detected with a hash of their content and are not compared field by field.
+ * <p>
+ * By default the elements of a list are compared by their position. To compare them by a field instead,
+ * pass listKeys in the same format as {@link JsonSort}, for example listKeys.put("friends[]", "name").
+ * Elements with the same key value are compared with each other, the others are reported as added or removed.
+ * In the Json Patch the added elements of such a list are appended at the end of the list.
  */
 public class JsonCompare {
+
+    /**
+     * @param left  json String
+     * @param right json String to compare with
+     * @return differences between the two Jsons, empty if they are equal
+     */
+    public static List<JsonDifference> compare(String left, String right) {
+        return compare(left, right, Collections.emptyMap());
+    }
+
+    /**
+     * @param left     json String
+     * @param right    json String to compare with
+     * @param listKeys field used to match the elements of a list, please see the documentation at class level.
+     * @return differences between the two Jsons, empty if they are equal
+     */
+    public static List<JsonDifference> compare(String left, String right, Map<String, String> listKeys) {
+        return new Differ(listKeys).compare(JsonInput.readMap(left), JsonInput.readMap(right));
+    }
+
+    /**
+     * @param left  File containing the json String
+     * @param right File containing the json String to compare with
+     * @return differences between the two Jsons, empty if they are equal
+     */
+    public static List<JsonDifference> compare(File left, File right) {
+        return compare(left, right, Collections.emptyMap());
+    }
+
+    /**
+     * @param left     File containing the json String
+     * @param right    File containing the json String to compare with
+     * @param listKeys field used to match the elements of a list, please see the documentation at class level.
+     * @return differences between the two Jsons, empty if they are equal
+     */
+    public static List<JsonDifference> compare(File left, File right, Map<String, String> listKeys) {
+        FileReadMode fileReadMode = JsonUtilsConfig.getFileReadMode();
+        return new Differ(listKeys).compare(JsonInput.readMap(left, fileReadMode), JsonInput.readMap(right, fileReadMode));
+    }
+
+    /**
+     * @param left  Custom java model
+     * @param right Custom java model to compare with
+     * @return differences between the two Jsons, empty if they are equal
+     */
+    public static List<JsonDifference> compare(Object left, Object right) {
+        return compare(left, right, Collections.emptyMap());
+    }
+
+    /**
+     * @param left     Custom java model
+     * @param right    Custom java model to compare with
+     * @param listKeys field used to match the elements of a list, please see the documentation at class level.
+     * @return differences between the two Jsons, empty if they are equal
+     */
+    public static List<JsonDifference> compare(Object left, Object right, Map<String, String> listKeys) {
+        return new Differ(listKeys).compare(JsonInput.modelMap(left), JsonInput.modelMap(right));
+    }
+
+    /**
+     * @param differences result of compare
+     * @return Json Patch (RFC 6902) that turns the left Json into the right Json
+     */
+    public static String toJsonPatch(List<JsonDifference> differences) {
+        List<Map<String, Object>> operations = new ArrayList<>(differences.size());
+        for (JsonDifference difference : differences) {
+            Map<String, Object> operation = new LinkedHashMap<>();
+            switch (difference.getType()) {
+                case ADDED:
+                    operation.put("op", "add");
+                    break;
+                case REMOVED:
+                    operation.put("op", "remove");
+                    break;
+                default:
+                    operation.put("op", "replace");
+            }
+            operation.put("path", difference.getPatchPath());
+            if (difference.getType() != JsonDifference.Type.REMOVED) {
+                operation.put("value", difference.getRightValue());
+            }
+            operations.add(operation);
+        }
+        try {
+            return JsonUtilsConfig.getWriter().writeValueAsString(operations);
+        } catch (JsonProcessingException jsonProcessingException) {
+            throw new JsonUtilsException(jsonProcessingException);
+        }
+    }
+
+    private static final class Differ {
+
+        private final Map<String, String> listKeys;
+        private final Map<Object, Long> hashes = new IdentityHashMap<>();
+        private final List<JsonDifference> differences = new ArrayList<>();
+
+        private Differ(Map<String, String> listKeys) {
+            this.listKeys = null == listKeys ? Collections.emptyMap() : listKeys;
+        }
+
+        private List<JsonDifference> compare(Map left, Map right) {
+            diff(left, right, "", "", "");
+            return differences;
+        }
+
+        /**
+         * @param path       path in JsonPath format, with list positions
+         * @param pointer    JSON Pointer of the same node
+         * @param uniquePath path without list positions, used to find the listKeys
+         */
+        private void diff(Object left, Object right, String path, String pointer, String uniquePath) {
+            if (left == right || (hash(left) == hash(right) && Objects.equals(left, right))) {
+                return;
+            }
+            if (left instanceof Map && right instanceof Map) {
+                diffObjects((Map) left, (Map) right, path, pointer, uniquePath);
+            } else if (left instanceof List && right instanceof List) {
+                diffLists((List) left, (List) right, path, pointer, uniquePath);
+            } else {
+                differences.add(new JsonDifference(JsonDifference.Type.CHANGED, path, left, right, pointer));
+            }
+        }
+
+        private void diffObjects(Map<?, ?> left, Map<?, ?> right, String path, String pointer, String uniquePath) {
+            for (Map.Entry<?, ?> entry : left.entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                String childPath = path.isEmpty() ? key : path + "." + key;
+                String childPointer = pointer + "/" + escape(key);
+                if (right.containsKey(entry.getKey())) {
+                    diff(entry.getValue(), right.get(entry.getKey()), childPath, childPointer, uniquePath.isEmpty() ? key : uniquePath + "." + key);
+                } else {
+                    differences.add(new JsonDifference(JsonDifference.Type.REMOVED, childPath, entry.getValue(), null, childPointer));
+                }
+            }
+            for (Map.Entry<?, ?> entry : right.entrySet()) {
+                if (!left.containsKey(entry.getKey())) {
+                    String key = String.valueOf(entry.getKey());
+                    differences.add(new JsonDifference(JsonDifference.Type.ADDED, path.isEmpty() ? key : path + "." + key,
+                            null, entry.getValue(), pointer + "/" + escape(key)));
+                }
+            }
+        }
+
+        private void diffLists(List<?> left, List<?> right, String path, String pointer, String uniquePath) {
+            String listPath = uniquePath + "[]";
+            String listKey = listKeys.get(listPath);
+            if (null == listKey) {
+                int common = Math.min(left.size(), right.size());
+                for (int i = 0; i < common; i++) {
+                    diff(left.get(i), right.get(i), path + "[" + i + "]", pointer + "/" + i, listPath);
+                }
+                for (int i = left.size() - 1; i >= common; i--) {
+                    differences.add(new JsonDifference(JsonDifference.Type.REMOVED, path + "[" + i + "]", left.get(i), null, pointer + "/" + i));
+                }
+                for (int i = common; i < right.size(); i++) {
+                    differences.add(new JsonDifference(JsonDifference.Type.ADDED, path + "[" + i + "]", null, right.get(i), pointer + "/" + i));
+                }
+                return;
+            }
+            Map<Object, Deque<Integer>> rightPositions = new HashMap<>();
+            for (int i = 0; i < right.size(); i++) {
+                rightPositions.computeIfAbsent(keyOf(right.get(i), listKey), key -> new ArrayDeque<>()).add(i);
+            }
+            int[] matches = new int[left.size()];
+            boolean[] matchedRight = new boolean[right.size()];
+            for (int i = 0; i < left.size(); i++) {
+                Deque<Integer> positions = rightPositions.get(keyOf(left.get(i), listKey));
+                matches[i] = null == positions || positions.isEmpty() ? -1 : positions.poll();
+                if (matches[i] >= 0) {
+                    matchedRight[matches[i]] = true;
+                    diff(left.get(i), right.get(matches[i]), path + "[" + i + "]", pointer + "/" + i, listPath);
+                }
+            }
+            for (int i = left.size() - 1; i >= 0; i--) {
+                if (matches[i] < 0) {
+                    differences.add(new JsonDifference(JsonDifference.Type.REMOVED, path + "[" + i + "]", left.get(i), null, pointer + "/" + i));
+                }
+            }
+            for (int i = 0; i < right.size(); i++) {
+                if (!matchedRight[i]) {
+                    differences.add(new JsonDifference(JsonDifference.Type.ADDED, path + "[" + i + "]", null, right.get(i), pointer + "/-"));
+                }
+            }
+        }
+
+        private static Object keyOf(Object element, String listKey) {
+            return element instanceof Map ? ((Map) element).get(listKey) : element;
+        }
+
+        /**
+         * Content hash of the node, computed once per object and list. Field order doesn't change the hash of an object.
+         */
+        private long hash(Object node) {
+            if (null == node) {
+                return 0;
+            }
+            if (!(node instanceof Map) && !(node instanceof List)) {
+                return mix(node.hashCode() * 31L + node.getClass().getName().hashCode());
+            }
+            Long cached = hashes.get(node);
+            if (null != cached) {
+                return cached;
+            }
+            long hash;
+            if (node instanceof Map) {
+                hash = 0x9E3779B97F4A7C15L;
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                    hash += mix(String.valueOf(entry.getKey()).hashCode() * 0x100000001B3L ^ hash(entry.getValue()));
+                }
+            } else {
+                hash = 1;
+                for (Object element : (List<?>) node) {
+                    hash = hash * 0x100000001B3L + hash(element);
+                }
+            }
+            hash = mix(hash);
+            hashes.put(node, hash);
+            return hash;
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xFF51AFD7ED558CCDL;
+            value ^= value >>> 33;
+            value *= 0xC4CEB9FE1A85EC53L;
+            value ^= value >>> 33;
+            return value;
+        }
+
+        private static String escape(String key) {
+            return key.replace("~", "~0").replace("/", "~1");
+        }
+    }
 }
@@ -0,0 +1,83 @@
+package dev.javatools.jsonutils;
+
+/**
+ * One difference found by {@link JsonCompare}.
+ * <pre>
+ * path uses the same format as {@link JsonPath}, for example friends[0].associatedAddresses[1].city
+ * For REMOVED and CHANGED the path (and list positions) refer to the left Json, for ADDED they refer to the right Json.
+ * </pre>
+ */
+public final class JsonDifference {
+
+    /**
+     * Kind of difference
+     */
+    public enum Type {
+        /**
+         * The path exists only in the right Json
+         */
+        ADDED,
+        /**
+         * The path exists only in the left Json
+         */
+        REMOVED,
+        /**
+         * The path exists in both, with different values
+         */
+        CHANGED
+    }
+
+    private final Type type;
+    private final String path;
+    private final Object leftValue;
+    private final Object rightValue;
+    private final String patchPath;
+
+    JsonDifference(Type type, String path, Object leftValue, Object rightValue, String patchPath) {
+        this.type = type;
+        this.path = path;
+        this.leftValue = leftValue;
+        this.rightValue = rightValue;
+        this.patchPath = patchPath;
+    }
+
+    /**
+     * @return kind of difference
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return path of the field, in the same format as {@link JsonPath}
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return value in the left Json, null when the path was added
+     */
+    public Object getLeftValue() {
+        return leftValue;
+    }
+
+    /**
+     * @return value in the right Json, null when the path was removed
+     */
+    public Object getRightValue() {
+        return rightValue;
+    }
+
+    /**
+     * JSON Pointer (RFC 6901) of the json patch operation for this difference
+     */
+    String getPatchPath() {
+        return patchPath;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + path + ": " + leftValue + " -> " + rightValue;
+    }
+}
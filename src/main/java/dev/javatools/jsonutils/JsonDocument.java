@@ -0,0 +1,436 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import dev.javatools.maputils.MapPaths;
+import dev.javatools.maputils.MapProperties;
+import dev.javatools.maputils.MapSort;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Json that has been parsed once. All the reads and updates work on the same parsed structure,
+ * and the Json String is only created when toJson is called.
+ * <pre>
+ *     JsonDocument document = JsonProperty.parse(jsonString);
+ *     Object name = document.getProperty("name");
+ *     Object city = document.getProperty("friends[{name=Art Venere}].primaryAddress.city");
+ *     String updatedJson = document.setProperty("age", 26).toJson();
+ * </pre>
+ * See {@link JsonProperty} for the path format.
+ * <p>
+ * A document created by JsonProperty.parseLazy only reads the objects and lists that its operations reach, see
+ * {@link LazyJsonTree}. Reading a few paths (or the properties or the sorted json of a branch) of a large Json
+ * then costs a scan of its bytes, not the Map of the whole Json.
+ * <p>
+ * This class is not thread safe, setProperty updates the document (and its index) in place.
+ */
+public class JsonDocument {
+
+    private static final String PARSE = "parse";
+
+    private final Map json;
+    private JsonIndex index;
+
+    /**
+     * Parse time of the document, reported with its first operation, see {@link JsonUtilsMetrics}.
+     */
+    private JsonOperationStats parsed;
+
+    JsonDocument(Map json) {
+        this.json = json;
+    }
+
+    private JsonDocument(Map json, JsonOperationStats parsed) {
+        this.json = json;
+        this.parsed = parsed;
+    }
+
+    static JsonDocument of(String jsonString) {
+        JsonOperationStats stats = JsonOperationStats.start(PARSE);
+        try {
+            Map json = JsonInput.readMap(jsonString);
+            JsonOperationStats.parsed(stats, null == jsonString ? -1 : jsonString.length());
+            return new JsonDocument(json, stats);
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    static JsonDocument of(File jsonFile) {
+        return of(jsonFile, JsonUtilsConfig.getFileReadMode());
+    }
+
+    static JsonDocument of(File jsonFile, FileReadMode fileReadMode) {
+        JsonOperationStats stats = JsonOperationStats.start(PARSE);
+        try {
+            Map json = JsonInput.readMap(jsonFile, fileReadMode);
+            JsonOperationStats.parsed(stats, null == jsonFile ? -1 : jsonFile.length());
+            return new JsonDocument(json, stats);
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    static JsonDocument of(InputStream jsonStream) {
+        JsonOperationStats stats = JsonOperationStats.start(PARSE);
+        try (JsonParser parser = JsonInput.parser(jsonStream)) {
+            Map json = JsonUtilsConfig.mappers().mapReader.readValue(parser);
+            JsonOperationStats.parsed(stats, parser);
+            return new JsonDocument(json, stats);
+        } catch (IOException ioException) {
+            JsonOperationStats.failed(stats, ioException);
+            throw new JsonUtilsException(ioException);
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * @param json json text in UTF-8, it is kept by the document and must not be changed
+     */
+    static JsonDocument lazy(byte[] json) {
+        JsonOperationStats stats = JsonOperationStats.start(PARSE);
+        try {
+            Map root = LazyJsonTree.of(json);
+            JsonOperationStats.parsed(stats, json.length);
+            return new JsonDocument(root, stats);
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    static JsonDocument lazy(String jsonString) {
+        if (null == jsonString) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        return lazy(jsonString.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static JsonDocument lazy(File jsonFile) {
+        if (null == jsonFile) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return lazyOf(Files.readAllBytes(jsonFile.toPath()));
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    static JsonDocument lazy(InputStream jsonStream) {
+        if (null == jsonStream) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return lazyOf(jsonStream.readAllBytes());
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Only json text can be read lazily, the offsets of the binary formats are not indexed.
+     */
+    private static JsonDocument lazyOf(byte[] json) {
+        DataFormat format = DataFormat.detect(json, Math.min(json.length, DataFormat.HEADER_LENGTH));
+        if (format != DataFormat.JSON) {
+            throw new JsonUtilsException("Not a valid input, " + format + " can not be read lazily.");
+        }
+        return lazy(json);
+    }
+
+    static JsonDocument of(Object customJavaModel) {
+        JsonOperationStats stats = JsonOperationStats.start(PARSE);
+        try {
+            Map json = JsonInput.modelMap(customJavaModel);
+            JsonOperationStats.parsed(stats, -1);
+            return new JsonDocument(json, stats);
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * @return Map structure of the document, changes to it change the document
+     */
+    Map json() {
+        return json;
+    }
+
+    /**
+     * Indexes every path of the document, see {@link JsonIndex}. setProperty keeps the index up to date.
+     * The document keeps a single index: calling this method again replaces it, and the index returned before is no
+     * longer updated by setProperty, so it must not be used after that.
+     *
+     * @param keyFields fields of the list elements that are used in conditions, like name in friends[{name=Art Venere}]
+     * @return index of the document
+     */
+    public JsonIndex index(String... keyFields) {
+        index = new JsonIndex(json, keyFields);
+        return index;
+    }
+
+    /**
+     * Indexes every path of the sorted document, with the list positions of getAllPaths and getAllProperties, so
+     * the paths they return can be looked up. The index is built on a sorted copy of the document: setProperty doesn't
+     * update it, and it is not the index returned by index(String...).
+     *
+     * @param keyFields fields of the list elements that are used in conditions, like name in friends[{name=Art Venere}]
+     * @return index of the sorted document
+     */
+    public JsonIndex sortedIndex(String... keyFields) {
+        return new JsonIndex(MapSort.getSortedMap(json), keyFields);
+    }
+
+    /**
+     * @param jsonPath path of the field, see {@link JsonProperty} for details
+     * @return value of the field in the path
+     */
+    public Object getProperty(String jsonPath) {
+        return getProperty(CompiledJsonPath.compile(jsonPath));
+    }
+
+    /**
+     * @param jsonPath compiled path of the field
+     * @return value of the field in the path
+     */
+    public Object getProperty(CompiledJsonPath jsonPath) {
+        return jsonPath.read(json);
+    }
+
+    /**
+     * @return Map containing all the properties in the Json
+     */
+    public Map<String, Object> getAllProperties() {
+        JsonOperationStats stats = operation("getAllProperties");
+        try {
+            Map<String, Object> properties = MapProperties.getProperties(json);
+            JsonOperationStats.transformed(stats);
+            JsonOperationStats.end(stats, json);
+            return properties;
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * Only the branch in the path is flattened, in a lazy document the rest of the Json is not read.
+     * <pre>
+     * The keys are relative to the path as given: the path itself, as written by the caller, followed by the path of
+     * the property in the branch, like friends[{name=Art Venere}].associatedAddresses[0].city. The path is not
+     * rewritten, and the lists in the branch are numbered the way getAllProperties numbers them, so the keys are not
+     * the ones getAllProperties() gives for the same values.
+     * </pre>
+     *
+     * @param jsonPath path of an object or a list, see {@link JsonProperty} for details
+     * @return Map containing all the properties in the branch, keyed by the path as given, empty if the path doesn't exist
+     */
+    public Map<String, Object> getAllProperties(String jsonPath) {
+        Object branch = getProperty(jsonPath);
+        if (null == branch) {
+            return Collections.emptyMap();
+        }
+        JsonOperationStats stats = operation("getAllProperties");
+        try {
+            Map<String, Object> properties = MapProperties.getProperties(Collections.singletonMap(jsonPath, branch));
+            JsonOperationStats.transformed(stats);
+            JsonOperationStats.end(stats, branch);
+            return properties;
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * @return Sorted set of all the paths in the Json
+     */
+    public Set<String> getAllPaths() {
+        JsonOperationStats stats = operation("getAllPaths");
+        try {
+            Set<String> paths = MapPaths.getPaths(json);
+            JsonOperationStats.transformed(stats);
+            JsonOperationStats.end(stats, json);
+            return paths;
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * @return Sorted set of all the unique paths in the Json
+     */
+    public Set<String> getAllUniquePaths() {
+        JsonOperationStats stats = operation("getAllUniquePaths");
+        try {
+            Set<String> paths = MapPaths.getUniquePaths(json);
+            JsonOperationStats.transformed(stats);
+            JsonOperationStats.end(stats, json);
+            return paths;
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * @return sorted json String
+     */
+    public String sort() {
+        return sort(null);
+    }
+
+    /**
+     * @param listKeys see the documentation of {@link JsonSort}
+     * @return sorted json String
+     */
+    public String sort(Map<String, String> listKeys) {
+        JsonOperationStats stats = operation("sort");
+        try {
+            Map sorted = null == listKeys ? MapSort.getSortedMap(json) : MapSort.getSortedMap(json, listKeys);
+            JsonOperationStats.transformed(stats);
+            String sortedJson = toJson(sorted);
+            JsonOperationStats.serialized(stats, sortedJson.length());
+            JsonOperationStats.end(stats, json);
+            return sortedJson;
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * @param jsonPath path of an object, see {@link JsonProperty} for details
+     * @return sorted json String of the object, null if the path doesn't exist
+     */
+    public String sortProperty(String jsonPath) {
+        return sortProperty(jsonPath, null);
+    }
+
+    /**
+     * Only the object in the path is sorted, in a lazy document the rest of the Json is not read.
+     *
+     * @param jsonPath path of an object, see {@link JsonProperty} for details
+     * @param listKeys see the documentation of {@link JsonSort}, the list paths start from the object
+     * @return sorted json String of the object, null if the path doesn't exist
+     */
+    public String sortProperty(String jsonPath, Map<String, String> listKeys) {
+        Object branch = getProperty(jsonPath);
+        if (null == branch) {
+            return null;
+        }
+        if (!(branch instanceof Map)) {
+            throw new JsonUtilsException(jsonPath + ": only an object can be sorted.");
+        }
+        JsonOperationStats stats = operation("sort");
+        try {
+            Map sorted = null == listKeys ? MapSort.getSortedMap((Map) branch) : MapSort.getSortedMap((Map) branch, listKeys);
+            JsonOperationStats.transformed(stats);
+            String sortedJson = toJson(sorted);
+            JsonOperationStats.serialized(stats, sortedJson.length());
+            JsonOperationStats.end(stats, branch);
+            return sortedJson;
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * @param jsonPath path of the field, see {@link JsonProperty} for details
+     * @param value    the value that needs to be updated
+     * @return this document
+     */
+    public JsonDocument setProperty(String jsonPath, Object value) {
+        return setProperty(CompiledJsonPath.compile(jsonPath), value);
+    }
+
+    /**
+     * @param jsonPath compiled path of the field
+     * @param value    the value that needs to be updated
+     * @return this document
+     */
+    public JsonDocument setProperty(CompiledJsonPath jsonPath, Object value) {
+        if (null == index) {
+            jsonPath.write(json, value);
+        } else {
+            index.write(jsonPath, value);
+        }
+        return this;
+    }
+
+    /**
+     * @return pretty printed String representation of the document
+     */
+    public String toJson() {
+        JsonOperationStats stats = operation("toJson");
+        try {
+            String jsonString = toJson(json);
+            JsonOperationStats.serialized(stats, jsonString.length());
+            JsonOperationStats.end(stats, json);
+            return jsonString;
+        } catch (RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * Writes the document without any white space.
+     *
+     * @param output stream to write the document to, the stream is not closed
+     * @param format format of the written document, see {@link DataFormat}
+     */
+    public void writeTo(OutputStream output, DataFormat format) {
+        if (null == output) {
+            throw new JsonUtilsException("Not a valid input, Output stream is a mandatory field.");
+        }
+        if (null == format) {
+            throw new JsonUtilsException("Not a valid input, format is a mandatory field.");
+        }
+        try (JsonGenerator generator = format.factory().createGenerator(output, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            JsonInput.objectMapper().writeValue(generator, json);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @return stats of the operation, with the parse time of the document if this is its first operation
+     */
+    private JsonOperationStats operation(String name) {
+        JsonOperationStats stats = JsonOperationStats.start(name);
+        if (null != stats) {
+            JsonOperationStats.include(stats, parsed);
+            parsed = null;
+        }
+        return stats;
+    }
+
+    private static String toJson(Map map) {
+        try {
+            return JsonUtilsConfig.getPrettyWriter().writeValueAsString(map);
+        } catch (JsonProcessingException jsonProcessingException) {
+            throw new JsonUtilsException(jsonProcessingException);
+        }
+    }
+}
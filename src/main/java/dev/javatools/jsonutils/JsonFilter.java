@@ -1,7 +1,356 @@
 package dev.javatools.jsonutils;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import dev.javatools.jsonutils.CompiledJsonPath.Kind;
+import dev.javatools.jsonutils.CompiledJsonPath.Predicate;
+import dev.javatools.jsonutils.CompiledJsonPath.Segment;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
- * Coming Soon
+ * Get the elements of a list that match a filter, without loading the whole Json.
+ * <pre>
+ * The filter is a path to a list followed by a list selector, in the same format as {@link JsonProperty}
+ *
+ * 1. friends[{state=CA}]                         - elements of the friends list whose state is CA
+ * 2. friends[{state:CA}, {zip:94599}]            - elements whose state is CA and zip is 94599
+ * 3. data.records[{type=ORDER}]                  - elements of a list inside an object
+ * 4. [{state=CA}]                                - elements of a Json that is a list
+ * 5. friends[]                                   - all the elements of the friends list
+ *
+ * The conditions are checked against the fields of each element while the element is read.
+ * An element is dropped as soon as one of its fields doesn't match, and only the element that is being read
+ * is kept in memory, so lists of any size can be filtered.
+ * The path to the list can only have field names and list positions.
+ * </pre>
  */
 public class JsonFilter {
+
+    /**
+     * Writes the matching elements as a Json list to the output stream.
+     *
+     * @param filter     path to the list and the conditions, please see the documentation at class level.
+     * @param jsonString json String to filter
+     * @param output     stream to write the matching elements to, the stream is not closed
+     * @return number of matching elements
+     */
+    public static long filter(String filter, String jsonString, OutputStream output) {
+        try {
+            return write(new Matcher(filter, JsonInput.parser(jsonString)), output);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param filter   path to the list and the conditions, please see the documentation at class level.
+     * @param jsonFile File containing the json String to filter
+     * @param output   stream to write the matching elements to, the stream is not closed
+     * @return number of matching elements
+     */
+    public static long filter(String filter, File jsonFile, OutputStream output) {
+        try {
+            return write(new Matcher(filter, JsonInput.parser(jsonFile)), output);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param filter     path to the list and the conditions, please see the documentation at class level.
+     * @param jsonStream stream containing the json to filter, the stream is not closed
+     * @param output     stream to write the matching elements to, the stream is not closed
+     * @return number of matching elements
+     */
+    public static long filter(String filter, InputStream jsonStream, OutputStream output) {
+        try {
+            return write(new Matcher(filter, JsonInput.parser(jsonStream)), output);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Lazy version of filter, each matching element is read when the stream asks for it.
+     * Only the elements that are objects are returned. The stream must be closed.
+     *
+     * @param filter     path to the list and the conditions, please see the documentation at class level.
+     * @param jsonString json String to filter
+     * @return stream of the matching elements
+     */
+    public static Stream<Map<String, Object>> stream(String filter, String jsonString) {
+        try {
+            return new Matcher(filter, JsonInput.parser(jsonString)).stream();
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param filter   path to the list and the conditions, please see the documentation at class level.
+     * @param jsonFile File containing the json String to filter
+     * @return stream of the matching elements
+     */
+    public static Stream<Map<String, Object>> stream(String filter, File jsonFile) {
+        try {
+            return new Matcher(filter, JsonInput.parser(jsonFile)).stream();
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param filter     path to the list and the conditions, please see the documentation at class level.
+     * @param jsonStream stream containing the json to filter, the stream is not closed
+     * @return stream of the matching elements
+     */
+    public static Stream<Map<String, Object>> stream(String filter, InputStream jsonStream) {
+        try {
+            return new Matcher(filter, JsonInput.parser(jsonStream)).stream();
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    private static long write(Matcher matcher, OutputStream output) throws IOException {
+        long count = 0;
+        try (Matcher source = matcher;
+             JsonGenerator generator = JsonInput.objectMapper().getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.writeStartArray();
+            TokenBuffer element;
+            while (null != (element = source.nextMatch())) {
+                element.serialize(generator);
+                count++;
+            }
+            generator.writeEndArray();
+        }
+        return count;
+    }
+
+    /**
+     * Moves the parser to the list and reads the matching elements one at a time.
+     */
+    private static final class Matcher implements Iterator<Map<String, Object>>, Closeable {
+
+        private final JsonParser parser;
+        private final List<Segment> listPath;
+        private final List<Predicate> predicates;
+        private boolean objectsOnly;
+        private boolean inList;
+        private boolean done;
+        private TokenBuffer next;
+
+        private Matcher(String filter, JsonParser parser) throws IOException {
+            this.parser = parser;
+            try {
+                List<Segment> segments = CompiledJsonPath.compile(filter).segments();
+                Segment selector = segments.get(segments.size() - 1);
+                if (selector.kind != Kind.MATCH && selector.kind != Kind.APPEND) {
+                    throw new JsonUtilsException("Not a valid filter, the filter must end with a list selector: " + filter);
+                }
+                listPath = segments.subList(0, segments.size() - 1);
+                for (Segment segment : listPath) {
+                    if (segment.kind != Kind.FIELD && segment.kind != Kind.INDEX) {
+                        throw new JsonUtilsException("Not a valid filter, the path to the list can only have field names and list positions: " + filter);
+                    }
+                }
+                predicates = selector.predicates;
+            } catch (JsonUtilsException jsonUtilsException) {
+                parser.close();
+                throw jsonUtilsException;
+            }
+        }
+
+        private Stream<Map<String, Object>> stream() {
+            objectsOnly = true;
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(this::close);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null == next && !done) {
+                try {
+                    next = nextMatch();
+                } catch (IOException ioException) {
+                    close();
+                    throw new JsonUtilsException(ioException);
+                }
+            }
+            return null != next;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try (JsonParser elementParser = next.asParser()) {
+                next = null;
+                return JsonInput.objectMapper().readValue(elementParser, Map.class);
+            } catch (IOException ioException) {
+                throw new JsonUtilsException(ioException);
+            }
+        }
+
+        @Override
+        public void close() {
+            done = true;
+            try {
+                parser.close();
+            } catch (IOException ioException) {
+                throw new JsonUtilsException(ioException);
+            }
+        }
+
+        /**
+         * @return tokens of the next matching element, null when there are no more elements
+         */
+        private TokenBuffer nextMatch() throws IOException {
+            if (done) {
+                return null;
+            }
+            if (!inList) {
+                inList = moveToList();
+                if (!inList) {
+                    close();
+                    return null;
+                }
+            }
+            JsonToken token;
+            while (null != (token = parser.nextToken()) && token != JsonToken.END_ARRAY) {
+                TokenBuffer element = read(token);
+                if (null != element) {
+                    return element;
+                }
+            }
+            close();
+            return null;
+        }
+
+        /**
+         * @return true when the parser is at the start of the list
+         */
+        private boolean moveToList() throws IOException {
+            JsonToken token = parser.nextToken();
+            for (Segment segment : listPath) {
+                if (segment.kind == Kind.FIELD) {
+                    if (token != JsonToken.START_OBJECT || !moveToField(segment.name)) {
+                        return false;
+                    }
+                } else if (token != JsonToken.START_ARRAY || !moveToPosition(segment.index)) {
+                    return false;
+                }
+                token = parser.currentToken();
+            }
+            return token == JsonToken.START_ARRAY;
+        }
+
+        private boolean moveToField(String name) throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean found = name.equals(parser.currentName());
+                parser.nextToken();
+                if (found) {
+                    return true;
+                }
+                parser.skipChildren();
+            }
+            return false;
+        }
+
+        private boolean moveToPosition(int index) throws IOException {
+            for (int position = 0; parser.nextToken() != JsonToken.END_ARRAY; position++) {
+                if (position == index) {
+                    return true;
+                }
+                parser.skipChildren();
+            }
+            return false;
+        }
+
+        /**
+         * @return tokens of the element if it matches, null if it was skipped
+         */
+        private TokenBuffer read(JsonToken token) throws IOException {
+            if (token != JsonToken.START_OBJECT) {
+                if (predicates.isEmpty() && !objectsOnly) {
+                    TokenBuffer element = new TokenBuffer(parser);
+                    element.copyCurrentStructure(parser);
+                    return element;
+                }
+                parser.skipChildren();
+                return null;
+            }
+            TokenBuffer element = new TokenBuffer(parser);
+            element.writeStartObject();
+            boolean[] matched = new boolean[predicates.size()];
+            int remaining = predicates.size();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                for (int i = 0; i < matched.length; i++) {
+                    Predicate predicate = predicates.get(i);
+                    if (!matched[i] && predicate.key.equals(name)) {
+                        if (!predicate.matches(scalarValue(value))) {
+                            skipRemainingFields();
+                            return null;
+                        }
+                        matched[i] = true;
+                        remaining--;
+                    }
+                }
+                element.writeFieldName(name);
+                element.copyCurrentStructure(parser);
+            }
+            element.writeEndObject();
+            return remaining == 0 ? element : null;
+        }
+
+        /**
+         * @return value of a scalar token, the same value as in the Map, null for null, objects and lists
+         */
+        private Object scalarValue(JsonToken token) throws IOException {
+            switch (token) {
+                case VALUE_STRING:
+                    return parser.getText();
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    return parser.getNumberValue();
+                case VALUE_TRUE:
+                    return Boolean.TRUE;
+                case VALUE_FALSE:
+                    return Boolean.FALSE;
+                case VALUE_EMBEDDED_OBJECT:
+                    return parser.getEmbeddedObject();
+                default:
+                    return null;
+            }
+        }
+
+        private void skipRemainingFields() throws IOException {
+            parser.skipChildren();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        }
+    }
 }
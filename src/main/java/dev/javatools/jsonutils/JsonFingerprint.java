@@ -0,0 +1,286 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.Checksum;
+
+/**
+ * Hashes the canonical form of a Json: compact json in UTF-8 with the fields of every object sorted by name, the lists
+ * that have a list key sorted by that field, and the other lists sorted by the canonical bytes of their elements.
+ * <pre>
+ * The canonical bytes are built from the parser, bottom up, without the Map or the sorted tree of JsonSort.
+ * Every element of a list keeps its place, duplicates included, so the order of the input never changes the hash.
+ * The bytes of an object or a list are only known when it ends, so they are buffered until then: the memory used is
+ * about the size of the compact json, the hash is not streamed.
+ * </pre>
+ */
+final class JsonFingerprint {
+
+    private static final Comparator<Node> BY_BYTES = (first, second) -> Arrays.compareUnsigned(first.bytes, second.bytes);
+    private static final Comparator<Node> BY_KEY = Comparator.<Node, String>comparing(node -> node.key).thenComparing(BY_BYTES);
+
+    private final Map<String, String> listKeys;
+    private final MessageDigest subtreeDigest;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final JsonGenerator generator;
+
+    private JsonFingerprint(Map<String, String> listKeys, MessageDigest subtreeDigest) throws IOException {
+        this.listKeys = null == listKeys ? Collections.emptyMap() : listKeys;
+        this.subtreeDigest = subtreeDigest;
+        this.generator = JsonInput.objectMapper().getFactory().createGenerator(buffer, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * @param algorithm MessageDigest algorithm, like SHA-256
+     * @return hash of the canonical form of the Json
+     */
+    static byte[] digest(JsonParser parser, Map<String, String> listKeys, String algorithm) throws IOException {
+        MessageDigest digest = messageDigest(algorithm);
+        return digest.digest(canonical(parser, listKeys));
+    }
+
+    /**
+     * @param checksum checksum that is reset and updated with the canonical form, like CRC32C or a 64 bit xxHash
+     * @return value of the checksum
+     */
+    static long checksum(JsonParser parser, Map<String, String> listKeys, Checksum checksum) throws IOException {
+        if (null == checksum) {
+            parser.close();
+            throw new JsonUtilsException("Not a valid input, checksum is a mandatory field.");
+        }
+        byte[] bytes = canonical(parser, listKeys);
+        checksum.reset();
+        checksum.update(bytes, 0, bytes.length);
+        return checksum.getValue();
+    }
+
+    /**
+     * @param algorithm MessageDigest algorithm, like SHA-256
+     * @return hash of the canonical form of every object and list of the Json, keyed by its path in the canonical
+     * Json, the root is the empty path
+     */
+    static Map<String, byte[]> subtreeDigests(JsonParser parser, Map<String, String> listKeys, String algorithm) throws IOException {
+        MessageDigest digest = messageDigest(algorithm);
+        try (JsonParser input = parser) {
+            Node root = new JsonFingerprint(listKeys, digest).read(input);
+            Map<String, byte[]> digests = new TreeMap<>();
+            if (null != root.digest) {
+                digests.put("", root.digest);
+                for (Subtree subtree : root.subtrees) {
+                    digests.put(subtree.path.startsWith(".") ? subtree.path.substring(1) : subtree.path, subtree.digest);
+                }
+            }
+            return digests;
+        }
+    }
+
+    /**
+     * @return canonical form of the Json
+     */
+    static byte[] canonical(JsonParser parser, Map<String, String> listKeys) throws IOException {
+        try (JsonParser input = parser) {
+            return new JsonFingerprint(listKeys, null).read(input).bytes;
+        }
+    }
+
+    private static MessageDigest messageDigest(String algorithm) {
+        if (null == algorithm) {
+            throw new JsonUtilsException("Not a valid input, algorithm is a mandatory field.");
+        }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            throw new JsonUtilsException(noSuchAlgorithmException);
+        }
+    }
+
+    private Node read(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (null == token) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        return read(parser, token, "", null);
+    }
+
+    /**
+     * @param path    path of the value with [] for the lists, the same as the keys of listKeys
+     * @param listKey field that orders the value in its list, null when the value is not in a list with a list key
+     */
+    private Node read(JsonParser parser, JsonToken token, String path, String listKey) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                return readObject(parser, path, listKey);
+            case START_ARRAY:
+                return readArray(parser, path);
+            case VALUE_STRING:
+                return scalar(parser.getText());
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return scalar(parser.getNumberValue());
+            case VALUE_TRUE:
+                return scalar(Boolean.TRUE);
+            case VALUE_FALSE:
+                return scalar(Boolean.FALSE);
+            case VALUE_NULL:
+                return scalar(null);
+            default:
+                return scalar(JsonInput.readValue(parser));
+        }
+    }
+
+    /**
+     * The fields are sorted by name, a name that is repeated keeps its last value, like the Map.
+     */
+    private Node readObject(JsonParser parser, String path, String listKey) throws IOException {
+        Map<String, Node> fields = new TreeMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            fields.put(name, read(parser, parser.nextToken(), path.isEmpty() ? name : path + "." + name, null));
+        }
+        List<Subtree> subtrees = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write('{');
+        for (Map.Entry<String, Node> field : fields.entrySet()) {
+            if (bytes.size() > 1) {
+                bytes.write(',');
+            }
+            bytes.write(encode(field.getKey()));
+            bytes.write(':');
+            bytes.write(field.getValue().bytes);
+            addSubtrees(subtrees, "." + field.getKey(), field.getValue());
+        }
+        bytes.write('}');
+        Node node = container(bytes.toByteArray(), subtrees);
+        if (null != listKey) {
+            node.key = keyOf(fields.get(listKey));
+        }
+        return node;
+    }
+
+    /**
+     * The elements are sorted by the field of the list key, or by their canonical bytes, duplicates are kept.
+     */
+    private Node readArray(JsonParser parser, String path) throws IOException {
+        String listPath = path + "[]";
+        String listKey = listKeys.get(listPath);
+        List<Node> elements = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            Node element = read(parser, token, listPath, listKey);
+            if (null != listKey && token != JsonToken.START_OBJECT) {
+                element.key = keyOf(element);
+            }
+            elements.add(element);
+        }
+        elements.sort(null == listKey ? BY_BYTES : BY_KEY);
+        List<Subtree> subtrees = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write('[');
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                bytes.write(',');
+            }
+            bytes.write(elements.get(i).bytes);
+            addSubtrees(subtrees, "[" + i + "]", elements.get(i));
+        }
+        bytes.write(']');
+        return container(bytes.toByteArray(), subtrees);
+    }
+
+    /**
+     * Same key as the sorted tree of JsonSort, the value as a String, the canonical json for an object or a list.
+     */
+    private static String keyOf(Node value) {
+        if (null == value) {
+            return String.valueOf((Object) null);
+        }
+        return value.scalar ? String.valueOf(value.value) : new String(value.bytes, StandardCharsets.UTF_8);
+    }
+
+    private Node scalar(Object value) throws IOException {
+        buffer.reset();
+        if (value instanceof String) {
+            generator.writeString((String) value);
+        } else {
+            generator.writeObject(value);
+        }
+        generator.flush();
+        Node node = new Node(buffer.toByteArray());
+        node.scalar = true;
+        node.value = value;
+        return node;
+    }
+
+    private byte[] encode(String name) throws IOException {
+        buffer.reset();
+        generator.writeString(name);
+        generator.flush();
+        return buffer.toByteArray();
+    }
+
+    private Node container(byte[] bytes, List<Subtree> subtrees) {
+        Node node = new Node(bytes);
+        if (null != subtreeDigest) {
+            node.digest = subtreeDigest.digest(bytes);
+            node.subtrees = subtrees;
+        }
+        return node;
+    }
+
+    private void addSubtrees(List<Subtree> subtrees, String path, Node child) {
+        if (null == subtreeDigest || null == child.digest) {
+            return;
+        }
+        subtrees.add(new Subtree(path, child.digest));
+        for (Subtree subtree : child.subtrees) {
+            subtrees.add(new Subtree(path + subtree.path, subtree.digest));
+        }
+    }
+
+    /**
+     * Canonical bytes of a value, with what is needed to order it in a list with a list key.
+     */
+    private static final class Node {
+
+        private final byte[] bytes;
+        private boolean scalar;
+        private Object value;
+        private String key;
+        private byte[] digest;
+        private List<Subtree> subtrees;
+
+        private Node(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Hash of an object or a list, the path is relative to the object or list that contains it.
+     */
+    private static final class Subtree {
+
+        private final String path;
+        private final byte[] digest;
+
+        private Subtree(String path, byte[] digest) {
+            this.path = path;
+            this.digest = digest;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package dev.javatools.jsonutils;
+
+import dev.javatools.jsonutils.CompiledJsonPath.Kind;
+import dev.javatools.jsonutils.CompiledJsonPath.Predicate;
+import dev.javatools.jsonutils.CompiledJsonPath.Segment;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index from the full path of every object, list and value of a {@link JsonDocument} to the value, built in one pass.
+ * <pre>
+ *     JsonDocument document = JsonProperty.parse(jsonFile);
+ *     JsonIndex index = document.index("name");
+ *     Object city = index.get("friends[0].associatedAddresses[0].city");
+ *     Object age = index.get("friends[{name=Art Venere}].age");
+ *     Map&lt;String, Object&gt; friend = index.scan("friends[1].*");
+ * </pre>
+ * Paths without conditions are a single hash lookup. The key fields passed to {@link JsonDocument#index(String...)}
+ * get a secondary index from the value of the field to the positions of the list elements that have it, so conditions
+ * on those fields ([{name=Art Venere}]) don't scan the list. Conditions on other fields scan the list elements.
+ * <p>
+ * List positions are the positions in the document, the same as {@link JsonDocument#getProperty(String)}, and every
+ * lookup returns the same value as getProperty. setProperty on the document updates the index, only the entries
+ * of the changed values are replaced. The paths of getAllPaths and getAllProperties number the lists after they are
+ * sorted, use {@link JsonDocument#sortedIndex(String...)} to look them up. This class is not thread safe.
+ */
+public final class JsonIndex {
+
+    private final Map root;
+    private final Set<String> keyFields;
+    private final Map<String, Object> nodes = new HashMap<>();
+    private final Map<String, List<Integer>> positions = new HashMap<>();
+
+    JsonIndex(Map root, String... keyFields) {
+        this.root = root;
+        this.keyFields = new HashSet<>(Arrays.asList(keyFields));
+        add("", root, null, -1);
+    }
+
+    /**
+     * @param jsonPath path of the field, see {@link JsonProperty} for details
+     * @return value of the field in the path, null if the path doesn't exist
+     */
+    public Object get(String jsonPath) {
+        if (null == jsonPath) {
+            throw new JsonUtilsException("Not a valid input, Json Path is a mandatory field.");
+        }
+        Object value = nodes.get(jsonPath);
+        if (null != value) {
+            return value;
+        }
+        // conditions, [] and paths not written the way the index writes them (like "friends[0]. name") are resolved segment by segment
+        return get(CompiledJsonPath.compile(jsonPath));
+    }
+
+    /**
+     * @param jsonPath compiled path of the field
+     * @return value of the field in the path, null if the path doesn't exist
+     */
+    public Object get(CompiledJsonPath jsonPath) {
+        return resolve(jsonPath.segments(), 0, "");
+    }
+
+    /**
+     * @param pathPrefix path of an object or list, with or without ".*" at the end. An empty prefix scans the whole document.
+     * @return all the properties (full json path and value) under the prefix, in the order they appear in the document
+     */
+    public Map<String, Object> scan(String pathPrefix) {
+        if (null == pathPrefix) {
+            throw new JsonUtilsException("Not a valid input, Path prefix is a mandatory field.");
+        }
+        String prefix = pathPrefix.endsWith(".*") ? pathPrefix.substring(0, pathPrefix.length() - 2) : pathPrefix;
+        Map<String, Object> properties = new LinkedHashMap<>();
+        collect(prefix.isEmpty() ? root : get(prefix), new StringBuilder(prefix), properties);
+        return properties;
+    }
+
+    /**
+     * Sets the value on the document and replaces the index entries of the values that changed.
+     */
+    void write(CompiledJsonPath jsonPath, Object value) {
+        List<Segment> segments = jsonPath.segments();
+        List<Node> route = route(segments);
+        boolean complete = route.size() == segments.size() + 1;
+        if (complete) {
+            Node last = route.get(route.size() - 1);
+            Node owner = route.get(route.size() - 2);
+            if (null == last.list && null != owner.list) {
+                removePosition(owner.list, owner.position, segments.get(segments.size() - 1).name, last.value);
+            }
+            remove(last.path, last.value, last.list, last.position);
+        }
+        try {
+            jsonPath.write(root, value);
+        } finally {
+            int step = complete ? segments.size() : route.size();
+            reindex(route.get(step - 1), segments.get(step - 1), complete ? route.get(step) : null);
+        }
+    }
+
+    /**
+     * Indexes the value the update wrote below the parent, it replaces the value at the end of the existing route.
+     *
+     * @param replaced node at the end of the path when the whole path existed before the update
+     */
+    private void reindex(Node parent, Segment segment, Node replaced) {
+        if (segment.kind == Kind.FIELD) {
+            if (!(parent.value instanceof Map) || !((Map) parent.value).containsKey(segment.name)) {
+                return;
+            }
+            String path = child(parent.path, segment.name);
+            Object value = ((Map) parent.value).get(segment.name);
+            if (null != parent.list) {
+                addPosition(parent.list, parent.position, segment.name, value);
+            }
+            add(path, value, null, -1);
+            return;
+        }
+        if (!(parent.value instanceof List)) {
+            return;
+        }
+        List list = (List) parent.value;
+        int position = null != replaced ? replaced.position : segment.kind == Kind.INDEX ? segment.index : list.size() - 1;
+        if (position < 0 || position >= list.size()) {
+            return;
+        }
+        add(element(parent.path, position), list.get(position), parent.path, position);
+        for (int i = position - 1; i >= 0 && !nodes.containsKey(element(parent.path, i)); i--) {
+            add(element(parent.path, i), list.get(i), parent.path, i);
+        }
+    }
+
+    /**
+     * @return the root and the existing objects, lists and values the path goes through, the way setProperty selects them
+     */
+    private List<Node> route(List<Segment> segments) {
+        List<Node> route = new ArrayList<>(segments.size() + 1);
+        Node current = new Node("", root, null, -1);
+        route.add(current);
+        for (Segment segment : segments) {
+            Object value = current.value;
+            if (segment.kind == Kind.FIELD) {
+                if (!(value instanceof Map) || null == ((Map) value).get(segment.name)) {
+                    break;
+                }
+                current = new Node(child(current.path, segment.name), ((Map) value).get(segment.name), null, -1);
+            } else {
+                if (!(value instanceof List) || segment.kind == Kind.APPEND) {
+                    break;
+                }
+                int position = -1;
+                if (segment.kind == Kind.INDEX) {
+                    position = segment.index < ((List) value).size() ? segment.index : -1;
+                } else {
+                    for (int candidate : candidates(current.path, segment, (List) value)) {
+                        if (segment.matches(((List) value).get(candidate))) {
+                            position = candidate;
+                            break;
+                        }
+                    }
+                }
+                if (position < 0 || null == ((List) value).get(position)) {
+                    break;
+                }
+                current = new Node(element(current.path, position), ((List) value).get(position), current.path, position);
+            }
+            route.add(current);
+        }
+        return route;
+    }
+
+    private Object resolve(List<Segment> segments, int from, String path) {
+        StringBuilder builder = new StringBuilder(path);
+        for (int i = from; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            if (segment.kind == Kind.FIELD) {
+                builder.append(builder.length() > 0 ? "." : "").append(segment.name);
+            } else if (segment.kind == Kind.INDEX) {
+                builder.append('[').append(segment.index).append(']');
+            } else {
+                String listPath = builder.toString();
+                Object list = listPath.isEmpty() ? root : nodes.get(listPath);
+                if (!(list instanceof List)) {
+                    return null;
+                }
+                for (int position : candidates(listPath, segment, (List) list)) {
+                    String elementPath = element(listPath, position);
+                    if (segment.matches(nodes.get(elementPath))) {
+                        Object value = resolve(segments, i + 1, elementPath);
+                        if (null != value) {
+                            return value;
+                        }
+                    }
+                }
+                return null;
+            }
+        }
+        return nodes.get(builder.toString());
+    }
+
+    /**
+     * @return positions of the elements that may be selected by the segment, in ascending order
+     */
+    private List<Integer> candidates(String listPath, Segment segment, List list) {
+        for (Predicate predicate : segment.predicates) {
+            if (keyFields.contains(predicate.key)) {
+                return positions.getOrDefault(positionKey(listPath, predicate.key, predicate.value), Collections.emptyList());
+            }
+        }
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return index;
+            }
+
+            @Override
+            public int size() {
+                return list.size();
+            }
+        };
+    }
+
+    /**
+     * @param list     path of the list, when the value is an element of a list
+     * @param position position of the value in the list
+     */
+    private void add(String path, Object value, String list, int position) {
+        nodes.put(path, value);
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                String field = String.valueOf(entry.getKey());
+                if (null != list) {
+                    addPosition(list, position, field, entry.getValue());
+                }
+                add(child(path, field), entry.getValue(), null, -1);
+            }
+        } else if (value instanceof List) {
+            List elements = (List) value;
+            for (int i = 0; i < elements.size(); i++) {
+                add(element(path, i), elements.get(i), path, i);
+            }
+        }
+    }
+
+    private void remove(String path, Object value, String list, int position) {
+        nodes.remove(path);
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                String field = String.valueOf(entry.getKey());
+                if (null != list) {
+                    removePosition(list, position, field, entry.getValue());
+                }
+                remove(child(path, field), entry.getValue(), null, -1);
+            }
+        } else if (value instanceof List) {
+            List elements = (List) value;
+            for (int i = 0; i < elements.size(); i++) {
+                remove(element(path, i), elements.get(i), path, i);
+            }
+        }
+    }
+
+    private void addPosition(String list, int position, String field, Object value) {
+        if (keyFields.contains(field) && isKey(value)) {
+            List<Integer> elements = positions.computeIfAbsent(positionKey(list, field, String.valueOf(value)), key -> new ArrayList<>());
+            int index = Collections.binarySearch(elements, position);
+            if (index < 0) {
+                elements.add(-index - 1, position);
+            }
+        }
+    }
+
+    private void removePosition(String list, int position, String field, Object value) {
+        if (keyFields.contains(field) && isKey(value)) {
+            String key = positionKey(list, field, String.valueOf(value));
+            List<Integer> elements = positions.get(key);
+            if (null != elements) {
+                elements.remove((Integer) position);
+                if (elements.isEmpty()) {
+                    positions.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Only the values that a condition can match are indexed, see {@link Predicate#matches(Object)}.
+     */
+    private static boolean isKey(Object value) {
+        return null != value && !(value instanceof Map) && !(value instanceof List);
+    }
+
+    private static String positionKey(String list, String field, String value) {
+        return list + "[{" + field + "=" + value + "}]";
+    }
+
+    private static String child(String path, String field) {
+        return path.isEmpty() ? field : path + "." + field;
+    }
+
+    private static String element(String path, int position) {
+        return path + "[" + position + "]";
+    }
+
+    private static void collect(Object value, StringBuilder path, Map<String, Object> properties) {
+        int length = path.length();
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                collect(entry.getValue(), path.append(length > 0 ? "." : "").append(entry.getKey()), properties);
+                path.setLength(length);
+            }
+        } else if (value instanceof List) {
+            List elements = (List) value;
+            for (int i = 0; i < elements.size(); i++) {
+                collect(elements.get(i), path.append('[').append(i).append(']'), properties);
+                path.setLength(length);
+            }
+        } else if (null != value) {
+            properties.put(path.toString(), value);
+        }
+    }
+
+    /**
+     * An object, list or value in the document, with its position when it is an element of a list.
+     */
+    private static final class Node {
+        private final String path;
+        private final Object value;
+        private final String list;
+        private final int position;
+
+        private Node(String path, Object value, String list, int position) {
+            this.path = path;
+            this.value = value;
+            this.list = list;
+            this.position = position;
+        }
+    }
+}
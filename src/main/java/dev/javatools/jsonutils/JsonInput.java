@@ -0,0 +1,157 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the streaming parsers used by the APIs that don't build the Map for the whole Json.
+ * Streams passed in by the caller are never closed.
+ * The format of the files and streams (json, Smile or CBOR) is detected from their first bytes, see {@link DataFormat}.
+ */
+final class JsonInput {
+
+    /**
+     * A single mapping can't be larger than 2GB, larger files are mapped in regions of this size.
+     */
+    private static final long MAPPED_REGION_SIZE = Integer.MAX_VALUE;
+
+    private JsonInput() {
+    }
+
+    /**
+     * @return the shared ObjectMapper, see {@link JsonUtilsConfig}
+     */
+    static ObjectMapper objectMapper() {
+        return JsonUtilsConfig.mappers().objectMapper;
+    }
+
+    static JsonParser parser(String jsonString) throws IOException {
+        return objectMapper().getFactory().createParser(jsonString);
+    }
+
+    static JsonParser parser(File jsonFile) throws IOException {
+        return parser(jsonFile, JsonUtilsConfig.getFileReadMode());
+    }
+
+    /**
+     * The file is opened once, the format is detected from the first bytes read by the parser's stream.
+     */
+    static JsonParser parser(File jsonFile, FileReadMode fileReadMode) throws IOException {
+        if (null == jsonFile) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        InputStream input = fileReadMode == FileReadMode.MEMORY_MAPPED ? mappedStream(jsonFile) : Files.newInputStream(jsonFile.toPath());
+        try {
+            return parser(input, true);
+        } catch (IOException | RuntimeException exception) {
+            input.close();
+            throw exception;
+        }
+    }
+
+    static JsonParser parser(InputStream jsonStream) throws IOException {
+        return parser(jsonStream, false);
+    }
+
+    /**
+     * The first bytes of the stream are read to detect the format and pushed back for the parser.
+     *
+     * @param closeSource true if closing the parser closes the stream, for the streams opened by this class
+     */
+    private static JsonParser parser(InputStream jsonStream, boolean closeSource) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(jsonStream, DataFormat.HEADER_LENGTH);
+        byte[] header = new byte[DataFormat.HEADER_LENGTH];
+        int length = input.readNBytes(header, 0, header.length);
+        input.unread(header, 0, length);
+        JsonParser parser = DataFormat.detect(header, length).factory().createParser(input);
+        parser.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, closeSource);
+        return parser;
+    }
+
+    /**
+     * The model is serialized into a TokenBuffer and the parser reads the buffered tokens,
+     * no Map or json String is created for the model.
+     */
+    static JsonParser modelParser(Object customJavaModel) throws IOException {
+        ObjectMapper javaModelMapper = JsonUtilsConfig.mappers().javaModelMapper;
+        TokenBuffer tokens = new TokenBuffer(javaModelMapper, false);
+        javaModelMapper.writeValue(tokens, customJavaModel);
+        return tokens.asParser();
+    }
+
+    /**
+     * Reads the value at the current token (and its children) as Map/List/terminal value.
+     */
+    static Object readValue(JsonParser parser) throws IOException {
+        return JsonUtilsConfig.getReader().readValue(parser);
+    }
+
+    /**
+     * @return Map structure of the json String, read by the same reader as the files and streams
+     */
+    static Map readMap(String jsonString) {
+        if (null == jsonString) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try (JsonParser parser = parser(jsonString)) {
+            return JsonUtilsConfig.mappers().mapReader.readValue(parser);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * The model is converted with the shared mapper, so the registered modules are used, see {@link JsonUtilsConfig}.
+     *
+     * @return Map structure of the custom java model
+     */
+    static Map modelMap(Object customJavaModel) {
+        return JsonUtilsConfig.mappers().javaModelMapper.convertValue(customJavaModel, LinkedHashMap.class);
+    }
+
+    /**
+     * @return Map structure of the json file
+     */
+    static Map readMap(File jsonFile, FileReadMode fileReadMode) {
+        try (JsonParser parser = parser(jsonFile, fileReadMode)) {
+            return JsonUtilsConfig.mappers().mapReader.readValue(parser);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * The parser reads the bytes directly from the mapped regions. The channel can be closed once the file is mapped,
+     * the mapping stays valid until the buffers are garbage collected.
+     */
+    private static InputStream mappedStream(File jsonFile) throws IOException {
+        List<InputStream> regions = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(jsonFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAPPED_REGION_SIZE) {
+                long regionSize = Math.min(MAPPED_REGION_SIZE, size - position);
+                regions.add(new ByteBufferBackedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize)));
+            }
+        }
+        if (regions.size() == 1) {
+            return regions.get(0);
+        }
+        return new SequenceInputStream(Collections.enumeration(regions));
+    }
+}
@@ -0,0 +1,283 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads newline delimited json (NDJSON, one json per line) one record at a time.
+ * <pre>
+ * A single parser reads all the records and a single generator writes one compact json per line, nothing else is
+ * created per record than its sorted tree. The field layouts are kept from one record to the next, so records with
+ * the same fields share the sorted key array like the elements of a list, and the keys are only sorted once.
+ *
+ * In parallel mode the input is cut in blocks of whole lines. Each block is parsed, processed and written in a task
+ * of the pool, and the blocks are written to the output in the order of the input, so the output is the same as in
+ * the sequential mode. The input must be UTF-8 and a record can't span more than one line.
+ * </pre>
+ */
+final class JsonLines {
+
+    /**
+     * Size of the blocks of lines processed by one task in parallel mode.
+     */
+    static final int BLOCK_SIZE = 1 << 20;
+
+    /**
+     * Writes the sorted tree of one record, the new line is written after it.
+     */
+    interface RecordWriter {
+        void write(Object tree, JsonGenerator generator) throws IOException;
+    }
+
+    private JsonLines() {
+    }
+
+    /**
+     * @param pool pool that processes the blocks of lines, null to process the records on the calling thread
+     * @return number of records
+     */
+    static long write(File input, Map<String, String> listKeys, OutputStream output, RecordWriter recordWriter, ForkJoinPool pool) {
+        validate(input, output);
+        try {
+            if (null == pool) {
+                return write(JsonInput.parser(input), listKeys, output, recordWriter);
+            }
+            try (InputStream inputStream = Files.newInputStream(input.toPath())) {
+                return write(inputStream, listKeys, output, recordWriter, pool);
+            }
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param input stream containing one json per line, the stream is not closed
+     * @param pool  pool that processes the blocks of lines, null to process the records on the calling thread
+     * @return number of records
+     */
+    static long write(InputStream input, Map<String, String> listKeys, OutputStream output, RecordWriter recordWriter, ForkJoinPool pool) {
+        validate(input, output);
+        try {
+            if (null == pool) {
+                return write(JsonInput.parser(input), listKeys, output, recordWriter);
+            }
+            return writeBlocks(input, listKeys, output, recordWriter, pool);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param input  stream containing one json per line, the stream is not closed
+     * @param mapper converts the sorted tree of a record
+     * @return lazy stream of the converted records, it must be closed
+     */
+    static <T> Stream<T> stream(InputStream input, Function<Object, T> mapper) {
+        if (null == input) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        JsonParser parser;
+        try {
+            parser = JsonInput.parser(input);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+        SortedJsonWriter reader = SortedJsonWriter.lineReader(Collections.emptyMap());
+        Spliterator<T> records = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (null == token) {
+                        return false;
+                    }
+                    action.accept(mapper.apply(reader.readRecord(parser, token)));
+                    return true;
+                } catch (IOException ioException) {
+                    throw new JsonUtilsException(ioException);
+                }
+            }
+        };
+        return StreamSupport.stream(records, false).onClose(() -> {
+            try {
+                parser.close();
+            } catch (IOException ioException) {
+                throw new JsonUtilsException(ioException);
+            }
+        });
+    }
+
+    /**
+     * Writes the properties of a record as one json object, like getAllProperties.
+     */
+    static void writeProperties(Object tree, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, Object> property : SortedTree.properties(tree).entrySet()) {
+            generator.writeFieldName(property.getKey());
+            generator.writeObject(property.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the paths of a record as one json list, like getAllPaths.
+     */
+    static void writePaths(Object tree, JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (String path : SortedTree.paths(tree)) {
+            generator.writeString(path);
+        }
+        generator.writeEndArray();
+    }
+
+    private static long write(JsonParser parser, Map<String, String> listKeys, OutputStream output, RecordWriter recordWriter) throws IOException {
+        try (JsonParser input = parser; JsonGenerator generator = JsonInput.objectMapper().getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+            SortedJsonWriter reader = SortedJsonWriter.lineReader(listKeys);
+            long records = 0;
+            JsonToken token;
+            while (null != (token = input.nextToken())) {
+                recordWriter.write(reader.readRecord(input, token), generator);
+                generator.writeRaw('\n');
+                records++;
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Cuts the input after the last new line of each full buffer. At most two blocks per thread of the pool
+     * are processed or waiting to be written at any time.
+     */
+    private static long writeBlocks(InputStream input, Map<String, String> listKeys, OutputStream output, RecordWriter recordWriter, ForkJoinPool pool) throws IOException {
+        Deque<Future<Block>> pending = new ArrayDeque<>();
+        int maxPending = 2 * pool.getParallelism();
+        long records = 0;
+        try {
+            byte[] buffer = new byte[BLOCK_SIZE];
+            int length = 0;
+            int read;
+            while ((read = input.read(buffer, length, buffer.length - length)) >= 0) {
+                length += read;
+                if (length < buffer.length) {
+                    continue;
+                }
+                int end = lineEnd(buffer, length);
+                if (end == 0) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    continue;
+                }
+                byte[] lines = Arrays.copyOf(buffer, end);
+                while (pending.size() >= maxPending) {
+                    records += pending.removeFirst().get().writeTo(output);
+                }
+                pending.addLast(pool.submit(() -> Block.of(lines, listKeys, recordWriter)));
+                length -= end;
+                System.arraycopy(buffer, end, buffer, 0, length);
+            }
+            if (length > 0) {
+                byte[] lines = Arrays.copyOf(buffer, length);
+                pending.addLast(pool.submit(() -> Block.of(lines, listKeys, recordWriter)));
+            }
+            while (!pending.isEmpty()) {
+                records += pending.removeFirst().get().writeTo(output);
+            }
+            return records;
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new JsonUtilsException(interruptedException);
+        } catch (ExecutionException executionException) {
+            if (executionException.getCause() instanceof JsonUtilsException) {
+                throw (JsonUtilsException) executionException.getCause();
+            }
+            throw new JsonUtilsException(executionException.getCause());
+        } finally {
+            for (Future<Block> block : pending) {
+                block.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return position after the last new line, 0 if there is none
+     */
+    private static int lineEnd(byte[] buffer, int length) {
+        for (int position = length - 1; position >= 0; position--) {
+            if (buffer[position] == '\n') {
+                return position + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the pool of the parallel mode
+     */
+    static ForkJoinPool validPool(ForkJoinPool pool) {
+        if (null == pool) {
+            throw new JsonUtilsException("Not a valid input, pool is a mandatory field.");
+        }
+        return pool;
+    }
+
+    private static void validate(Object input, Object output) {
+        if (null == input) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        if (null == output) {
+            throw new JsonUtilsException("Not a valid input, Output stream is a mandatory field.");
+        }
+    }
+
+    /**
+     * Output of a block of lines, written by a task of the pool.
+     */
+    private static final class Block {
+
+        private final ByteArrayOutputStream output;
+        private final long records;
+
+        private Block(ByteArrayOutputStream output, long records) {
+            this.output = output;
+            this.records = records;
+        }
+
+        private static Block of(byte[] lines, Map<String, String> listKeys, RecordWriter recordWriter) throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(lines.length);
+            long records = write(JsonInput.objectMapper().getFactory().createParser(lines), listKeys, output, recordWriter);
+            return new Block(output, records);
+        }
+
+        /**
+         * @return number of records in the block
+         */
+        private long writeTo(OutputStream target) throws IOException {
+            output.writeTo(target);
+            return records;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times, sizes and node counts of one operation, see {@link JsonUtilsMetrics}.
+ * <pre>
+ * The time is split in parse (reading the json, for the streaming sort this includes sorting the fields of the
+ * objects as they are read), transform (sorting, flattening) and serialize (writing the result).
+ * Bytes in and out are characters for String inputs and results, -1 when they are not known.
+ * The node count and the depth are only counted when the listener asks for them (JsonUtilsMetrics.countNodes), by
+ * walking the json after the operation, that walk is not part of its time.
+ * </pre>
+ * The static methods do nothing when the stats are null, so the callers don't create anything when there is no
+ * listener.
+ */
+public final class JsonOperationStats {
+
+    private final JsonUtilsMetrics metrics;
+    private final String operation;
+    private long start;
+    private long mark;
+    private long parseNanos;
+    private long transformNanos;
+    private long serializeNanos;
+    private long totalNanos;
+    private long bytesIn = -1;
+    private long bytesOut = -1;
+    private long nodeCount = -1;
+    private int maxDepth = -1;
+
+    private JsonOperationStats(JsonUtilsMetrics metrics, String operation) {
+        this.metrics = metrics;
+        this.operation = operation;
+        this.start = System.nanoTime();
+        this.mark = start;
+    }
+
+    /**
+     * @return name of the operation, like sort or getAllProperties
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return time of the whole operation in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return time spent reading the json in nanoseconds, including the parse of the document it was read from
+     */
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * @return time spent sorting or flattening in nanoseconds
+     */
+    public long getTransformNanos() {
+        return transformNanos;
+    }
+
+    /**
+     * @return time spent writing the result in nanoseconds
+     */
+    public long getSerializeNanos() {
+        return serializeNanos;
+    }
+
+    /**
+     * @return size of the input json, -1 when it is not known
+     */
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    /**
+     * @return size of the written json, -1 when the result is not a json
+     */
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * @return number of objects, lists and values of the json, -1 when the nodes were not counted
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return deepest nesting of objects and lists, 0 for a json without them, -1 when the nodes were not counted
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public String toString() {
+        return operation + " total=" + totalNanos + "ns parse=" + parseNanos + "ns transform=" + transformNanos
+                + "ns serialize=" + serializeNanos + "ns bytesIn=" + bytesIn + " bytesOut=" + bytesOut
+                + " nodes=" + nodeCount + " maxDepth=" + maxDepth;
+    }
+
+    /**
+     * @return stats of an operation that starts now, null when there is no listener
+     */
+    static JsonOperationStats start(String operation) {
+        JsonUtilsMetrics metrics = JsonUtilsConfig.getMetrics();
+        return null == metrics ? null : new JsonOperationStats(metrics, operation);
+    }
+
+    /**
+     * The parse time and the input size of the json the operation works on, read before the operation started.
+     */
+    static void include(JsonOperationStats stats, JsonOperationStats parsed) {
+        if (null != stats && null != parsed) {
+            stats.start -= parsed.parseNanos;
+            stats.parseNanos += parsed.parseNanos;
+            stats.bytesIn = parsed.bytesIn;
+        }
+    }
+
+    static void parsed(JsonOperationStats stats, long bytesIn) {
+        if (null != stats) {
+            stats.parseNanos += stats.lap();
+            stats.bytesIn = bytesIn;
+        }
+    }
+
+    static void transformed(JsonOperationStats stats) {
+        if (null != stats) {
+            stats.transformNanos += stats.lap();
+        }
+    }
+
+    static void serialized(JsonOperationStats stats, long bytesOut) {
+        if (null != stats) {
+            stats.serializeNanos += stats.lap();
+            stats.bytesOut = bytesOut;
+        }
+    }
+
+    /**
+     * Counts the nodes of the json, when the listener asks for them, and reports the operation.
+     *
+     * @param json Map/List structure or sorted tree of the json
+     */
+    static void end(JsonOperationStats stats, Object json) {
+        if (null != stats) {
+            stats.totalNanos = System.nanoTime() - stats.start;
+            if (stats.metrics.countNodes()) {
+                stats.nodeCount = 0;
+                stats.maxDepth = 0;
+                stats.count(json, 0);
+            }
+            stats.metrics.record(stats);
+        }
+    }
+
+    static void failed(JsonOperationStats stats, Throwable error) {
+        if (null != stats) {
+            stats.metrics.failed(stats.operation, error);
+        }
+    }
+
+    /**
+     * @param parser parser that has read the json, the input size is the number of bytes or characters it has read
+     */
+    static void parsed(JsonOperationStats stats, JsonParser parser) {
+        if (null != stats) {
+            JsonLocation location = parser.getCurrentLocation();
+            parsed(stats, Math.max(location.getByteOffset(), location.getCharOffset()));
+        }
+    }
+
+    /**
+     * @return the output, wrapped to count the written bytes when there are stats
+     */
+    static OutputStream counting(JsonOperationStats stats, OutputStream output) {
+        return null == stats ? output : new CountingOutputStream(output);
+    }
+
+    /**
+     * @return bytes written to the output returned by counting, -1 when they were not counted
+     */
+    static long countOf(OutputStream output) {
+        return output instanceof CountingOutputStream ? ((CountingOutputStream) output).count : -1;
+    }
+
+    private long lap() {
+        long now = System.nanoTime();
+        long elapsed = now - mark;
+        mark = now;
+        return elapsed;
+    }
+
+    private void count(Object node, int depth) {
+        nodeCount++;
+        if (node instanceof Map) {
+            maxDepth = Math.max(maxDepth, depth + 1);
+            for (Object value : ((Map<?, ?>) node).values()) {
+                count(value, depth + 1);
+            }
+        } else if (node instanceof List) {
+            maxDepth = Math.max(maxDepth, depth + 1);
+            for (Object element : (List<?>) node) {
+                count(element, depth + 1);
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package dev.javatools.jsonutils;
 
-import dev.javatools.maputils.MapCreator;
-import dev.javatools.maputils.MapPaths;
-import dev.javatools.maputils.helpers.Format;
-
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * Get the sorted list of all the paths (full json path) in a given Json
@@ -67,8 +68,7 @@ public class JsonPath {
      * To get unique paths, use getUniquePaths.
      */
     public static Set<String> getAllPaths(String jsonString) {
-        Map inputJson = MapCreator.create(jsonString, Format.JSON);
-        return MapPaths.getPaths(inputJson);
+        return JsonResultCache.apply("getAllPaths", null, jsonString, json -> JsonDocument.of(json).getAllPaths());
     }
 
     /**
@@ -78,19 +78,97 @@ public class JsonPath {
      * To get unique paths, use getUniquePaths.
      */
     public static Set<String> getAllPaths(File jsonFile) {
-        Map inputJson = MapCreator.create(jsonFile, Format.JSON);
-        return MapPaths.getPaths(inputJson);
+        return JsonDocument.of(jsonFile).getAllPaths();
     }
 
     /**
-     * @param customJavaModel Custom java model that will be converted to Json String and process
+     * @param jsonFile     File containing the json String to process
+     * @param fileReadMode how the file is read, see {@link FileReadMode}
+     * @return Sorted set of all the paths in the Json
+     */
+    public static Set<String> getAllPaths(File jsonFile, FileReadMode fileReadMode) {
+        return JsonDocument.of(jsonFile, fileReadMode).getAllPaths();
+    }
+
+    /**
+     * @param customJavaModel Custom java model, its fields are read directly without converting it to a Map or Json String
      * @return Sorted set of all the paths in the Json
      * In this the paths repeat with the position number if there are multiple objects within the list/set/array.
      * To get unique paths, use getUniquePaths.
      */
     public static Set<String> getAllPaths(Object customJavaModel) {
-        Map inputJson = MapCreator.create(customJavaModel);
-        return MapPaths.getPaths(inputJson);
+        return SortedTree.paths(SortedTree.of(customJavaModel));
+    }
+
+    /**
+     * Same as getAllPaths, the paths are stored as a trie: the common part of the paths
+     * (friends[0].associatedAddresses[0]) is stored once instead of once per path, which takes a fraction of
+     * the memory of the Set of Strings for large Jsons. The Strings are created while the Set is read, the Set is read only.
+     *
+     * @param jsonString json String to process
+     * @return Sorted set of all the paths in the Json
+     */
+    public static Set<String> getAllPathsCompact(String jsonString) {
+        return PathTrie.paths(SortedTree.ofJson(jsonString), false).pathSet();
+    }
+
+    /**
+     * @param jsonFile File containing the json String to process
+     * @return Sorted set of all the paths in the Json, see getAllPathsCompact(String)
+     */
+    public static Set<String> getAllPathsCompact(File jsonFile) {
+        return PathTrie.paths(SortedTree.ofJson(jsonFile), false).pathSet();
+    }
+
+    /**
+     * @param customJavaModel Custom java model
+     * @return Sorted set of all the paths in the Json, see getAllPathsCompact(String)
+     */
+    public static Set<String> getAllPathsCompact(Object customJavaModel) {
+        return PathTrie.paths(SortedTree.of(customJavaModel), false).pathSet();
+    }
+
+    /**
+     * Streaming counterpart of getAllPaths, the file is read one token at a time and the memory used depends on the depth
+     * of the Json and not on the size of the file.
+     * Paths are returned in the order they appear in the file, list positions are the positions in the file: unlike
+     * getAllPaths, list elements are not reordered or deduplicated, so the same path can point to a different element.
+     * The stream must be closed.
+     *
+     * @param jsonFile File containing the json String to process
+     * @return stream of all the paths in the Json
+     */
+    public static Stream<String> streamAllPaths(File jsonFile) {
+        try {
+            return new JsonPropertyIterator(JsonInput.parser(jsonFile), false).stream().map(Map.Entry::getKey);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Same as streamAllPaths (list positions are the positions in the file), sorted with an external merge sort: sorted runs of up to 250,000 paths are spilled
+     * to temporary files and merged while the stream is consumed. The stream must be closed, that deletes the temporary files.
+     *
+     * @param jsonFile File containing the json String to process
+     * @return stream of all the paths in the Json, sorted
+     */
+    public static Stream<String> streamAllSortedPaths(File jsonFile) {
+        return streamAllSortedPaths(jsonFile, ExternalMergeSort.DEFAULT_RUN_SIZE);
+    }
+
+    /**
+     * @param jsonFile File containing the json String to process
+     * @param runSize  maximum number of paths held in memory while sorting
+     * @return stream of all the paths in the Json, sorted
+     */
+    public static Stream<String> streamAllSortedPaths(File jsonFile, int runSize) {
+        try {
+            Stream<Map.Entry<String, Object>> paths = new JsonPropertyIterator(JsonInput.parser(jsonFile), false).stream();
+            return ExternalMergeSort.sort(paths, runSize).map(Map.Entry::getKey);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
     }
 
     /**
@@ -98,8 +176,7 @@ public class JsonPath {
      * @return Sorted set of all the paths in the Json
      */
     public static Set<String> getAllUniquePaths(String jsonString) {
-        Map inputJson = MapCreator.create(jsonString, Format.JSON);
-        return MapPaths.getUniquePaths(inputJson);
+        return JsonResultCache.apply("getAllUniquePaths", null, jsonString, json -> JsonDocument.of(json).getAllUniquePaths());
     }
 
     /**
@@ -107,17 +184,83 @@ public class JsonPath {
      * @return Sorted set of all the paths in the Json
      */
     public static Set<String> getAllUniquePaths(File jsonFile) {
-        Map inputJson = MapCreator.create(jsonFile, Format.JSON);
-        return MapPaths.getUniquePaths(inputJson);
+        return JsonDocument.of(jsonFile).getAllUniquePaths();
     }
 
     /**
-     * @param customJavaModel Custom java model that will be converted to Json String and process
+     * @param jsonFile     File containing the json String to process
+     * @param fileReadMode how the file is read, see {@link FileReadMode}
+     * @return Sorted set of all the paths in the Json
+     */
+    public static Set<String> getAllUniquePaths(File jsonFile, FileReadMode fileReadMode) {
+        return JsonDocument.of(jsonFile, fileReadMode).getAllUniquePaths();
+    }
+
+    /**
+     * @param customJavaModel Custom java model, its fields are read directly without converting it to a Map or Json String
      * @return Sorted set of all the paths in the Json
      */
     public static Set<String> getAllUniquePaths(Object customJavaModel) {
-        Map inputJson = MapCreator.create(customJavaModel);
-        return MapPaths.getUniquePaths(inputJson);
+        return SortedTree.uniquePaths(SortedTree.of(customJavaModel));
+    }
+
+    /**
+     * @param jsonString json String to process
+     * @return Sorted set of all the unique paths in the Json, stored as a trie, see getAllPathsCompact(String)
+     */
+    public static Set<String> getAllUniquePathsCompact(String jsonString) {
+        return PathTrie.paths(SortedTree.ofJson(jsonString), true).pathSet();
+    }
+
+    /**
+     * @param jsonFile File containing the json String to process
+     * @return Sorted set of all the unique paths in the Json, stored as a trie, see getAllPathsCompact(String)
+     */
+    public static Set<String> getAllUniquePathsCompact(File jsonFile) {
+        return PathTrie.paths(SortedTree.ofJson(jsonFile), true).pathSet();
+    }
+
+    /**
+     * @param customJavaModel Custom java model
+     * @return Sorted set of all the unique paths in the Json, stored as a trie, see getAllPathsCompact(String)
+     */
+    public static Set<String> getAllUniquePathsCompact(Object customJavaModel) {
+        return PathTrie.paths(SortedTree.of(customJavaModel), true).pathSet();
+    }
+
+    /**
+     * Reads newline delimited json (NDJSON) one line at a time, all the lines are read with a single parser.
+     * The stream must be closed.
+     *
+     * @param jsonLines stream containing one json per line, the stream is not closed
+     * @return lazy stream with the sorted set of all the paths of each line, see getAllPaths
+     */
+    public static Stream<Set<String>> streamAllPathsOfLines(InputStream jsonLines) {
+        return JsonLines.stream(jsonLines, SortedTree::paths);
+    }
+
+    /**
+     * Writes the sorted paths of each line of newline delimited json (NDJSON) as a compact json list on one line.
+     *
+     * @param jsonLines stream containing one json per line, the stream is not closed
+     * @param output    stream to write the paths to, the stream is not closed
+     * @return number of json lines read
+     */
+    public static long writeAllPathsOfLines(InputStream jsonLines, OutputStream output) {
+        return JsonLines.write(jsonLines, null, output, JsonLines::writePaths, null);
+    }
+
+    /**
+     * Same as writeAllPathsOfLines, the input is cut in blocks of lines that are processed in parallel in the pool.
+     * The lines are written in the order of the input. The input must be UTF-8.
+     *
+     * @param jsonLines stream containing one json per line, the stream is not closed
+     * @param output    stream to write the paths to, the stream is not closed
+     * @param pool      pool that processes the blocks of lines
+     * @return number of json lines read
+     */
+    public static long writeAllPathsOfLines(InputStream jsonLines, OutputStream output, ForkJoinPool pool) {
+        return JsonLines.write(jsonLines, null, output, JsonLines::writePaths, JsonLines.validPool(pool));
     }
 
 }
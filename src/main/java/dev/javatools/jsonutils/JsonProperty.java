@@ -1,15 +1,15 @@
 package dev.javatools.jsonutils;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import dev.javatools.maputils.MapCreator;
-import dev.javatools.maputils.MapProperties;
-import dev.javatools.maputils.MapProperty;
-import dev.javatools.maputils.MapUpdate;
-import dev.javatools.maputils.helpers.Format;
-
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * Get the sorted list of all the properties (full json path and value) in a given Json
@@ -83,15 +83,82 @@ import java.util.Map;
  */
 public class JsonProperty {
 
-    private static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    /**
+     * Parses the Json once, so multiple properties can be read or updated without parsing it again.
+     *
+     * @param jsonString valid Json structure in String object
+     * @return parsed document
+     */
+    public static JsonDocument parse(String jsonString) {
+        return JsonDocument.of(jsonString);
+    }
+
+    /**
+     * @param jsonFile valid Json structure in the File
+     * @return parsed document
+     */
+    public static JsonDocument parse(File jsonFile) {
+        return JsonDocument.of(jsonFile);
+    }
+
+    /**
+     * @param jsonFile     valid Json structure in the File
+     * @param fileReadMode how the file is read, see {@link FileReadMode}
+     * @return parsed document
+     */
+    public static JsonDocument parse(File jsonFile, FileReadMode fileReadMode) {
+        return JsonDocument.of(jsonFile, fileReadMode);
+    }
+
+    /**
+     * @param jsonStream valid Json structure in the stream, the stream is not closed
+     * @return parsed document
+     */
+    public static JsonDocument parse(InputStream jsonStream) {
+        return JsonDocument.of(jsonStream);
+    }
+
+    /**
+     * @param customJavaModel custom java model
+     * @return parsed document
+     */
+    public static JsonDocument parse(Object customJavaModel) {
+        return JsonDocument.of(customJavaModel);
+    }
+
+    /**
+     * Parses only the objects and lists that are read, see {@link JsonDocument}. Best for large Json of which a few
+     * paths or branches are read.
+     *
+     * @param jsonString valid Json structure in String object
+     * @return lazily parsed document
+     */
+    public static JsonDocument parseLazy(String jsonString) {
+        return JsonDocument.lazy(jsonString);
+    }
+
+    /**
+     * @param jsonFile valid Json structure in the File, the file is read into memory but not parsed
+     * @return lazily parsed document
+     */
+    public static JsonDocument parseLazy(File jsonFile) {
+        return JsonDocument.lazy(jsonFile);
+    }
+
+    /**
+     * @param jsonStream valid Json structure in the stream, the stream is read to the end but not closed
+     * @return lazily parsed document
+     */
+    public static JsonDocument parseLazy(InputStream jsonStream) {
+        return JsonDocument.lazy(jsonStream);
+    }
 
     /**
      * @param jsonString valid Json structure in String object
      * @return Map containing all the properties in the input Json
      */
     public static Map<String, Object> getAllProperties(String jsonString) {
-        Map inputJson = MapCreator.create(jsonString, Format.JSON);
-        return MapProperties.getProperties(inputJson);
+        return JsonDocument.of(jsonString).getAllProperties();
     }
 
     /**
@@ -99,8 +166,16 @@ public class JsonProperty {
      * @return Map containing all the properties in the input Json
      */
     public static Map<String, Object> getAllProperties(File jsonFile) {
-        Map inputJson = MapCreator.create(jsonFile, Format.JSON);
-        return MapProperties.getProperties(inputJson);
+        return JsonDocument.of(jsonFile).getAllProperties();
+    }
+
+    /**
+     * @param jsonFile     valid Json structure in the File
+     * @param fileReadMode how the file is read, see {@link FileReadMode}
+     * @return Map containing all the properties in the input Json
+     */
+    public static Map<String, Object> getAllProperties(File jsonFile, FileReadMode fileReadMode) {
+        return JsonDocument.of(jsonFile, fileReadMode).getAllProperties();
     }
 
     /**
@@ -108,8 +183,183 @@ public class JsonProperty {
      * @return Map containing all the properties in the input Json
      */
     public static Map<String, Object> getAllProperties(Object customJavaModel) {
-        Map inputJson = MapCreator.create(customJavaModel);
-        return MapProperties.getProperties(inputJson);
+        return SortedTree.properties(SortedTree.of(customJavaModel));
+    }
+
+    /**
+     * Same as getAllProperties, the paths are stored as a trie: the common part of the paths
+     * (friends[0].associatedAddresses[0]) is stored once instead of once per property, which takes a fraction of
+     * the memory of the Map for large Jsons. The path Strings are created while the Map is read, the Map is read only.
+     *
+     * @param jsonString valid Json structure in String object
+     * @return Map containing all the properties in the input Json, sorted by path
+     */
+    public static Map<String, Object> getAllPropertiesCompact(String jsonString) {
+        return PathTrie.properties(SortedTree.ofJson(jsonString)).propertyMap();
+    }
+
+    /**
+     * @param jsonFile valid Json structure in the File
+     * @return Map containing all the properties in the input Json, sorted by path, see getAllPropertiesCompact(String)
+     */
+    public static Map<String, Object> getAllPropertiesCompact(File jsonFile) {
+        return PathTrie.properties(SortedTree.ofJson(jsonFile)).propertyMap();
+    }
+
+    /**
+     * @param customJavaModel custom java model
+     * @return Map containing all the properties in the input Json, sorted by path, see getAllPropertiesCompact(String)
+     */
+    public static Map<String, Object> getAllPropertiesCompact(Object customJavaModel) {
+        return PathTrie.properties(SortedTree.of(customJavaModel)).propertyMap();
+    }
+
+    /**
+     * Same properties as streamAllProperties, sorted by path and stored in columns: numbers and booleans are kept
+     * as primitives and read with the typed getters of {@link FlatJson}, so the values are not boxed.
+     *
+     * @param jsonString valid Json structure in String object
+     * @return all the properties in the input Json
+     */
+    public static FlatJson getAllPropertiesFlat(String jsonString) {
+        if (null == jsonString) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return FlatJson.read(JsonInput.parser(jsonString));
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param jsonFile valid Json structure in the File
+     * @return all the properties in the input Json, see getAllPropertiesFlat(String)
+     */
+    public static FlatJson getAllPropertiesFlat(File jsonFile) {
+        try {
+            return FlatJson.read(JsonInput.parser(jsonFile));
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param jsonStream valid Json structure in the stream, the stream is not closed
+     * @return all the properties in the input Json, see getAllPropertiesFlat(String)
+     */
+    public static FlatJson getAllPropertiesFlat(InputStream jsonStream) {
+        try {
+            return FlatJson.read(JsonInput.parser(jsonStream));
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Reads the file one token at a time and passes each property (full json path and value) to the consumer,
+     * so files larger than the memory can be processed.
+     * Properties are passed in the order they appear in the file, list positions are the positions in the file.
+     *
+     * @param jsonFile valid Json structure in the File
+     * @param consumer receives the path and the value of each property
+     */
+    public static void forEachProperty(File jsonFile, BiConsumer<String, Object> consumer) {
+        try (Stream<Map.Entry<String, Object>> properties = streamAllProperties(jsonFile)) {
+            properties.forEach(property -> consumer.accept(property.getKey(), property.getValue()));
+        }
+    }
+
+    /**
+     * Streaming counterpart of getAllProperties, the memory used depends on the depth of the Json and not on the size of
+     * the file. Properties are returned in the order they appear in the file, list positions are the positions in the
+     * file: unlike getAllProperties, list elements are not reordered or deduplicated, so the same path can hold a
+     * different value. The stream must be closed.
+     *
+     * @param jsonFile valid Json structure in the File
+     * @return stream of all the properties in the input Json
+     */
+    public static Stream<Map.Entry<String, Object>> streamAllProperties(File jsonFile) {
+        try {
+            return new JsonPropertyIterator(JsonInput.parser(jsonFile), true).stream();
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Same as streamAllProperties (list positions are the positions in the file), sorted by path with an external merge sort:
+     * sorted runs of up to 250,000 properties are spilled to temporary files and merged while the stream is consumed.
+     * The stream must be closed, that deletes the temporary files.
+     *
+     * @param jsonFile valid Json structure in the File
+     * @return stream of all the properties in the input Json, sorted by path
+     */
+    public static Stream<Map.Entry<String, Object>> streamAllSortedProperties(File jsonFile) {
+        return streamAllSortedProperties(jsonFile, ExternalMergeSort.DEFAULT_RUN_SIZE);
+    }
+
+    /**
+     * @param jsonFile valid Json structure in the File
+     * @param runSize  maximum number of properties held in memory while sorting
+     * @return stream of all the properties in the input Json, sorted by path
+     */
+    public static Stream<Map.Entry<String, Object>> streamAllSortedProperties(File jsonFile, int runSize) {
+        return ExternalMergeSort.sort(streamAllProperties(jsonFile), runSize);
+    }
+
+    /**
+     * Reads the values of all the paths in a single pass over the Json, without creating the Map for the whole Json.
+     * Objects and lists that none of the paths can reach are skipped, and parsing stops once all the paths are resolved.
+     * See the class level documentation for property path details
+     *
+     * @param jsonPaths  paths of the fields
+     * @param jsonString json String to process
+     * @return Map with the value of each path, the value is null if the path doesn't exist
+     */
+    public static Map<String, Object> getProperties(Collection<String> jsonPaths, String jsonString) {
+        try {
+            return new JsonPropertyExtractor(jsonPaths).extract(JsonInput.parser(jsonString));
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param jsonPaths paths of the fields
+     * @param jsonFile  File containing the json String to process
+     * @return Map with the value of each path, the value is null if the path doesn't exist
+     */
+    public static Map<String, Object> getProperties(Collection<String> jsonPaths, File jsonFile) {
+        try {
+            return new JsonPropertyExtractor(jsonPaths).extract(JsonInput.parser(jsonFile));
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param jsonPaths  paths of the fields
+     * @param jsonStream stream containing the json, the stream is not closed
+     * @return Map with the value of each path, the value is null if the path doesn't exist
+     */
+    public static Map<String, Object> getProperties(Collection<String> jsonPaths, InputStream jsonStream) {
+        try {
+            return new JsonPropertyExtractor(jsonPaths).extract(JsonInput.parser(jsonStream));
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Parses the path once, the result can be reused with getProperty and setProperty.
+     * See the class level documentation for property path details
+     *
+     * @param jsonPath path of the field
+     * @return compiled path
+     */
+    public static CompiledJsonPath compile(String jsonPath) {
+        return CompiledJsonPath.compile(jsonPath);
     }
 
     /**
@@ -120,8 +370,7 @@ public class JsonProperty {
      * @return Value in the json path
      */
     public static Object getProperty(String jsonPath, String jsonString) {
-        Map inputJson = MapCreator.create(jsonString, Format.JSON);
-        return MapProperty.get(jsonPath, inputJson);
+        return getProperty(compile(jsonPath), jsonString);
     }
 
     /**
@@ -132,8 +381,19 @@ public class JsonProperty {
      * @return value of the field in path
      */
     public static Object getProperty(String jsonPath, File jsonFile) {
-        Map inputJson = MapCreator.create(jsonFile, Format.JSON);
-        return MapProperty.get(jsonPath, inputJson);
+        return getProperty(compile(jsonPath), jsonFile);
+    }
+
+    /**
+     * See the class level documentation for property path details
+     *
+     * @param jsonPath     path of the field
+     * @param jsonFile     File containing the json String to process
+     * @param fileReadMode how the file is read, see {@link FileReadMode}
+     * @return value of the field in path
+     */
+    public static Object getProperty(String jsonPath, File jsonFile, FileReadMode fileReadMode) {
+        return JsonDocument.of(jsonFile, fileReadMode).getProperty(jsonPath);
     }
 
     /**
@@ -144,8 +404,64 @@ public class JsonProperty {
      * @return value of the field in the path
      */
     public static Object getProperty(String jsonPath, Object customJavaModel) {
-        Map inputJson = MapCreator.create(customJavaModel);
-        return MapProperty.get(jsonPath, inputJson);
+        return getProperty(compile(jsonPath), customJavaModel);
+    }
+
+    /**
+     * @param jsonPath   compiled path of the field
+     * @param jsonString json String to process
+     * @return Value in the json path
+     */
+    public static Object getProperty(CompiledJsonPath jsonPath, String jsonString) {
+        return JsonDocument.of(jsonString).getProperty(jsonPath);
+    }
+
+    /**
+     * @param jsonPath compiled path of the field
+     * @param jsonFile File containing the json String to process
+     * @return value of the field in path
+     */
+    public static Object getProperty(CompiledJsonPath jsonPath, File jsonFile) {
+        return JsonDocument.of(jsonFile).getProperty(jsonPath);
+    }
+
+    /**
+     * @param jsonPath        compiled path of the field
+     * @param customJavaModel Custom java model
+     * @return value of the field in the path
+     */
+    public static Object getProperty(CompiledJsonPath jsonPath, Object customJavaModel) {
+        return JsonDocument.of(customJavaModel).getProperty(jsonPath);
+    }
+
+    /**
+     * Starts a batch of updates on the Json. The Json is parsed once, all the updates are applied to it
+     * and it is serialized once, see {@link JsonUpdate}.
+     *
+     * @param jsonString the Json that needs to be updated
+     * @return batch of updates
+     */
+    public static JsonUpdate update(String jsonString) {
+        if (null == jsonString) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        return new JsonUpdate(JsonDocument.of(jsonString).json());
+    }
+
+    /**
+     * @param jsonFile File containing the Json that needs to be updated
+     * @return batch of updates
+     */
+    public static JsonUpdate update(File jsonFile) {
+        return new JsonUpdate(JsonDocument.of(jsonFile).json());
+    }
+
+    /**
+     * @param jsonStream stream containing the Json that needs to be updated, the stream is not closed
+     * @return batch of updates
+     */
+    public static JsonUpdate update(InputStream jsonStream) {
+        return new JsonUpdate(JsonDocument.of(jsonStream).json());
     }
 
     /**
@@ -187,17 +503,139 @@ public class JsonProperty {
      * @return String representation of the updated Json.
      */
     public static String setProperty(final String jsonPath, final String jsonString, final Object value) {
+        if (null != jsonPath && null != jsonString) {
+            return setProperty(compile(jsonPath), jsonString, value);
+        } else {
+            throw new JsonUtilsException("Not a valid input, Json Path and Input Json are mandatory fields.");
+        }
+    }
+
+    /**
+     * Same as setProperty with a String path, without parsing the path again.
+     *
+     * @param jsonPath   compiled Json path of the field
+     * @param jsonString the Json that needs to be updated
+     * @param value      the value that needs to be updated
+     * @return String representation of the updated Json.
+     */
+    public static String setProperty(final CompiledJsonPath jsonPath, final String jsonString, final Object value) {
+        if (null != jsonPath && null != jsonString) {
+            return JsonDocument.of(jsonString).setProperty(jsonPath, value).toJson();
+        } else {
+            throw new JsonUtilsException("Not a valid input, Json Path and Input Json are mandatory fields.");
+        }
+    }
+
+    /**
+     * Same as setProperty, for files that are too large to be loaded. The tokens of the Json are copied from
+     * the file to the output and only the value in the path is replaced, or added at the end of its object or list.
+     * The output is written without any white space.
+     *
+     * @param jsonPath Json path of the field
+     * @param jsonFile File containing the Json that needs to be updated
+     * @param value    the value that needs to be updated
+     * @param output   stream to write the updated Json to, the stream is not closed
+     */
+    public static void setProperty(final String jsonPath, final File jsonFile, final Object value, final OutputStream output) {
+        if (null == jsonPath) {
+            throw new JsonUtilsException("Not a valid input, Json Path and Input Json are mandatory fields.");
+        }
+        setProperties(Collections.singletonMap(jsonPath, value), jsonFile, output);
+    }
+
+    /**
+     * @param jsonPath   Json path of the field
+     * @param jsonStream stream containing the Json that needs to be updated, the stream is not closed
+     * @param value      the value that needs to be updated
+     * @param output     stream to write the updated Json to, the stream is not closed
+     */
+    public static void setProperty(final String jsonPath, final InputStream jsonStream, final Object value, final OutputStream output) {
+        if (null == jsonPath) {
+            throw new JsonUtilsException("Not a valid input, Json Path and Input Json are mandatory fields.");
+        }
+        setProperties(Collections.singletonMap(jsonPath, value), jsonStream, output);
+    }
+
+    /**
+     * Sets the values of all the paths in a single pass over the Json, see {@link #setProperty(String, File, Object, OutputStream)}.
+     * The paths are applied in the iteration order of the Map, use a LinkedHashMap when one path depends on another.
+     * Conditions in the paths ([{name=Art Venere}]) are checked against the input Json and the list elements
+     * added by the earlier paths.
+     *
+     * @param properties Json path and value of each field
+     * @param jsonFile   File containing the Json that needs to be updated
+     * @param output     stream to write the updated Json to, the stream is not closed
+     */
+    public static void setProperties(final Map<String, Object> properties, final File jsonFile, final OutputStream output) {
+        if (null == properties || null == jsonFile) {
+            throw new JsonUtilsException("Not a valid input, Json Paths and Input Json are mandatory fields.");
+        }
+        JsonPropertyRewriter rewriter = rewriter(properties, output);
+        try {
+            rewriter.rewrite(JsonInput.parser(jsonFile), output);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param properties Json path and value of each field
+     * @param jsonStream stream containing the Json that needs to be updated, the stream is not closed
+     * @param output     stream to write the updated Json to, the stream is not closed
+     */
+    public static void setProperties(final Map<String, Object> properties, final InputStream jsonStream, final OutputStream output) {
+        if (null == properties || null == jsonStream) {
+            throw new JsonUtilsException("Not a valid input, Json Paths and Input Json are mandatory fields.");
+        }
+        JsonPropertyRewriter rewriter = rewriter(properties, output);
         try {
-            if (null != jsonPath && null != jsonString) {
-                Map inputMap = MapCreator.create(jsonString, Format.JSON);
-                MapUpdate.set(jsonPath, inputMap, value);
-                return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(inputMap);
-            } else {
-                throw new JsonUtilsException("Not a valid input, Json Path and Input Json are mandatory fields.");
-            }
-        } catch (JsonProcessingException jsonProcessingException) {
-            throw new JsonUtilsException(jsonProcessingException);
+            rewriter.rewrite(JsonInput.parser(jsonStream), output);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
         }
     }
 
+    private static JsonPropertyRewriter rewriter(Map<String, Object> properties, OutputStream output) {
+        if (null == output) {
+            throw new JsonUtilsException("Not a valid input, Output stream is a mandatory field.");
+        }
+        return new JsonPropertyRewriter(properties);
+    }
+
+    /**
+     * Reads newline delimited json (NDJSON) one line at a time, all the lines are read with a single parser.
+     * The stream must be closed.
+     *
+     * @param jsonLines stream containing one json per line, the stream is not closed
+     * @return lazy stream with all the properties of each line sorted by path, see getAllProperties
+     */
+    public static Stream<Map<String, Object>> streamAllPropertiesOfLines(InputStream jsonLines) {
+        return JsonLines.stream(jsonLines, SortedTree::properties);
+    }
+
+    /**
+     * Writes the properties of each line of newline delimited json (NDJSON) as a compact json object on one line,
+     * the keys are the full json paths.
+     *
+     * @param jsonLines stream containing one json per line, the stream is not closed
+     * @param output    stream to write the properties to, the stream is not closed
+     * @return number of json lines read
+     */
+    public static long writeAllPropertiesOfLines(InputStream jsonLines, OutputStream output) {
+        return JsonLines.write(jsonLines, null, output, JsonLines::writeProperties, null);
+    }
+
+    /**
+     * Same as writeAllPropertiesOfLines, the input is cut in blocks of lines that are processed in parallel in the pool.
+     * The lines are written in the order of the input. The input must be UTF-8.
+     *
+     * @param jsonLines stream containing one json per line, the stream is not closed
+     * @param output    stream to write the properties to, the stream is not closed
+     * @param pool      pool that processes the blocks of lines
+     * @return number of json lines read
+     */
+    public static long writeAllPropertiesOfLines(InputStream jsonLines, OutputStream output, ForkJoinPool pool) {
+        return JsonLines.write(jsonLines, null, output, JsonLines::writeProperties, JsonLines.validPool(pool));
+    }
+
 }
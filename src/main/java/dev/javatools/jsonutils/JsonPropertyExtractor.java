@@ -0,0 +1,187 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import dev.javatools.jsonutils.CompiledJsonPath.Kind;
+import dev.javatools.jsonutils.CompiledJsonPath.Segment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the values of a set of paths in one pass over the tokens of the Json.
+ * <pre>
+ * Only the values in the requested paths are materialized, every other object and list is skipped.
+ * Elements of a list are materialized only when a path selects them with a predicate ([{name=Art Venere}]),
+ * since the predicate fields may come after the fields we are looking for.
+ * Parsing stops as soon as all the paths are resolved.
+ * </pre>
+ */
+final class JsonPropertyExtractor {
+
+    private final Map<String, Object> properties = new LinkedHashMap<>();
+    private final List<Target> targets = new ArrayList<>();
+    private int pending;
+
+    JsonPropertyExtractor(Collection<String> jsonPaths) {
+        for (String jsonPath : jsonPaths) {
+            if (!properties.containsKey(jsonPath)) {
+                properties.put(jsonPath, null);
+                targets.add(new Target(jsonPath, CompiledJsonPath.compile(jsonPath)));
+            }
+        }
+        pending = targets.size();
+    }
+
+    /**
+     * @param parser parser positioned before the root of the Json, it is closed by this method
+     * @return value of each requested path, null if the path doesn't exist
+     */
+    Map<String, Object> extract(JsonParser parser) throws IOException {
+        try (JsonParser jsonParser = parser) {
+            if (pending > 0 && null != jsonParser.nextToken()) {
+                List<Cursor> cursors = new ArrayList<>(targets.size());
+                for (Target target : targets) {
+                    cursors.add(new Cursor(target, 0));
+                }
+                visit(jsonParser, cursors);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * @return true when all the paths are resolved
+     */
+    private boolean visit(JsonParser parser, List<Cursor> cursors) throws IOException {
+        if (needsValue(cursors)) {
+            Object value = JsonInput.readValue(parser);
+            for (Cursor cursor : cursors) {
+                if (!cursor.target.resolved && resolve(cursor.target, cursor.target.path.read(value, cursor.position))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return visitObject(parser, cursors);
+        }
+        if (token == JsonToken.START_ARRAY) {
+            return visitArray(parser, cursors);
+        }
+        return false;
+    }
+
+    private boolean visitObject(JsonParser parser, List<Cursor> cursors) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            List<Cursor> next = new ArrayList<>();
+            for (Cursor cursor : cursors) {
+                if (!cursor.target.resolved && cursor.segment().kind == Kind.FIELD && cursor.segment().name.equals(fieldName)) {
+                    next.add(new Cursor(cursor.target, cursor.position + 1));
+                }
+            }
+            if (next.isEmpty()) {
+                parser.skipChildren();
+            } else if (visit(parser, next)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean visitArray(JsonParser parser, List<Cursor> cursors) throws IOException {
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            List<Cursor> next = new ArrayList<>();
+            boolean materialize = false;
+            for (Cursor cursor : cursors) {
+                if (cursor.target.resolved) {
+                    continue;
+                }
+                Segment segment = cursor.segment();
+                if (segment.kind == Kind.FIELD || (segment.kind == Kind.INDEX && segment.index != index)) {
+                    continue;
+                }
+                materialize |= segment.kind == Kind.MATCH;
+                next.add(cursor);
+            }
+            index++;
+            if (next.isEmpty()) {
+                parser.skipChildren();
+            } else if (materialize) {
+                Object element = JsonInput.readValue(parser);
+                for (Cursor cursor : next) {
+                    if (!cursor.target.resolved && cursor.segment().matches(element)
+                            && resolve(cursor.target, cursor.target.path.read(element, cursor.position + 1))) {
+                        return true;
+                    }
+                }
+            } else {
+                List<Cursor> advanced = new ArrayList<>(next.size());
+                for (Cursor cursor : next) {
+                    advanced.add(new Cursor(cursor.target, cursor.position + 1));
+                }
+                if (visit(parser, advanced)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The value at the current token is needed as a whole when a path ends here.
+     */
+    private static boolean needsValue(List<Cursor> cursors) {
+        for (Cursor cursor : cursors) {
+            if (!cursor.target.resolved && cursor.position == cursor.target.path.segments().size()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true when all the paths are resolved
+     */
+    private boolean resolve(Target target, Object value) {
+        if (null != value) {
+            target.resolved = true;
+            properties.put(target.jsonPath, value);
+            pending--;
+        }
+        return pending == 0;
+    }
+
+    private static final class Target {
+        private final String jsonPath;
+        private final CompiledJsonPath path;
+        private boolean resolved;
+
+        private Target(String jsonPath, CompiledJsonPath path) {
+            this.jsonPath = jsonPath;
+            this.path = path;
+        }
+    }
+
+    private static final class Cursor {
+        private final Target target;
+        private final int position;
+
+        private Cursor(Target target, int position) {
+            this.target = target;
+            this.position = position;
+        }
+
+        private Segment segment() {
+            return target.path.segments().get(position);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks the tokens of a Json and returns each property (full json path and value) as soon as it is read.
+ * <pre>
+ * Only the current path is kept in memory, so the memory used depends on the depth of the Json and not on its size.
+ * Properties are returned in the order they appear in the Json, and the list positions are the positions in the Json.
+ * Like getAllProperties, null values, empty objects and empty lists don't produce a property.
+ * </pre>
+ */
+final class JsonPropertyIterator implements Iterator<Map.Entry<String, Object>>, Closeable {
+
+    private final JsonParser parser;
+    private final boolean withValues;
+    private final StringBuilder path = new StringBuilder();
+    private int[] pathLengths = new int[16];
+    private int[] positions = new int[16];
+    private int depth = -1;
+    private Map.Entry<String, Object> next;
+    private boolean closed;
+
+    /**
+     * @param parser     parser positioned before the root of the Json, closed when the iteration ends
+     * @param withValues false to skip reading the values, when only the paths are needed
+     */
+    JsonPropertyIterator(JsonParser parser, boolean withValues) {
+        this.parser = parser;
+        this.withValues = withValues;
+    }
+
+    Stream<Map.Entry<String, Object>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (null == next && !closed) {
+            try {
+                next = advance();
+            } catch (IOException ioException) {
+                close();
+                throw new JsonUtilsException(ioException);
+            }
+            if (null == next) {
+                close();
+            }
+        }
+        return null != next;
+    }
+
+    @Override
+    public Map.Entry<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map.Entry<String, Object> current = next;
+        next = null;
+        return current;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                parser.close();
+            } catch (IOException ioException) {
+                throw new JsonUtilsException(ioException);
+            }
+        }
+    }
+
+    private Map.Entry<String, Object> advance() throws IOException {
+        JsonToken token;
+        while (null != (token = parser.nextToken())) {
+            switch (token) {
+                case FIELD_NAME:
+                    path.setLength(pathLengths[depth]);
+                    if (path.length() > 0) {
+                        path.append('.');
+                    }
+                    path.append(parser.currentName());
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+                case START_OBJECT:
+                    enterValue();
+                    push(-1);
+                    break;
+                case START_ARRAY:
+                    enterValue();
+                    push(0);
+                    break;
+                case VALUE_NULL:
+                    enterValue();
+                    break;
+                default:
+                    enterValue();
+                    return new AbstractMap.SimpleImmutableEntry<>(path.toString(), withValues ? value(token) : null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Values inside a list get their position appended to the path of the list.
+     */
+    private void enterValue() {
+        if (depth >= 0 && positions[depth] >= 0) {
+            path.setLength(pathLengths[depth]);
+            path.append('[').append(positions[depth]++).append(']');
+        }
+    }
+
+    /**
+     * @param position -1 for an object, 0 for a list
+     */
+    private void push(int position) {
+        depth++;
+        if (depth == pathLengths.length) {
+            pathLengths = Arrays.copyOf(pathLengths, depth * 2);
+            positions = Arrays.copyOf(positions, depth * 2);
+        }
+        pathLengths[depth] = path.length();
+        positions[depth] = position;
+    }
+
+    private Object value(JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return parser.getEmbeddedObject();
+        }
+    }
+}
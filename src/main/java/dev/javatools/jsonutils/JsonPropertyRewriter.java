@@ -0,0 +1,341 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import dev.javatools.jsonutils.CompiledJsonPath.Kind;
+import dev.javatools.jsonutils.CompiledJsonPath.Predicate;
+import dev.javatools.jsonutils.CompiledJsonPath.Segment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sets the values of a set of paths while copying the tokens of the Json from the input to the output.
+ * <pre>
+ * Objects and lists that none of the paths reach are copied token by token, without being materialized.
+ * The value at the end of a path replaces the tokens of the existing value, fields and list elements that
+ * don't exist yet are written before the end of their object or list, the same place setProperty adds them.
+ * Elements of a list are buffered one at a time when a path selects them with a predicate ([{name=Art Venere}]),
+ * since the predicate fields may come after the fields we are updating.
+ * The paths are applied in order, predicates are checked against the input Json and the elements added
+ * by the earlier paths. The Maps and Lists of a value are copied before they are written, so the later paths
+ * don't change the values of the caller.
+ * </pre>
+ */
+final class JsonPropertyRewriter {
+
+    private final List<Target> targets = new ArrayList<>();
+
+    JsonPropertyRewriter(Map<String, Object> properties) {
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            CompiledJsonPath path = CompiledJsonPath.compile(property.getKey());
+            List<Segment> segments = path.segments();
+            Segment first = segments.get(0);
+            if (first.kind != Kind.FIELD) {
+                throw new JsonUtilsException(path + ": " + first + " can only be applied on a list.");
+            }
+            if (segments.get(segments.size() - 1).kind == Kind.MATCH) {
+                throw new JsonUtilsException(path + ": Found the element in this path, but to assign the value, we also need a key.");
+            }
+            targets.add(new Target(path, property.getValue()));
+        }
+    }
+
+    /**
+     * @param parser parser positioned before the root of the Json, it is closed by this method
+     * @param output stream to write the updated Json to, the stream is not closed
+     */
+    void rewrite(JsonParser parser, OutputStream output) throws IOException {
+        try (JsonParser jsonParser = parser;
+             JsonGenerator generator = JsonInput.objectMapper().getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            if (null == jsonParser.nextToken()) {
+                throw new JsonUtilsException("Not a valid input, the json is empty.");
+            }
+            List<Cursor> cursors = new ArrayList<>(targets.size());
+            for (Target target : targets) {
+                cursors.add(new Cursor(target, 0));
+            }
+            if (cursors.isEmpty()) {
+                generator.copyCurrentStructure(jsonParser);
+            } else {
+                visit(jsonParser, generator, cursors);
+            }
+        }
+    }
+
+    private void visit(JsonParser parser, JsonGenerator generator, List<Cursor> cursors) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT && allFields(cursors, true)) {
+            visitObject(parser, generator, cursors);
+        } else if (token == JsonToken.START_ARRAY && allFields(cursors, false)) {
+            visitArray(parser, generator, cursors);
+        } else {
+            replace(parser, generator, cursors);
+        }
+    }
+
+    private void visitObject(JsonParser parser, JsonGenerator generator, List<Cursor> cursors) throws IOException {
+        generator.copyCurrentEvent(parser);
+        boolean[] found = new boolean[cursors.size()];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            List<Cursor> next = new ArrayList<>();
+            for (int i = 0; i < cursors.size(); i++) {
+                if (cursors.get(i).segment().name.equals(fieldName)) {
+                    found[i] = true;
+                    next.add(cursors.get(i).advance());
+                }
+            }
+            generator.copyCurrentEvent(parser);
+            parser.nextToken();
+            if (next.isEmpty()) {
+                generator.copyCurrentStructure(parser);
+            } else {
+                visit(parser, generator, next);
+            }
+        }
+        Map<Object, Object> added = new LinkedHashMap<>();
+        for (int i = 0; i < cursors.size(); i++) {
+            if (!found[i]) {
+                cursors.get(i).writeTo(added);
+            }
+        }
+        for (Map.Entry<Object, Object> field : added.entrySet()) {
+            generator.writeFieldName(String.valueOf(field.getKey()));
+            JsonInput.objectMapper().writeValue(generator, field.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private void visitArray(JsonParser parser, JsonGenerator generator, List<Cursor> cursors) throws IOException {
+        generator.copyCurrentEvent(parser);
+        boolean[] found = new boolean[cursors.size()];
+        Set<String> predicateKeys = predicateKeys(cursors);
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonParser source = parser;
+            Map<String, Object> fields = null;
+            if (!predicateKeys.isEmpty() && hasPendingMatch(cursors, found)) {
+                TokenBuffer element = new TokenBuffer(parser);
+                element.copyCurrentStructure(parser);
+                fields = fields(element, predicateKeys);
+                source = element.asParser();
+                source.nextToken();
+            }
+            List<Cursor> next = new ArrayList<>();
+            for (int i = 0; i < cursors.size(); i++) {
+                Segment segment = cursors.get(i).segment();
+                if (!found[i] && ((segment.kind == Kind.INDEX && segment.index == index)
+                        || (segment.kind == Kind.MATCH && null != fields && segment.matches(fields)))) {
+                    found[i] = true;
+                    next.add(cursors.get(i).advance());
+                }
+            }
+            index++;
+            if (next.isEmpty()) {
+                generator.copyCurrentStructure(source);
+            } else {
+                visit(source, generator, next);
+            }
+        }
+        Tail added = new Tail(index);
+        for (int i = 0; i < cursors.size(); i++) {
+            if (!found[i]) {
+                cursors.get(i).writeTo(added);
+            }
+        }
+        for (Object element : added.elements) {
+            JsonInput.objectMapper().writeValue(generator, element);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * The current value is replaced, or it is not the object or list the paths expect: it is materialized and
+     * the paths are applied to it the same way setProperty applies them.
+     */
+    private void replace(JsonParser parser, JsonGenerator generator, List<Cursor> cursors) throws IOException {
+        int from = cursors.size();
+        while (from > 0 && !cursors.get(from - 1).ended()) {
+            from--;
+        }
+        Object node;
+        if (from > 0) {
+            parser.skipChildren();
+            node = copyOf(cursors.get(from - 1).target.value);
+        } else {
+            node = JsonInput.readValue(parser);
+        }
+        for (int i = from; i < cursors.size(); i++) {
+            Cursor cursor = cursors.get(i);
+            if (null == node) {
+                node = CompiledJsonPath.newContainer(cursor.segment());
+            }
+            cursor.writeTo(node);
+        }
+        JsonInput.objectMapper().writeValue(generator, node);
+    }
+
+    /**
+     * @param fields true to check that all the cursors are on a field name, false to check that they are all on a list selector
+     */
+    private static boolean allFields(List<Cursor> cursors, boolean fields) {
+        for (Cursor cursor : cursors) {
+            if (cursor.ended() || (cursor.segment().kind == Kind.FIELD) != fields) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> predicateKeys(List<Cursor> cursors) {
+        Set<String> keys = new HashSet<>();
+        for (Cursor cursor : cursors) {
+            for (Predicate predicate : cursor.segment().predicates) {
+                keys.add(predicate.key);
+            }
+        }
+        return keys;
+    }
+
+    private static boolean hasPendingMatch(List<Cursor> cursors, boolean[] found) {
+        for (int i = 0; i < cursors.size(); i++) {
+            if (!found[i] && cursors.get(i).segment().kind == Kind.MATCH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return values of the predicate fields of the buffered element, null if the element is not an object
+     */
+    private static Map<String, Object> fields(TokenBuffer element, Set<String> keys) throws IOException {
+        try (JsonParser parser = element.asParser()) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            Map<String, Object> fields = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (keys.contains(fieldName)) {
+                    fields.put(fieldName, token.isScalarValue() ? JsonInput.readValue(parser) : null);
+                }
+                parser.skipChildren();
+            }
+            return fields;
+        }
+    }
+
+    /**
+     * @return copy of the Maps and Lists of the value, the other values are shared
+     */
+    private static Object copyOf(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), copyOf(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                copy.add(copyOf(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private static final class Target {
+        private final CompiledJsonPath path;
+        private final Object value;
+
+        private Target(CompiledJsonPath path, Object value) {
+            this.path = path;
+            this.value = value;
+        }
+    }
+
+    private static final class Cursor {
+        private final Target target;
+        private final int position;
+
+        private Cursor(Target target, int position) {
+            this.target = target;
+            this.position = position;
+        }
+
+        private boolean ended() {
+            return position == target.path.segments().size();
+        }
+
+        private Segment segment() {
+            return target.path.segments().get(position);
+        }
+
+        private Cursor advance() {
+            return new Cursor(target, position + 1);
+        }
+
+        /**
+         * Applies the rest of the path to the object or list.
+         */
+        private void writeTo(Object node) {
+            target.path.write(node, position, target.path.segments().size(), copyOf(target.value));
+        }
+    }
+
+    /**
+     * Elements added at the end of a list that has been copied already. The copied elements are seen as nulls,
+     * so positions and list sizes are the same as in the whole list without keeping the copied elements.
+     */
+    private static final class Tail extends AbstractList<Object> {
+        private final int copied;
+        private final List<Object> elements = new ArrayList<>();
+
+        private Tail(int copied) {
+            this.copied = copied;
+        }
+
+        @Override
+        public Object get(int index) {
+            return index < copied ? null : elements.get(index - copied);
+        }
+
+        @Override
+        public Object set(int index, Object element) {
+            if (index < copied) {
+                throw new UnsupportedOperationException();
+            }
+            return elements.set(index - copied, element);
+        }
+
+        @Override
+        public void add(int index, Object element) {
+            if (index != size()) {
+                throw new UnsupportedOperationException();
+            }
+            elements.add(element);
+        }
+
+        @Override
+        public int size() {
+            return copied + elements.size();
+        }
+    }
+}
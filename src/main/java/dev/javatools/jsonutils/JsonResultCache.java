@@ -0,0 +1,282 @@
+package dev.javatools.jsonutils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache of the results of the String based APIs, for inputs that repeat (like template payloads).
+ * <pre>
+ *     JsonResultCache cache = JsonResultCache.ofMaxBytes(64 * 1024 * 1024);
+ *     JsonUtilsConfig.setResultCache(cache);
+ *     String sorted = JsonSort.sort(templatePayload, listKeys);
+ *     long hits = cache.getHitCount();
+ * </pre>
+ * The cached APIs are JsonSort.sort(String) and sort(String, listKeys), JsonPath.getAllPaths(String) and
+ * getAllUniquePaths(String). Their results are Strings and Sets of Strings, which are read only all the way down.
+ * <p>
+ * A result is found by the content of the input json and the options of the call (like listKeys), not by the
+ * identity of the String. The cached Sets are read only, the same instance is returned to all the callers.
+ * <p>
+ * The entries are spread over stripes by the hash of their key, each stripe has its own lock and an equal part of the
+ * byte budget, and evicts its least recently used entries when its part is exceeded. The size of an entry is estimated
+ * from the length of the input and of the result. A result larger than the part of a stripe is not cached.
+ * Two threads that miss the same key at the same time both compute the result. This class is thread safe.
+ */
+public final class JsonResultCache {
+
+    private static final int STRIPES = 16;
+
+    /**
+     * Estimated size of an entry without the input and the result: the key, the entry and the links of the map.
+     */
+    private static final long ENTRY_OVERHEAD = 96;
+
+    private final long maxBytes;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private JsonResultCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxBytes / STRIPES);
+        }
+    }
+
+    /**
+     * @param maxBytes estimated size of all the inputs and results the cache can keep
+     * @return empty cache
+     */
+    public static JsonResultCache ofMaxBytes(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new JsonUtilsException("Not a valid input, max bytes must be more than 0.");
+        }
+        return new JsonResultCache(maxBytes);
+    }
+
+    /**
+     * @return estimated size of all the inputs and results the cache can keep
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return number of calls that found their result in the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of calls that computed their result
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of results removed to stay within the byte budget
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return number of cached results
+     */
+    public long getSize() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return estimated size of the cached inputs and results
+     */
+    public long getWeight() {
+        long weight = 0;
+        for (Stripe stripe : stripes) {
+            weight += stripe.weight();
+        }
+        return weight;
+    }
+
+    /**
+     * Removes all the results, the counters are kept.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * @param operation name of the API
+     * @param options   options of the call that change the result, like listKeys, null if there are none
+     * @param input     input json, the result is computed without the cache when it is null
+     * @param compute   computes the result of the input
+     * @return result of the shared cache of {@link JsonUtilsConfig}, or the computed result when there is no cache
+     */
+    static <T> T apply(String operation, Map<String, String> options, String input, Function<String, T> compute) {
+        JsonResultCache cache = JsonUtilsConfig.getResultCache();
+        if (null == cache || null == input) {
+            return compute.apply(input);
+        }
+        return cache.get(new Key(operation, null == options ? null : new HashMap<>(options), input), compute);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Key key, Function<String, T> compute) {
+        Stripe stripe = stripes[(key.hash ^ (key.hash >>> 16)) & (STRIPES - 1)];
+        Object cached = stripe.find(key);
+        if (null != cached) {
+            hits.increment();
+            return (T) cached;
+        }
+        misses.increment();
+        T result = readOnly(compute.apply(key.input));
+        if (null != result) {
+            evictions.add(stripe.add(key, result, ENTRY_OVERHEAD + weightOf(key.input) + weightOf(result)));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T readOnly(T result) {
+        if (result instanceof SortedSet) {
+            return (T) Collections.unmodifiableSortedSet((SortedSet) result);
+        }
+        if (result instanceof Set) {
+            return (T) Collections.unmodifiableSet((Set) result);
+        }
+        if (result instanceof List) {
+            return (T) Collections.unmodifiableList((List) result);
+        }
+        return result;
+    }
+
+    /**
+     * @return estimated size in bytes of a String or a collection of Strings
+     */
+    private static long weightOf(Object value) {
+        if (value instanceof String) {
+            return 40 + ((String) value).length();
+        }
+        if (value instanceof Collection) {
+            long weight = 16;
+            for (Object element : (Collection<?>) value) {
+                weight += 32 + weightOf(element);
+            }
+            return weight;
+        }
+        return 16;
+    }
+
+    /**
+     * Input and options of a call. The hash of the input String is computed once by the String.
+     */
+    private static final class Key {
+
+        private final String operation;
+        private final Map<String, String> options;
+        private final String input;
+        private final int hash;
+
+        private Key(String operation, Map<String, String> options, String input) {
+            this.operation = operation;
+            this.options = options;
+            this.input = input;
+            this.hash = 31 * (31 * operation.hashCode() + Objects.hashCode(options)) + input.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return hash == key.hash && operation.equals(key.operation) && Objects.equals(options, key.options) && input.equals(key.input);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object result;
+        private final long weight;
+
+        private Entry(Object result, long weight) {
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Least recently used entries of one part of the cache, guarded by its own lock.
+     */
+    private static final class Stripe {
+
+        private final long maxWeight;
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        private Stripe(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        private synchronized Object find(Key key) {
+            Entry entry = entries.get(key);
+            return null == entry ? null : entry.result;
+        }
+
+        /**
+         * @return number of entries evicted
+         */
+        private synchronized int add(Key key, Object result, long entryWeight) {
+            if (entryWeight > maxWeight) {
+                return 0;
+            }
+            Entry previous = entries.put(key, new Entry(result, entryWeight));
+            weight += entryWeight - (null == previous ? 0 : previous.weight);
+            int evicted = 0;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (weight > maxWeight) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        private synchronized long weight() {
+            return weight;
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Unique paths of one or more Jsons, with the types, the number of values and nulls and the list lengths seen in each path.
+ * <pre>
+ *     JsonSchemaProfile profile = JsonSchemaProfile.of(jsonFile);
+ *     JsonSchemaProfile allFiles = files.parallelStream().map(JsonSchemaProfile::of).reduce(JsonSchemaProfile.empty(), JsonSchemaProfile::merge);
+ *     JsonSchemaProfile.PathProfile city = allFiles.getPath("friends[].associatedAddresses[].city");
+ *     Set&lt;String&gt; drift = JsonSchemaProfile.fromBytes(cachedBytes).changedPaths(allFiles);
+ * </pre>
+ * The paths are written like getAllUniquePaths, with [] instead of the list positions. Objects, lists and null values
+ * have a path too, so the paths with a STRING, INTEGER, DECIMAL or BOOLEAN value are the unique paths of the Json.
+ * <p>
+ * The Json is read one token at a time in a single pass. The profile is kept as a tree of the field names while
+ * reading, the paths are only built once at the end. Profiles are immutable, merge returns a new profile, so profiles
+ * of different Jsons can be built in different threads and reduced. toBytes writes a compact binary form that
+ * fromBytes reads back, so profiles can be cached.
+ */
+public final class JsonSchemaProfile {
+
+    /**
+     * Type of the values seen in a path.
+     */
+    public enum Type {
+        OBJECT, ARRAY, STRING, INTEGER, DECIMAL, BOOLEAN, NULL
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final int MAGIC = 0x4A535031;
+    private static final JsonSchemaProfile EMPTY = new JsonSchemaProfile(0, new TreeMap<>());
+
+    private final long documentCount;
+    private final SortedMap<String, PathProfile> paths;
+
+    private JsonSchemaProfile(long documentCount, SortedMap<String, PathProfile> paths) {
+        this.documentCount = documentCount;
+        this.paths = Collections.unmodifiableSortedMap(paths);
+    }
+
+    /**
+     * @return profile of no Json, the identity of merge
+     */
+    public static JsonSchemaProfile empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param jsonString json String to process
+     * @return profile of the Json
+     */
+    public static JsonSchemaProfile of(String jsonString) {
+        if (null == jsonString) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return read(JsonInput.parser(jsonString), false);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param jsonFile File containing the json String to process
+     * @return profile of the Json
+     */
+    public static JsonSchemaProfile of(File jsonFile) {
+        if (null == jsonFile) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return read(JsonInput.parser(jsonFile), false);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param jsonStream stream containing the json, the stream is not closed
+     * @return profile of the Json
+     */
+    public static JsonSchemaProfile of(InputStream jsonStream) {
+        if (null == jsonStream) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return read(JsonInput.parser(jsonStream), false);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param jsonLines stream containing one json per line (NDJSON), the stream is not closed
+     * @return profile of all the Jsons, read with a single parser
+     */
+    public static JsonSchemaProfile ofLines(InputStream jsonLines) {
+        if (null == jsonLines) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return read(JsonInput.parser(jsonLines), true);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param other profile of other Jsons
+     * @return profile of the Jsons of both profiles
+     */
+    public JsonSchemaProfile merge(JsonSchemaProfile other) {
+        if (null == other) {
+            throw new JsonUtilsException("Not a valid input, profile is a mandatory field.");
+        }
+        if (other.documentCount == 0) {
+            return this;
+        }
+        if (documentCount == 0) {
+            return other;
+        }
+        SortedMap<String, PathProfile> merged = new TreeMap<>(paths);
+        for (Map.Entry<String, PathProfile> path : other.paths.entrySet()) {
+            merged.merge(path.getKey(), path.getValue(), PathProfile::merge);
+        }
+        return new JsonSchemaProfile(documentCount + other.documentCount, merged);
+    }
+
+    /**
+     * @return number of Jsons in the profile
+     */
+    public long getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * @return sorted unique paths, including the paths of objects, lists and null values
+     */
+    public Set<String> getPaths() {
+        return paths.keySet();
+    }
+
+    /**
+     * @param path unique path, like friends[].associatedAddresses[].city
+     * @return profile of the path, null if no Json has the path
+     */
+    public PathProfile getPath(String path) {
+        return paths.get(path);
+    }
+
+    /**
+     * @param other profile to compare with, like a cached profile of earlier Jsons
+     * @return sorted paths that only one of the profiles has, or that have different types in the two profiles.
+     * The counts are not compared.
+     */
+    public Set<String> changedPaths(JsonSchemaProfile other) {
+        if (null == other) {
+            throw new JsonUtilsException("Not a valid input, profile is a mandatory field.");
+        }
+        Set<String> changed = new TreeSet<>();
+        for (Map.Entry<String, PathProfile> path : paths.entrySet()) {
+            PathProfile otherPath = other.paths.get(path.getKey());
+            if (null == otherPath || !otherPath.getTypes().equals(path.getValue().getTypes())) {
+                changed.add(path.getKey());
+            }
+        }
+        for (String path : other.paths.keySet()) {
+            if (!paths.containsKey(path)) {
+                changed.add(path);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * The paths are sorted, each path is written as the length it shares with the previous path and the rest of it.
+     * The numbers are written as variable length integers.
+     *
+     * @return binary form of the profile, see fromBytes
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            writeNumber(output, documentCount);
+            writeNumber(output, paths.size());
+            String previous = "";
+            for (Map.Entry<String, PathProfile> path : paths.entrySet()) {
+                String text = path.getKey();
+                int shared = 0;
+                while (shared < previous.length() && shared < text.length() && previous.charAt(shared) == text.charAt(shared)) {
+                    shared++;
+                }
+                if (shared > 0 && Character.isHighSurrogate(text.charAt(shared - 1))) {
+                    shared--;
+                }
+                byte[] rest = text.substring(shared).getBytes(StandardCharsets.UTF_8);
+                writeNumber(output, shared);
+                writeNumber(output, rest.length);
+                output.write(rest);
+                PathProfile profile = path.getValue();
+                for (long count : profile.counts) {
+                    writeNumber(output, count);
+                }
+                writeNumber(output, profile.minLength + 1L);
+                writeNumber(output, profile.maxLength + 1L);
+                previous = text;
+            }
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param bytes binary form written by toBytes
+     * @return the profile
+     */
+    public static JsonSchemaProfile fromBytes(byte[] bytes) {
+        if (null == bytes) {
+            throw new JsonUtilsException("Not a valid input, bytes is a mandatory field.");
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (input.readInt() != MAGIC) {
+                throw new JsonUtilsException("Not a valid input, the bytes are not a Json schema profile.");
+            }
+            long documentCount = readNumber(input);
+            long pathCount = readNumber(input);
+            SortedMap<String, PathProfile> paths = new TreeMap<>();
+            String previous = "";
+            for (long i = 0; i < pathCount; i++) {
+                int shared = (int) readNumber(input);
+                byte[] rest = new byte[(int) readNumber(input)];
+                input.readFully(rest);
+                String path = previous.substring(0, shared) + new String(rest, StandardCharsets.UTF_8);
+                long[] counts = new long[TYPES.length];
+                for (int type = 0; type < counts.length; type++) {
+                    counts[type] = readNumber(input);
+                }
+                int minLength = (int) (readNumber(input) - 1);
+                int maxLength = (int) (readNumber(input) - 1);
+                paths.put(path, new PathProfile(counts, minLength, maxLength));
+                previous = path;
+            }
+            return new JsonSchemaProfile(documentCount, paths);
+        } catch (IOException | IndexOutOfBoundsException | NegativeArraySizeException exception) {
+            throw new JsonUtilsException("Not a valid input, the bytes are not a Json schema profile.");
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof JsonSchemaProfile)) {
+            return false;
+        }
+        JsonSchemaProfile profile = (JsonSchemaProfile) other;
+        return documentCount == profile.documentCount && paths.equals(profile.paths);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(documentCount, paths);
+    }
+
+    @Override
+    public String toString() {
+        return "JsonSchemaProfile{documentCount=" + documentCount + ", paths=" + paths + "}";
+    }
+
+    /**
+     * @param lines true to read all the Jsons of the input, false to read one Json
+     */
+    private static JsonSchemaProfile read(JsonParser parser, boolean lines) throws IOException {
+        try (JsonParser input = parser) {
+            Node root = new Node();
+            long documentCount = 0;
+            JsonToken token;
+            while (null != (token = input.nextToken())) {
+                root.read(input, token);
+                documentCount++;
+                if (!lines) {
+                    break;
+                }
+            }
+            if (documentCount == 0 && !lines) {
+                throw new JsonUtilsException("Not a valid input, the json is empty.");
+            }
+            SortedMap<String, PathProfile> paths = new TreeMap<>();
+            root.addChildren("", paths);
+            return new JsonSchemaProfile(documentCount, paths);
+        }
+    }
+
+    private static void writeNumber(DataOutputStream output, long number) throws IOException {
+        long rest = number;
+        while ((rest & ~0x7FL) != 0) {
+            output.writeByte((int) ((rest & 0x7F) | 0x80));
+            rest >>>= 7;
+        }
+        output.writeByte((int) rest);
+    }
+
+    private static long readNumber(DataInputStream input) throws IOException {
+        long number = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int next = input.readUnsignedByte();
+            number |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return number;
+            }
+        }
+        throw new IOException("Variable length number is too long.");
+    }
+
+    /**
+     * Types, counts and list lengths of the values in one path. Immutable.
+     */
+    public static final class PathProfile {
+
+        private final long[] counts;
+        private final int minLength;
+        private final int maxLength;
+
+        private PathProfile(long[] counts, int minLength, int maxLength) {
+            this.counts = counts;
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return number of values in the path, null values included
+         */
+        public long getCount() {
+            long count = 0;
+            for (long typeCount : counts) {
+                count += typeCount;
+            }
+            return count;
+        }
+
+        /**
+         * @return number of values of the type in the path
+         */
+        public long getCount(Type type) {
+            return counts[type.ordinal()];
+        }
+
+        /**
+         * @return number of null values in the path
+         */
+        public long getNullCount() {
+            return counts[Type.NULL.ordinal()];
+        }
+
+        /**
+         * @return share of the values in the path that are null, between 0 and 1
+         */
+        public double getNullRate() {
+            long count = getCount();
+            return count == 0 ? 0 : (double) getNullCount() / count;
+        }
+
+        /**
+         * @return types of the values seen in the path
+         */
+        public Set<Type> getTypes() {
+            Set<Type> types = EnumSet.noneOf(Type.class);
+            for (Type type : TYPES) {
+                if (counts[type.ordinal()] > 0) {
+                    types.add(type);
+                }
+            }
+            return types;
+        }
+
+        /**
+         * @return length of the shortest list in the path, -1 if the path has no list
+         */
+        public int getMinLength() {
+            return minLength;
+        }
+
+        /**
+         * @return length of the longest list in the path, -1 if the path has no list
+         */
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        private PathProfile merge(PathProfile other) {
+            long[] merged = new long[counts.length];
+            for (int type = 0; type < merged.length; type++) {
+                merged[type] = counts[type] + other.counts[type];
+            }
+            if (maxLength < 0 || other.maxLength < 0) {
+                return new PathProfile(merged, maxLength < 0 ? other.minLength : minLength, Math.max(maxLength, other.maxLength));
+            }
+            return new PathProfile(merged, Math.min(minLength, other.minLength), Math.max(maxLength, other.maxLength));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof PathProfile)) {
+                return false;
+            }
+            PathProfile profile = (PathProfile) other;
+            return minLength == profile.minLength && maxLength == profile.maxLength && Arrays.equals(counts, profile.counts);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(minLength, maxLength) + Arrays.hashCode(counts);
+        }
+
+        @Override
+        public String toString() {
+            return "PathProfile{types=" + getTypes() + ", count=" + getCount() + ", nullCount=" + getNullCount()
+                    + ", minLength=" + minLength + ", maxLength=" + maxLength + "}";
+        }
+    }
+
+    /**
+     * Counts of one path while reading, with the nodes of its fields and of its list elements.
+     */
+    private static final class Node {
+
+        private final long[] counts = new long[TYPES.length];
+        private int minLength = Integer.MAX_VALUE;
+        private int maxLength = -1;
+        private Map<String, Node> fields;
+        private Node elements;
+
+        private void read(JsonParser parser, JsonToken token) throws IOException {
+            switch (token) {
+                case START_OBJECT:
+                    counts[Type.OBJECT.ordinal()]++;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = parser.currentName();
+                        if (null == fields) {
+                            fields = new HashMap<>();
+                        }
+                        fields.computeIfAbsent(name, key -> new Node()).read(parser, parser.nextToken());
+                    }
+                    break;
+                case START_ARRAY:
+                    counts[Type.ARRAY.ordinal()]++;
+                    int length = 0;
+                    JsonToken elementToken;
+                    while ((elementToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (null == elements) {
+                            elements = new Node();
+                        }
+                        elements.read(parser, elementToken);
+                        length++;
+                    }
+                    minLength = Math.min(minLength, length);
+                    maxLength = Math.max(maxLength, length);
+                    break;
+                case VALUE_NUMBER_INT:
+                    counts[Type.INTEGER.ordinal()]++;
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    counts[Type.DECIMAL.ordinal()]++;
+                    break;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    counts[Type.BOOLEAN.ordinal()]++;
+                    break;
+                case VALUE_NULL:
+                    counts[Type.NULL.ordinal()]++;
+                    break;
+                default:
+                    counts[Type.STRING.ordinal()]++;
+            }
+        }
+
+        private void addChildren(String path, Map<String, PathProfile> paths) {
+            if (null != fields) {
+                for (Map.Entry<String, Node> field : fields.entrySet()) {
+                    field.getValue().add(path.isEmpty() ? field.getKey() : path + "." + field.getKey(), paths);
+                }
+            }
+            if (null != elements) {
+                elements.add(path + "[]", paths);
+            }
+        }
+
+        private void add(String path, Map<String, PathProfile> paths) {
+            paths.put(path, new PathProfile(counts.clone(), maxLength < 0 ? -1 : minLength, maxLength));
+            addChildren(path, paths);
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package dev.javatools.jsonutils;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import dev.javatools.maputils.MapCreator;
-import dev.javatools.maputils.MapSort;
-import dev.javatools.maputils.helpers.Format;
-
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Checksum;
 
 /**
  * This class has all the APIs needs to sort a Json.
@@ -36,22 +36,28 @@ import java.util.Map;
  * If you need the sort the above Map based on the member age. You need to pass
  * listKey.put("members[]", "age");
  * The key of this listKey map can be the json path until the list, and the value is the field in the object.
+ * <p>
+ * The sort APIs that take an OutputStream write the sorted json directly to the stream, without creating the
+ * sorted json String. Only the sorted json is kept in memory, see {@link SortOptions} for the output format.
+ * For large jsons SortOptions can also sort the lists in parallel in a ForkJoinPool, the sorted json is the same.
+ * <p>
+ * The sortLines APIs sort newline delimited json (NDJSON), one json per line, and write one compact sorted json per line.
+ * <p>
+ * The fingerprint APIs hash the canonical form of a json: the compact json in UTF-8 with the fields sorted by name, the
+ * lists that have a list key sorted by that field, and the other lists sorted by the canonical bytes of their elements,
+ * duplicates included. Two jsons that only differ in the order of their fields and of their list elements have the same
+ * fingerprint. When every list has a list key the canonical form is the same as sort(inputJson, listKeys,
+ * SortOptions.compact()). The canonical bytes are buffered until the json is read, so the memory used is about the size
+ * of the compact json.
  */
 public class JsonSort {
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-
     /**
      * @param inputJson String representation of the json that has to be sorted
      * @return sorted json String
      */
     public static String sort(String inputJson) {
-        try {
-            Map inputMap = MapCreator.create(inputJson, Format.JSON);
-            return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(MapSort.getSortedMap(inputMap));
-        } catch (JsonProcessingException jsonProcessingException) {
-            throw new JsonUtilsException(jsonProcessingException);
-        }
+        return JsonResultCache.apply("sort", null, inputJson, json -> JsonDocument.of(json).sort());
     }
 
     /**
@@ -60,12 +66,7 @@ public class JsonSort {
      * @return sorted json
      */
     public static String sort(String inputJson, Map<String, String> listKeys) {
-        try {
-            Map inputMap = MapCreator.create(inputJson, Format.JSON);
-            return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(MapSort.getSortedMap(inputMap, listKeys));
-        } catch (JsonProcessingException jsonProcessingException) {
-            throw new JsonUtilsException(jsonProcessingException);
-        }
+        return JsonResultCache.apply("sortWithListKeys", listKeys, inputJson, json -> JsonDocument.of(json).sort(listKeys));
     }
 
     /**
@@ -73,12 +74,16 @@ public class JsonSort {
      * @return sorted json String
      */
     public static String sort(File inputJson) {
-        try {
-            Map inputMap = MapCreator.create(inputJson, Format.JSON);
-            return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(MapSort.getSortedMap(inputMap));
-        } catch (JsonProcessingException jsonProcessingException) {
-            throw new JsonUtilsException(jsonProcessingException);
-        }
+        return JsonDocument.of(inputJson).sort();
+    }
+
+    /**
+     * @param inputJson    File containing the String representation of the json that has to be sorted
+     * @param fileReadMode how the file is read, see {@link FileReadMode}
+     * @return sorted json String
+     */
+    public static String sort(File inputJson, FileReadMode fileReadMode) {
+        return JsonDocument.of(inputJson, fileReadMode).sort();
     }
 
     /**
@@ -87,12 +92,17 @@ public class JsonSort {
      * @return sorted json String
      */
     public static String sort(File inputJson, Map<String, String> listKeys) {
-        try {
-            Map inputMap = MapCreator.create(inputJson, Format.JSON);
-            return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(MapSort.getSortedMap(inputMap, listKeys));
-        } catch (JsonProcessingException jsonProcessingException) {
-            throw new JsonUtilsException(jsonProcessingException);
-        }
+        return JsonDocument.of(inputJson).sort(listKeys);
+    }
+
+    /**
+     * @param inputJson    File containing the String representation of the json that has to be sorted
+     * @param listKeys     Please see the documentation at class level.
+     * @param fileReadMode how the file is read, see {@link FileReadMode}
+     * @return sorted json String
+     */
+    public static String sort(File inputJson, Map<String, String> listKeys, FileReadMode fileReadMode) {
+        return JsonDocument.of(inputJson, fileReadMode).sort(listKeys);
     }
 
     /**
@@ -100,12 +110,7 @@ public class JsonSort {
      * @return sorted json String
      */
     public static String sort(Object inputJson) {
-        try {
-            Map inputMap = MapCreator.create(inputJson);
-            return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(MapSort.getSortedMap(inputMap));
-        } catch (JsonProcessingException jsonProcessingException) {
-            throw new JsonUtilsException(jsonProcessingException);
-        }
+        return sort(inputJson, Collections.emptyMap());
     }
 
     /**
@@ -115,10 +120,275 @@ public class JsonSort {
      */
     public static String sort(Object inputJson, Map<String, String> listKeys) {
         try {
-            Map inputMap = MapCreator.create(inputJson);
-            return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(MapSort.getSortedMap(inputMap, listKeys));
-        } catch (JsonProcessingException jsonProcessingException) {
-            throw new JsonUtilsException(jsonProcessingException);
+            return SortedJsonWriter.sort(JsonInput.modelParser(inputJson), listKeys, SortOptions.pretty());
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param inputJson   String representation of the json that has to be sorted
+     * @param sortOptions format of the sorted json and parallel mode, see {@link SortOptions}
+     * @return sorted json String
+     */
+    public static String sort(String inputJson, SortOptions sortOptions) {
+        return sort(inputJson, Collections.emptyMap(), sortOptions);
+    }
+
+    /**
+     * @param inputJson   String representation of the json that has to be sorted
+     * @param listKeys    Please see the documentation at class level.
+     * @param sortOptions format of the sorted json and parallel mode, see {@link SortOptions}
+     * @return sorted json String
+     */
+    public static String sort(String inputJson, Map<String, String> listKeys, SortOptions sortOptions) {
+        try {
+            return SortedJsonWriter.sort(JsonInput.parser(inputJson), listKeys, sortOptions);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param inputJson   File containing the String representation of the json that has to be sorted
+     * @param sortOptions format of the sorted json and parallel mode, see {@link SortOptions}
+     * @return sorted json String
+     */
+    public static String sort(File inputJson, SortOptions sortOptions) {
+        return sort(inputJson, Collections.emptyMap(), sortOptions);
+    }
+
+    /**
+     * @param inputJson   File containing the String representation of the json that has to be sorted
+     * @param listKeys    Please see the documentation at class level.
+     * @param sortOptions format of the sorted json and parallel mode, see {@link SortOptions}
+     * @return sorted json String
+     */
+    public static String sort(File inputJson, Map<String, String> listKeys, SortOptions sortOptions) {
+        try {
+            return SortedJsonWriter.sort(JsonInput.parser(inputJson), listKeys, sortOptions);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param inputJson   stream containing the json that has to be sorted, the stream is not closed
+     * @param output      stream to write the sorted json to, the stream is not closed
+     * @param sortOptions format of the sorted json and parallel mode, see {@link SortOptions}
+     */
+    public static void sort(InputStream inputJson, OutputStream output, SortOptions sortOptions) {
+        sort(inputJson, Collections.emptyMap(), output, sortOptions);
+    }
+
+    /**
+     * @param inputJson   stream containing the json that has to be sorted, the stream is not closed
+     * @param listKeys    Please see the documentation at class level.
+     * @param output      stream to write the sorted json to, the stream is not closed
+     * @param sortOptions format of the sorted json and parallel mode, see {@link SortOptions}
+     */
+    public static void sort(InputStream inputJson, Map<String, String> listKeys, OutputStream output, SortOptions sortOptions) {
+        try {
+            SortedJsonWriter.sort(JsonInput.parser(inputJson), listKeys, output, sortOptions);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param inputJson   File containing the String representation of the json that has to be sorted
+     * @param output      stream to write the sorted json to, the stream is not closed
+     * @param sortOptions format of the sorted json and parallel mode, see {@link SortOptions}
+     */
+    public static void sort(File inputJson, OutputStream output, SortOptions sortOptions) {
+        sort(inputJson, Collections.emptyMap(), output, sortOptions);
+    }
+
+    /**
+     * @param inputJson   File containing the String representation of the json that has to be sorted
+     * @param listKeys    Please see the documentation at class level.
+     * @param output      stream to write the sorted json to, the stream is not closed
+     * @param sortOptions format of the sorted json and parallel mode, see {@link SortOptions}
+     */
+    public static void sort(File inputJson, Map<String, String> listKeys, OutputStream output, SortOptions sortOptions) {
+        try {
+            SortedJsonWriter.sort(JsonInput.parser(inputJson), listKeys, output, sortOptions);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Sorts newline delimited json (NDJSON). Each line is sorted like sort(String) and written as one compact line,
+     * all the lines are read with a single parser and written with a single generator.
+     *
+     * @param inputJson stream containing one json per line, the stream is not closed
+     * @param listKeys  Please see the documentation at class level.
+     * @param output    stream to write the sorted json lines to, the stream is not closed
+     * @return number of json lines sorted
+     */
+    public static long sortLines(InputStream inputJson, Map<String, String> listKeys, OutputStream output) {
+        return JsonLines.write(inputJson, listKeys, output, SortedJsonWriter::write, null);
+    }
+
+    /**
+     * Same as sortLines without a pool, the input is cut in blocks of lines that are sorted in parallel in the pool.
+     * The sorted lines are written in the order of the input. The input must be UTF-8.
+     *
+     * @param inputJson stream containing one json per line, the stream is not closed
+     * @param listKeys  Please see the documentation at class level.
+     * @param output    stream to write the sorted json lines to, the stream is not closed
+     * @param pool      pool that sorts the blocks of lines
+     * @return number of json lines sorted
+     */
+    public static long sortLines(InputStream inputJson, Map<String, String> listKeys, OutputStream output, ForkJoinPool pool) {
+        return JsonLines.write(inputJson, listKeys, output, SortedJsonWriter::write, JsonLines.validPool(pool));
+    }
+
+    /**
+     * @param inputJson File containing one json per line
+     * @param listKeys  Please see the documentation at class level.
+     * @param output    stream to write the sorted json lines to, the stream is not closed
+     * @return number of json lines sorted
+     */
+    public static long sortLines(File inputJson, Map<String, String> listKeys, OutputStream output) {
+        return JsonLines.write(inputJson, listKeys, output, SortedJsonWriter::write, null);
+    }
+
+    /**
+     * @param inputJson File containing one json per line
+     * @param listKeys  Please see the documentation at class level.
+     * @param output    stream to write the sorted json lines to, the stream is not closed
+     * @param pool      pool that sorts the blocks of lines
+     * @return number of json lines sorted
+     */
+    public static long sortLines(File inputJson, Map<String, String> listKeys, OutputStream output, ForkJoinPool pool) {
+        return JsonLines.write(inputJson, listKeys, output, SortedJsonWriter::write, JsonLines.validPool(pool));
+    }
+
+    /**
+     * @param inputJson String representation of the json
+     * @param listKeys  Please see the documentation at class level.
+     * @param algorithm MessageDigest algorithm, like SHA-256
+     * @return hash of the canonical form of the json, see the documentation at class level
+     */
+    public static byte[] fingerprint(String inputJson, Map<String, String> listKeys, String algorithm) {
+        if (null == inputJson) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return JsonFingerprint.digest(JsonInput.parser(inputJson), listKeys, algorithm);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param inputJson File containing the String representation of the json
+     * @param listKeys  Please see the documentation at class level.
+     * @param algorithm MessageDigest algorithm, like SHA-256
+     * @return hash of the canonical form of the json
+     */
+    public static byte[] fingerprint(File inputJson, Map<String, String> listKeys, String algorithm) {
+        if (null == inputJson) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return JsonFingerprint.digest(JsonInput.parser(inputJson), listKeys, algorithm);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param inputJson stream containing the json, the stream is not closed
+     * @param listKeys  Please see the documentation at class level.
+     * @param algorithm MessageDigest algorithm, like SHA-256
+     * @return hash of the canonical form of the json
+     */
+    public static byte[] fingerprint(InputStream inputJson, Map<String, String> listKeys, String algorithm) {
+        if (null == inputJson) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return JsonFingerprint.digest(JsonInput.parser(inputJson), listKeys, algorithm);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Same as fingerprint with a MessageDigest algorithm, for fast non cryptographic hashes. Any hash that implements
+     * Checksum can be used, like java.util.zip.CRC32C or the 64 bit xxHash of lz4-java (asChecksum).
+     *
+     * @param inputJson String representation of the json
+     * @param listKeys  Please see the documentation at class level.
+     * @param checksum  checksum that is reset and updated with the canonical form, it is not thread safe
+     * @return value of the checksum
+     */
+    public static long fingerprint(String inputJson, Map<String, String> listKeys, Checksum checksum) {
+        if (null == inputJson) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return JsonFingerprint.checksum(JsonInput.parser(inputJson), listKeys, checksum);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param inputJson File containing the String representation of the json
+     * @param listKeys  Please see the documentation at class level.
+     * @param checksum  checksum that is reset and updated with the canonical form, it is not thread safe
+     * @return value of the checksum
+     */
+    public static long fingerprint(File inputJson, Map<String, String> listKeys, Checksum checksum) {
+        if (null == inputJson) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return JsonFingerprint.checksum(JsonInput.parser(inputJson), listKeys, checksum);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Hashes every object and list of the json, to find which branch of two jsons changed. The paths are the paths
+     * of the canonical form, like friends[0].associatedAddresses[1], the whole json has the empty path and the same hash
+     * as fingerprint.
+     *
+     * @param inputJson String representation of the json
+     * @param listKeys  Please see the documentation at class level.
+     * @param algorithm MessageDigest algorithm, like SHA-256
+     * @return hash of every object and list, sorted by path
+     */
+    public static Map<String, byte[]> fingerprints(String inputJson, Map<String, String> listKeys, String algorithm) {
+        if (null == inputJson) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return JsonFingerprint.subtreeDigests(JsonInput.parser(inputJson), listKeys, algorithm);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param inputJson File containing the String representation of the json
+     * @param listKeys  Please see the documentation at class level.
+     * @param algorithm MessageDigest algorithm, like SHA-256
+     * @return hash of every object and list, sorted by path, see fingerprints(String, Map, String)
+     */
+    public static Map<String, byte[]> fingerprints(File inputJson, Map<String, String> listKeys, String algorithm) {
+        if (null == inputJson) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return JsonFingerprint.subtreeDigests(JsonInput.parser(inputJson), listKeys, algorithm);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
         }
     }
 
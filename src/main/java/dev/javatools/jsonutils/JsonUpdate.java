@@ -0,0 +1,293 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import dev.javatools.jsonutils.CompiledJsonPath.Kind;
+import dev.javatools.jsonutils.CompiledJsonPath.Predicate;
+import dev.javatools.jsonutils.CompiledJsonPath.Segment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of updates on one parsed Json, serialized once at the end.
+ * <pre>
+ *     JsonProperty.update(jsonString)
+ *             .set("age", 26)
+ *             .set("friends[{name=Art Venere}].primaryAddress.city", "Madison")
+ *             .set("friends[{name=Art Venere}].primaryAddress.zip", "53703")
+ *             .remove("dateOfBirth")
+ *             .compact()
+ *             .writeTo(outputStream);
+ * </pre>
+ * See {@link JsonProperty} for the path format. remove deletes the field at the end of the path, "[]" at the end
+ * removes all the elements of the list and "[{...}]" removes all the matching elements.
+ * <p>
+ * The updates are applied in order when the Json is written. The object or list reached by each path prefix is
+ * remembered, so updates that share a prefix (like the two friends[{name=Art Venere}].primaryAddress updates above)
+ * traverse it only once. The result is the same as applying the updates one by one with setProperty.
+ * Maps and Lists passed as values become part of the Json, later updates in their path change them.
+ * This class is not thread safe.
+ */
+public final class JsonUpdate {
+
+    private final Map json;
+    private final List<Update> updates = new ArrayList<>();
+    private boolean pretty = true;
+    private DataFormat format = DataFormat.JSON;
+
+    JsonUpdate(Map json) {
+        this.json = json;
+    }
+
+    /**
+     * @param jsonPath path of the field
+     * @param value    the value that needs to be set
+     * @return this update
+     */
+    public JsonUpdate set(String jsonPath, Object value) {
+        return set(CompiledJsonPath.compile(jsonPath), value);
+    }
+
+    /**
+     * @param jsonPath compiled path of the field
+     * @param value    the value that needs to be set
+     * @return this update
+     */
+    public JsonUpdate set(CompiledJsonPath jsonPath, Object value) {
+        updates.add(new Update(validate(jsonPath), value, false));
+        return this;
+    }
+
+    /**
+     * @param jsonPath path of the field or list elements to remove
+     * @return this update
+     */
+    public JsonUpdate remove(String jsonPath) {
+        return remove(CompiledJsonPath.compile(jsonPath));
+    }
+
+    /**
+     * @param jsonPath compiled path of the field or list elements to remove
+     * @return this update
+     */
+    public JsonUpdate remove(CompiledJsonPath jsonPath) {
+        updates.add(new Update(validate(jsonPath), null, true));
+        return this;
+    }
+
+    /**
+     * Writes the Json without any white space. By default it is pretty printed, the same way as setProperty.
+     *
+     * @return this update
+     */
+    public JsonUpdate compact() {
+        pretty = false;
+        return this;
+    }
+
+    /**
+     * @return this update, with the Json pretty printed
+     */
+    public JsonUpdate pretty() {
+        pretty = true;
+        return this;
+    }
+
+    /**
+     * The binary formats can only be written by writeTo, and are never pretty printed.
+     *
+     * @param format format writeTo writes the updated Json in, JSON by default
+     * @return this update
+     */
+    public JsonUpdate format(DataFormat format) {
+        if (null == format) {
+            throw new JsonUtilsException("Not a valid input, format is a mandatory field.");
+        }
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Applies the updates and writes the updated Json.
+     *
+     * @param output stream to write the updated Json to, the stream is not closed
+     */
+    public void writeTo(OutputStream output) {
+        apply();
+        try (JsonGenerator generator = format.factory().createGenerator(output, JsonEncoding.UTF8)) {
+            write(generator);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Applies the updates.
+     *
+     * @return String representation of the updated Json
+     */
+    public String toJson() {
+        if (format != DataFormat.JSON) {
+            throw new JsonUtilsException("Not a valid input, " + format + " can only be written to an OutputStream.");
+        }
+        apply();
+        Writer output = new StringWriter();
+        try (JsonGenerator generator = JsonInput.objectMapper().getFactory().createGenerator(output)) {
+            write(generator);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+        return output.toString();
+    }
+
+    private void write(JsonGenerator generator) throws IOException {
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        if (pretty && format == DataFormat.JSON) {
+            generator.useDefaultPrettyPrinter();
+        }
+        JsonInput.objectMapper().writeValue(generator, json);
+    }
+
+    private static CompiledJsonPath validate(CompiledJsonPath jsonPath) {
+        if (null == jsonPath) {
+            throw new JsonUtilsException("Not a valid input, Json Path is a mandatory field.");
+        }
+        return jsonPath;
+    }
+
+    private void apply() {
+        PrefixCache prefixes = new PrefixCache();
+        for (Update update : updates) {
+            List<Segment> segments = update.jsonPath.segments();
+            int last = segments.size() - 1;
+            if (update.remove) {
+                update.jsonPath.remove(json);
+            } else {
+                Object node = json;
+                int from = 0;
+                for (int length = last; length > 0; length--) {
+                    Object cached = prefixes.get(update.prefixKey(length));
+                    if (null != cached) {
+                        node = cached;
+                        from = length;
+                        break;
+                    }
+                }
+                for (int i = from; i < last; i++) {
+                    node = update.jsonPath.write(node, i, i + 1, null);
+                    prefixes.put(update.prefixKey(i + 1), segments.subList(0, i + 1), node);
+                }
+                update.jsonPath.write(node, last, last + 1, update.value);
+            }
+            prefixes.invalidate(segments);
+        }
+        updates.clear();
+    }
+
+    private static final class Update {
+
+        private final CompiledJsonPath jsonPath;
+        private final Object value;
+        private final boolean remove;
+        private String[] prefixKeys;
+
+        private Update(CompiledJsonPath jsonPath, Object value, boolean remove) {
+            this.jsonPath = jsonPath;
+            this.value = value;
+            this.remove = remove;
+        }
+
+        /**
+         * @return key of the first length segments, null if they contain "[]" since it selects a different element each time
+         */
+        private String prefixKey(int length) {
+            if (null == prefixKeys) {
+                List<Segment> segments = jsonPath.segments();
+                prefixKeys = new String[segments.size()];
+                StringBuilder key = new StringBuilder();
+                for (int i = 0; i < segments.size() - 1; i++) {
+                    Segment segment = segments.get(i);
+                    if (segment.kind == Kind.APPEND) {
+                        break;
+                    }
+                    if (segment.kind == Kind.FIELD && key.length() > 0) {
+                        key.append('.');
+                    }
+                    prefixKeys[i + 1] = key.append(segment).toString();
+                }
+            }
+            return prefixKeys[length];
+        }
+    }
+
+    /**
+     * Objects and lists reached by the path prefixes of the updates applied so far.
+     */
+    private static final class PrefixCache {
+
+        private final Map<String, Object> nodes = new HashMap<>();
+        private final Map<String, List<Segment>> prefixes = new HashMap<>();
+
+        private Object get(String key) {
+            return null == key ? null : nodes.get(key);
+        }
+
+        private void put(String key, List<Segment> prefix, Object node) {
+            if (null != key) {
+                nodes.put(key, node);
+                prefixes.put(key, prefix);
+            }
+        }
+
+        /**
+         * Forgets the prefixes the update may have changed: the ones that go through the updated field or list
+         * (any list selector is treated as the same element, since an index and a condition can select the same one),
+         * and the ones with a condition on the updated field name.
+         */
+        private void invalidate(List<Segment> updated) {
+            int parentLength = updated.size() - 1;
+            Segment target = updated.get(parentLength);
+            Iterator<Map.Entry<String, List<Segment>>> iterator = prefixes.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, List<Segment>> entry = iterator.next();
+                List<Segment> prefix = entry.getValue();
+                if ((prefix.size() > parentLength && sameRoute(prefix, updated, parentLength))
+                        || (target.kind == Kind.FIELD && hasCondition(prefix, target.name))) {
+                    nodes.remove(entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+
+        private static boolean sameRoute(List<Segment> prefix, List<Segment> updated, int length) {
+            for (int i = 0; i < length; i++) {
+                Segment segment = prefix.get(i);
+                Segment other = updated.get(i);
+                if ((segment.kind == Kind.FIELD || other.kind == Kind.FIELD)
+                        && (segment.kind != other.kind || !segment.name.equals(other.name))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean hasCondition(List<Segment> prefix, String fieldName) {
+            for (Segment segment : prefix) {
+                for (Predicate predicate : segment.predicates) {
+                    if (predicate.key.equals(fieldName)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Settings shared by all the APIs in this library.
+ * <pre>
+ *     JsonUtilsConfig.setJsonFactory(JsonFactory.builder().enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER).build());
+ *     JsonUtilsConfig.registerModule(new BlackbirdModule());
+ * </pre>
+ * The ObjectMapper, ObjectReaders and ObjectWriters used by the library are created once from the JsonFactory and the
+ * modules, and are shared by all the calls. Setting the factory or registering a module creates new ones, the calls
+ * already running keep the ones they started with. Settings are meant to be changed at startup.
+ */
+public final class JsonUtilsConfig {
+
+    private static volatile FileReadMode fileReadMode = FileReadMode.BUFFERED;
+    private static volatile Mappers mappers = new Mappers(new JsonFactory(), Collections.emptyList());
+    private static volatile JsonResultCache resultCache;
+    private static volatile JsonUtilsMetrics metrics;
+
+    private JsonUtilsConfig() {
+    }
+
+    /**
+     * @return how the File based APIs read the json file when the mode is not passed in
+     */
+    public static FileReadMode getFileReadMode() {
+        return fileReadMode;
+    }
+
+    /**
+     * @param fileReadMode how the File based APIs read the json file when the mode is not passed in
+     */
+    public static void setFileReadMode(FileReadMode fileReadMode) {
+        if (null == fileReadMode) {
+            throw new JsonUtilsException("Not a valid input, File read mode is a mandatory field.");
+        }
+        JsonUtilsConfig.fileReadMode = fileReadMode;
+    }
+
+    /**
+     * @return factory of the parsers and generators, a copy of the one that was set
+     */
+    public static JsonFactory getJsonFactory() {
+        return mappers.objectMapper.getFactory();
+    }
+
+    /**
+     * @param jsonFactory factory of the parsers and generators, like a factory with USE_FAST_DOUBLE_PARSER enabled or a
+     *                    custom buffer recycler pool. The factory is copied, the one passed in is not changed.
+     */
+    public static synchronized void setJsonFactory(JsonFactory jsonFactory) {
+        if (null == jsonFactory) {
+            throw new JsonUtilsException("Not a valid input, Json factory is a mandatory field.");
+        }
+        mappers = new Mappers(jsonFactory, mappers.modules);
+    }
+
+    /**
+     * @param module Jackson module registered to the shared ObjectMappers, like the Afterburner or Blackbird module
+     *               that speeds up the conversion of custom java models
+     */
+    public static synchronized void registerModule(Module module) {
+        if (null == module) {
+            throw new JsonUtilsException("Not a valid input, module is a mandatory field.");
+        }
+        List<Module> modules = new ArrayList<>(mappers.modules);
+        modules.add(module);
+        mappers = new Mappers(mappers.jsonFactory, modules);
+    }
+
+    /**
+     * Goes back to the default JsonFactory, without modules.
+     */
+    public static synchronized void resetMappers() {
+        mappers = new Mappers(new JsonFactory(), Collections.emptyList());
+    }
+
+    /**
+     * @return cache of the results of the String based APIs, null when the results are not cached (the default)
+     */
+    public static JsonResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * @param resultCache cache of the results of the String based APIs, see {@link JsonResultCache}, null to stop caching
+     */
+    public static void setResultCache(JsonResultCache resultCache) {
+        JsonUtilsConfig.resultCache = resultCache;
+    }
+
+    /**
+     * @return listener of the operations, null when nothing is measured (the default)
+     */
+    public static JsonUtilsMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics listener of the operations, see {@link JsonUtilsMetrics}, null to stop measuring
+     */
+    public static void setMetrics(JsonUtilsMetrics metrics) {
+        JsonUtilsConfig.metrics = metrics;
+    }
+
+    /**
+     * @return reader of a json into Maps, Lists and values
+     */
+    public static ObjectReader getReader() {
+        return mappers.reader;
+    }
+
+    /**
+     * @return writer of compact json
+     */
+    public static ObjectWriter getWriter() {
+        return mappers.writer;
+    }
+
+    /**
+     * @return writer of json with the default pretty printer
+     */
+    public static ObjectWriter getPrettyWriter() {
+        return mappers.prettyWriter;
+    }
+
+    static Mappers mappers() {
+        return mappers;
+    }
+
+    /**
+     * ObjectMappers, readers and writers created from one factory and one list of modules. Immutable.
+     */
+    static final class Mappers {
+
+        private final JsonFactory jsonFactory;
+        private final List<Module> modules;
+
+        final ObjectMapper objectMapper;
+
+        /**
+         * Null fields are left out of custom java models, the same way MapCreator converts them.
+         */
+        final ObjectMapper javaModelMapper;
+
+        /**
+         * Mappers of the binary formats, the JsonFactory setting only applies to json text.
+         */
+        private final ObjectMapper smileMapper;
+        private final ObjectMapper cborMapper;
+
+        final ObjectReader reader;
+        final ObjectReader mapReader;
+        final ObjectWriter writer;
+        final ObjectWriter prettyWriter;
+
+        private Mappers(JsonFactory jsonFactory, List<Module> modules) {
+            this.jsonFactory = jsonFactory;
+            this.modules = Collections.unmodifiableList(new ArrayList<>(modules));
+            objectMapper = new ObjectMapper(jsonFactory.copy());
+            javaModelMapper = new ObjectMapper(jsonFactory.copy()).setSerializationInclusion(JsonInclude.Include.NON_NULL);
+            smileMapper = new ObjectMapper(new SmileFactory());
+            cborMapper = new ObjectMapper(new CBORFactory());
+            for (Module module : modules) {
+                objectMapper.registerModule(module);
+                javaModelMapper.registerModule(module);
+                smileMapper.registerModule(module);
+                cborMapper.registerModule(module);
+            }
+            reader = objectMapper.readerFor(Object.class);
+            mapReader = objectMapper.readerFor(LinkedHashMap.class);
+            writer = objectMapper.writer();
+            prettyWriter = objectMapper.writerWithDefaultPrettyPrinter();
+        }
+
+        JsonFactory factoryOf(DataFormat format) {
+            switch (format) {
+                case SMILE:
+                    return smileMapper.getFactory();
+                case CBOR:
+                    return cborMapper.getFactory();
+                default:
+                    return objectMapper.getFactory();
+            }
+        }
+    }
+}
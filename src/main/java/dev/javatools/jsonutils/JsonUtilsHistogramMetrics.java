@@ -0,0 +1,312 @@
+package dev.javatools.jsonutils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link JsonUtilsMetrics} that keeps histograms of every operation in memory.
+ * <pre>
+ *     JsonUtilsHistogramMetrics metrics = new JsonUtilsHistogramMetrics();
+ *     JsonUtilsConfig.setMetrics(metrics);
+ *     ...
+ *     JsonUtilsHistogramMetrics.OperationMetrics sort = metrics.getOperation("sort");
+ *     long p99 = sort.getLatency().getValueAtPercentile(99);
+ *     JsonOperationStats slowest = sort.getSlowest();
+ *     System.out.println(metrics.dump());
+ * </pre>
+ * The histograms keep counts in buckets of values with the same 6 most significant bits, the way HdrHistogram does:
+ * a percentile is at most 1/32 (about 3%) above the real value. Recording a value is a few
+ * atomic increments, there are no locks. This class is thread safe.
+ */
+public final class JsonUtilsHistogramMetrics implements JsonUtilsMetrics {
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final boolean countNodes;
+
+    /**
+     * Metrics without the node count and the depth of the json.
+     */
+    public JsonUtilsHistogramMetrics() {
+        this(false);
+    }
+
+    /**
+     * @param countNodes true to also keep histograms of the node count and the depth, see {@link #countNodes()}
+     */
+    public JsonUtilsHistogramMetrics(boolean countNodes) {
+        this.countNodes = countNodes;
+    }
+
+    @Override
+    public void record(JsonOperationStats stats) {
+        operationMetrics(stats.getOperation()).record(stats);
+    }
+
+    @Override
+    public boolean countNodes() {
+        return countNodes;
+    }
+
+    @Override
+    public void failed(String operation, Throwable error) {
+        operationMetrics(operation).errors.increment();
+    }
+
+    /**
+     * @return names of the operations that were recorded
+     */
+    public Set<String> getOperations() {
+        return Collections.unmodifiableSet(new TreeSet<>(operations.keySet()));
+    }
+
+    /**
+     * @param operation name of the operation, like sort
+     * @return metrics of the operation, null if it was not recorded
+     */
+    public OperationMetrics getOperation(String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * Forgets all the recorded operations.
+     */
+    public void reset() {
+        operations.clear();
+    }
+
+    /**
+     * @return one line per operation with the count, the errors, the latency percentiles in microseconds,
+     * the input size percentiles and the slowest operation
+     */
+    public String dump() {
+        StringBuilder dump = new StringBuilder();
+        for (String operation : getOperations()) {
+            OperationMetrics metrics = operations.get(operation);
+            Histogram latency = metrics.getLatency();
+            Histogram bytesIn = metrics.getBytesIn();
+            dump.append(operation)
+                    .append(" count=").append(latency.getCount())
+                    .append(" errors=").append(metrics.getErrorCount())
+                    .append(" latencyUs[p50=").append(latency.getValueAtPercentile(50) / 1000)
+                    .append(" p90=").append(latency.getValueAtPercentile(90) / 1000)
+                    .append(" p99=").append(latency.getValueAtPercentile(99) / 1000)
+                    .append(" max=").append(latency.getMax() / 1000)
+                    .append("] bytesIn[p50=").append(bytesIn.getValueAtPercentile(50))
+                    .append(" p99=").append(bytesIn.getValueAtPercentile(99))
+                    .append(" max=").append(bytesIn.getMax())
+                    .append("] slowest[").append(metrics.getSlowest()).append("]\n");
+        }
+        return dump.toString();
+    }
+
+    private OperationMetrics operationMetrics(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        return null == metrics ? operations.computeIfAbsent(operation, name -> new OperationMetrics()) : metrics;
+    }
+
+    /**
+     * Histograms of one operation. The times are in nanoseconds.
+     */
+    public static final class OperationMetrics {
+
+        private final Histogram latency = new Histogram();
+        private final Histogram parseTime = new Histogram();
+        private final Histogram transformTime = new Histogram();
+        private final Histogram serializeTime = new Histogram();
+        private final Histogram bytesIn = new Histogram();
+        private final Histogram bytesOut = new Histogram();
+        private final Histogram nodeCount = new Histogram();
+        private final Histogram maxDepth = new Histogram();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicReference<JsonOperationStats> slowest = new AtomicReference<>();
+
+        private OperationMetrics() {
+        }
+
+        private void record(JsonOperationStats stats) {
+            latency.record(stats.getTotalNanos());
+            parseTime.record(stats.getParseNanos());
+            transformTime.record(stats.getTransformNanos());
+            serializeTime.record(stats.getSerializeNanos());
+            bytesIn.record(stats.getBytesIn());
+            bytesOut.record(stats.getBytesOut());
+            nodeCount.record(stats.getNodeCount());
+            maxDepth.record(stats.getMaxDepth());
+            JsonOperationStats current = slowest.get();
+            while ((null == current || current.getTotalNanos() < stats.getTotalNanos()) && !slowest.compareAndSet(current, stats)) {
+                current = slowest.get();
+            }
+        }
+
+        /**
+         * @return times of the whole operations
+         */
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return times spent reading the json
+         */
+        public Histogram getParseTime() {
+            return parseTime;
+        }
+
+        /**
+         * @return times spent sorting or flattening
+         */
+        public Histogram getTransformTime() {
+            return transformTime;
+        }
+
+        /**
+         * @return times spent writing the results
+         */
+        public Histogram getSerializeTime() {
+            return serializeTime;
+        }
+
+        /**
+         * @return sizes of the inputs, the operations with an unknown size are not counted
+         */
+        public Histogram getBytesIn() {
+            return bytesIn;
+        }
+
+        /**
+         * @return sizes of the written json, the operations that don't write a json are not counted
+         */
+        public Histogram getBytesOut() {
+            return bytesOut;
+        }
+
+        /**
+         * @return numbers of objects, lists and values of the json, empty unless the nodes are counted
+         */
+        public Histogram getNodeCount() {
+            return nodeCount;
+        }
+
+        /**
+         * @return deepest nesting of objects and lists of the json, empty unless the nodes are counted
+         */
+        public Histogram getMaxDepth() {
+            return maxDepth;
+        }
+
+        /**
+         * @return number of operations that threw an exception
+         */
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        /**
+         * @return the operation that took the longest, with its sizes and node count
+         */
+        public JsonOperationStats getSlowest() {
+            return slowest.get();
+        }
+    }
+
+    /**
+     * Counts of non negative values, in buckets of values with the same 6 most significant bits.
+     */
+    public static final class Histogram {
+
+        private static final int SIGNIFICANT_BITS = 6;
+        private static final int SUB_BUCKETS = 1 << SIGNIFICANT_BITS;
+        private static final int HALF = SUB_BUCKETS / 2;
+
+        private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKETS + (64 - SIGNIFICANT_BITS) * HALF);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Histogram() {
+        }
+
+        /**
+         * @param value the value, negative values are not counted
+         */
+        void record(long value) {
+            if (value < 0) {
+                return;
+            }
+            counts.incrementAndGet(indexOf(value));
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        /**
+         * @return number of values recorded
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * @return highest value recorded, 0 when nothing was recorded
+         */
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * @return average of the values recorded, 0 when nothing was recorded
+         */
+        public double getMean() {
+            long values = count.sum();
+            return values == 0 ? 0 : (double) sum.sum() / values;
+        }
+
+        /**
+         * @param percentile between 0 and 100, like 99 or 99.9
+         * @return highest value of the bucket that holds the percentile (at most the max), 0 when nothing was recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length() && total > 0; i++) {
+                seen += counts.get(i);
+                if (seen >= target) {
+                    return Math.min(highestValueOf(i), getMax());
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Values below SUB_BUCKETS have their own bucket. Above, the bucket is given by the position of the highest
+         * bit (shift) and the next bits, HALF buckets per power of 2.
+         */
+        static int indexOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = 64 - Long.numberOfLeadingZeros(value) - SIGNIFICANT_BITS;
+            return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+        }
+
+        static long highestValueOf(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int shift = (index - SUB_BUCKETS) / HALF + 1;
+            long top = (index - SUB_BUCKETS) % HALF + HALF;
+            return ((top + 1) << shift) - 1;
+        }
+    }
+}
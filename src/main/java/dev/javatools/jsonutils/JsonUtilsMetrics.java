@@ -0,0 +1,40 @@
+package dev.javatools.jsonutils;
+
+/**
+ * Listener of the operations of the library, set with JsonUtilsConfig.setMetrics.
+ * <pre>
+ *     JsonUtilsHistogramMetrics metrics = new JsonUtilsHistogramMetrics();
+ *     JsonUtilsConfig.setMetrics(metrics);
+ *     ...
+ *     long p99 = metrics.getOperation("sort").getLatency().getValueAtPercentile(99);
+ * </pre>
+ * The operations on a whole json are measured: sort, getAllPaths, getAllUniquePaths, getAllProperties and toJson,
+ * both the Map based ones and the sort APIs that write to an OutputStream. The parse time of a json is reported with
+ * the first operation on it. Reads and updates of a single path are not measured.
+ * <p>
+ * When no listener is set (the default) nothing is measured and nothing is created. The listener is called on the
+ * thread that ran the operation, it must be thread safe and fast.
+ */
+public interface JsonUtilsMetrics {
+
+    /**
+     * @param stats times, sizes and node counts of one operation that completed
+     */
+    void record(JsonOperationStats stats);
+
+    /**
+     * Counting the nodes walks the whole json again after every operation, so it is off by default.
+     *
+     * @return true to count the nodes and the depth of the json of every operation, see {@link JsonOperationStats}
+     */
+    default boolean countNodes() {
+        return false;
+    }
+
+    /**
+     * @param operation name of the operation, parse when the json could not be read
+     * @param error     exception thrown by the operation
+     */
+    default void failed(String operation, Throwable error) {
+    }
+}
@@ -0,0 +1,518 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import dev.javatools.jsonutils.CompiledJsonPath.Segment;
+import dev.javatools.jsonutils.SortedJsonWriter.SortedArray;
+import dev.javatools.jsonutils.SortedJsonWriter.SortedObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * A Json that is kept sorted and flattened while it is updated.
+ * <pre>
+ *     JsonWorkspace workspace = JsonWorkspace.of(jsonFile, listKeys);
+ *     workspace.set("age", 26).remove("friends[{name=Art Venere}].dateOfBirth");
+ *     List&lt;JsonDifference&gt; changes = workspace.commit();
+ *     workspace.writeTo(outputStream);
+ * </pre>
+ * See {@link JsonProperty} for the path format, set and remove work like the ones of {@link JsonUpdate}.
+ * <p>
+ * The sorted tree of every object and list of the Json is remembered. An update forgets the sorted trees of the
+ * objects and lists its path goes through, so only they (and the new values) are sorted again, the other subtrees
+ * are reused as they are. The properties are updated from the differences between the old and the new sorted tree,
+ * the subtrees that were reused are skipped, so only the properties of the updated subtrees (and of the list
+ * elements that moved in the sorted order) are compared.
+ * <p>
+ * The compact canonical json of the subtrees up to {@value #CHUNK_WEIGHT} nodes is also remembered, writing the Json
+ * again only sorts the updated subtrees and copies the json of the others.
+ * This class is not thread safe.
+ */
+public final class JsonWorkspace {
+
+    /**
+     * Subtrees up to this number of nodes keep their compact json.
+     */
+    static final long CHUNK_WEIGHT = 1 << 14;
+
+    private final Map json;
+    private final Map<String, String> listKeys;
+
+    /**
+     * Sorted tree of the objects and lists of the Json, by identity.
+     */
+    private final Map<Object, Object> sortedNodes = new IdentityHashMap<>();
+
+    /**
+     * Compact json of the sorted subtrees, equal subtrees have the same json.
+     */
+    private final Map<Object, String> chunks = new WeakHashMap<>();
+
+    private final TreeMap<String, Object> properties;
+    private Object tree;
+    private Object committedTree;
+    private boolean stale;
+
+    /**
+     * Sorted trees created since the objects and lists that are no longer in the Json were last forgotten.
+     */
+    private long created;
+
+    private JsonWorkspace(Map json, Map<String, String> listKeys) {
+        this.json = json;
+        this.listKeys = null == listKeys ? Collections.emptyMap() : listKeys;
+        tree = sorted(json, "");
+        committedTree = tree;
+        created = 0;
+        properties = new TreeMap<>(SortedTree.properties(tree));
+    }
+
+    public static JsonWorkspace of(String jsonString) {
+        return of(jsonString, Collections.emptyMap());
+    }
+
+    /**
+     * @param listKeys field the elements of each list are sorted by, like in {@link JsonSort}
+     */
+    public static JsonWorkspace of(String jsonString, Map<String, String> listKeys) {
+        validate(jsonString);
+        try {
+            return of(JsonInput.parser(jsonString), listKeys);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    public static JsonWorkspace of(File jsonFile) {
+        return of(jsonFile, Collections.emptyMap());
+    }
+
+    /**
+     * @param listKeys field the elements of each list are sorted by, like in {@link JsonSort}
+     */
+    public static JsonWorkspace of(File jsonFile, Map<String, String> listKeys) {
+        validate(jsonFile);
+        try {
+            return of(JsonInput.parser(jsonFile), listKeys);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param jsonStream stream containing the json, the stream is not closed
+     */
+    public static JsonWorkspace of(InputStream jsonStream) {
+        return of(jsonStream, Collections.emptyMap());
+    }
+
+    /**
+     * @param jsonStream stream containing the json, the stream is not closed
+     * @param listKeys   field the elements of each list are sorted by, like in {@link JsonSort}
+     */
+    public static JsonWorkspace of(InputStream jsonStream, Map<String, String> listKeys) {
+        validate(jsonStream);
+        try {
+            return of(JsonInput.parser(jsonStream), listKeys);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    private static JsonWorkspace of(JsonParser parser, Map<String, String> listKeys) throws IOException {
+        try (JsonParser input = parser) {
+            return new JsonWorkspace(JsonUtilsConfig.mappers().mapReader.readValue(input), listKeys);
+        }
+    }
+
+    /**
+     * The value is copied into the Json the way it is written, so later changes to it don't change the workspace.
+     *
+     * @param jsonPath path of the field
+     * @param value    the value that needs to be set
+     * @return this workspace
+     */
+    public JsonWorkspace set(String jsonPath, Object value) {
+        return set(CompiledJsonPath.compile(jsonPath), value);
+    }
+
+    /**
+     * @param jsonPath compiled path of the field
+     * @param value    the value that needs to be set
+     * @return this workspace
+     */
+    public JsonWorkspace set(CompiledJsonPath jsonPath, Object value) {
+        validate(jsonPath);
+        Object copy = copyOf(value);
+        invalidate(jsonPath);
+        jsonPath.write(json, copy);
+        return this;
+    }
+
+    /**
+     * @param jsonPath path of the field or list elements to remove
+     * @return this workspace
+     */
+    public JsonWorkspace remove(String jsonPath) {
+        return remove(CompiledJsonPath.compile(jsonPath));
+    }
+
+    /**
+     * @param jsonPath compiled path of the field or list elements to remove
+     * @return this workspace
+     */
+    public JsonWorkspace remove(CompiledJsonPath jsonPath) {
+        validate(jsonPath);
+        invalidate(jsonPath);
+        jsonPath.remove(json);
+        return this;
+    }
+
+    /**
+     * @return changes of the properties since the last commit (or since the workspace was created), the paths of
+     * REMOVED and CHANGED refer to the last commit and the paths of ADDED to the current Json
+     */
+    public List<JsonDifference> commit() {
+        refresh();
+        List<JsonDifference> differences = new ArrayList<>();
+        compare(committedTree, tree, new StringBuilder(), differences);
+        committedTree = tree;
+        return differences;
+    }
+
+    /**
+     * @return properties of the current Json, the lists are numbered in the order of the sorted Json.
+     * The Map is read only and is updated by the next calls.
+     */
+    public Map<String, Object> getAllProperties() {
+        refresh();
+        return Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * @return the current Json sorted and pretty printed, the same as JsonSort.sort
+     */
+    public String sort() {
+        refresh();
+        Writer output = new StringWriter();
+        try (JsonGenerator generator = JsonInput.objectMapper().getFactory().createGenerator(output)) {
+            generator.useDefaultPrettyPrinter();
+            SortedJsonWriter.write(tree, generator);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+        return output.toString();
+    }
+
+    /**
+     * @return the current Json sorted and compact, the same as JsonSort.sort with SortOptions.compact()
+     */
+    public String toJson() {
+        refresh();
+        Writer output = new StringWriter();
+        try (JsonGenerator generator = JsonInput.objectMapper().getFactory().createGenerator(output)) {
+            write(tree, generator);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes the current Json sorted and compact, the same as JsonSort.sort with SortOptions.compact().
+     *
+     * @param output stream to write the Json to, the stream is not closed
+     */
+    public void writeTo(OutputStream output) {
+        if (null == output) {
+            throw new JsonUtilsException("Not a valid input, Output stream is a mandatory field.");
+        }
+        refresh();
+        try (JsonGenerator generator = JsonInput.objectMapper().getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            write(tree, generator);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Serializes the value and reads it back, so it has the same Maps, Lists and number types as a parsed json.
+     */
+    private static Object copyOf(Object value) {
+        if (null == value || value instanceof String || value instanceof Boolean) {
+            return value;
+        }
+        try (JsonParser parser = JsonInput.objectMapper().getFactory().createParser(JsonUtilsConfig.getWriter().writeValueAsBytes(value))) {
+            return JsonInput.readValue(parser);
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * Forgets the sorted trees of the objects and lists the path goes through, they are the ones the update can
+     * change. Every element matching a condition is forgotten, not only the one the update picks.
+     */
+    private void invalidate(CompiledJsonPath jsonPath) {
+        stale = true;
+        List<Object> nodes = Collections.singletonList(json);
+        for (Segment segment : jsonPath.segments()) {
+            List<Object> next = new ArrayList<>();
+            for (Object node : nodes) {
+                sortedNodes.remove(node);
+                switch (segment.kind) {
+                    case FIELD:
+                        if (node instanceof Map) {
+                            next.add(((Map) node).get(segment.name));
+                        }
+                        break;
+                    case INDEX:
+                        if (node instanceof List && segment.index < ((List) node).size()) {
+                            next.add(((List) node).get(segment.index));
+                        }
+                        break;
+                    case MATCH:
+                        if (node instanceof List) {
+                            for (Object element : (List) node) {
+                                if (segment.matches(element)) {
+                                    next.add(element);
+                                }
+                            }
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            next.removeIf(node -> !(node instanceof Map) && !(node instanceof List));
+            if (next.isEmpty()) {
+                return;
+            }
+            nodes = next;
+        }
+    }
+
+    /**
+     * Sorts the objects and lists that were updated and updates the properties from the differences.
+     */
+    private void refresh() {
+        if (!stale) {
+            return;
+        }
+        Object updated = sorted(json, "");
+        List<JsonDifference> differences = new ArrayList<>();
+        compare(tree, updated, new StringBuilder(), differences);
+        for (JsonDifference difference : differences) {
+            if (difference.getType() == JsonDifference.Type.REMOVED) {
+                properties.remove(difference.getPath());
+            } else {
+                properties.put(difference.getPath(), difference.getRightValue());
+            }
+        }
+        tree = updated;
+        stale = false;
+        if (created > sortedNodes.size() / 2) {
+            sweep();
+        }
+    }
+
+    /**
+     * @param path unique path of the node, like friends[].name, only built when there are list keys
+     * @return sorted tree of the node, the remembered one when the node was not updated
+     */
+    private Object sorted(Object node, String path) {
+        if (!(node instanceof Map) && !(node instanceof List)) {
+            return node;
+        }
+        Object sorted = sortedNodes.get(node);
+        if (null != sorted) {
+            return sorted;
+        }
+        if (node instanceof Map) {
+            Map<?, ?> fields = (Map<?, ?>) node;
+            String[] keys = new String[fields.size()];
+            int position = 0;
+            for (Object key : fields.keySet()) {
+                keys[position++] = String.valueOf(key);
+            }
+            Arrays.sort(keys);
+            Object[] values = new Object[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                String childPath = listKeys.isEmpty() ? path : path.isEmpty() ? keys[i] : path + "." + keys[i];
+                values[i] = sorted(fields.get(keys[i]), childPath);
+            }
+            sorted = SortedJsonWriter.sortedObject(keys, values);
+        } else {
+            List<?> list = (List<?>) node;
+            String listPath = path + "[]";
+            Object[] elements = new Object[list.size()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = sorted(list.get(i), listPath);
+            }
+            sorted = SortedJsonWriter.sortedArray(elements, listKeys.get(listPath));
+        }
+        sortedNodes.put(node, sorted);
+        created++;
+        return sorted;
+    }
+
+    /**
+     * Forgets the sorted trees of the objects and lists that are no longer in the Json.
+     */
+    private void sweep() {
+        Map<Object, Object> reachable = new IdentityHashMap<>();
+        collect(json, reachable);
+        sortedNodes.keySet().retainAll(reachable.keySet());
+        created = 0;
+    }
+
+    private void collect(Object node, Map<Object, Object> reachable) {
+        if (node instanceof Map) {
+            reachable.put(node, node);
+            for (Object value : ((Map<?, ?>) node).values()) {
+                collect(value, reachable);
+            }
+        } else if (node instanceof List) {
+            reachable.put(node, node);
+            for (Object element : (List<?>) node) {
+                collect(element, reachable);
+            }
+        }
+    }
+
+    /**
+     * Compares the properties of two sorted trees, a subtree that is in the same position of both is skipped.
+     */
+    private static void compare(Object left, Object right, StringBuilder path, List<JsonDifference> differences) {
+        if (left == right) {
+            return;
+        }
+        int length = path.length();
+        if (left instanceof SortedObject && right instanceof SortedObject) {
+            Map<?, ?> leftFields = (Map<?, ?>) left;
+            Map<?, ?> rightFields = (Map<?, ?>) right;
+            for (Map.Entry<?, ?> field : leftFields.entrySet()) {
+                compare(field.getValue(), rightFields.get(field.getKey()), appendField(path, field.getKey()), differences);
+                path.setLength(length);
+            }
+            for (Map.Entry<?, ?> field : rightFields.entrySet()) {
+                if (!leftFields.containsKey(field.getKey())) {
+                    compare(null, field.getValue(), appendField(path, field.getKey()), differences);
+                    path.setLength(length);
+                }
+            }
+        } else if (left instanceof SortedArray && right instanceof SortedArray) {
+            List<?> leftElements = (List<?>) left;
+            List<?> rightElements = (List<?>) right;
+            for (int i = 0; i < Math.max(leftElements.size(), rightElements.size()); i++) {
+                compare(i < leftElements.size() ? leftElements.get(i) : null, i < rightElements.size() ? rightElements.get(i) : null,
+                        path.append('[').append(i).append(']'), differences);
+                path.setLength(length);
+            }
+        } else if (isContainer(left) || isContainer(right)) {
+            walk(left, path, JsonDifference.Type.REMOVED, differences);
+            walk(right, path, JsonDifference.Type.ADDED, differences);
+        } else if (null == left) {
+            differences.add(new JsonDifference(JsonDifference.Type.ADDED, path.toString(), null, right, null));
+        } else if (null == right) {
+            differences.add(new JsonDifference(JsonDifference.Type.REMOVED, path.toString(), left, null, null));
+        } else if (!left.equals(right)) {
+            differences.add(new JsonDifference(JsonDifference.Type.CHANGED, path.toString(), left, right, null));
+        }
+    }
+
+    /**
+     * Reports every property of the subtree as removed or added.
+     */
+    private static void walk(Object node, StringBuilder path, JsonDifference.Type type, List<JsonDifference> differences) {
+        int length = path.length();
+        if (node instanceof Map) {
+            for (Map.Entry<?, ?> field : ((Map<?, ?>) node).entrySet()) {
+                walk(field.getValue(), appendField(path, field.getKey()), type, differences);
+                path.setLength(length);
+            }
+        } else if (node instanceof List) {
+            List<?> elements = (List<?>) node;
+            for (int i = 0; i < elements.size(); i++) {
+                walk(elements.get(i), path.append('[').append(i).append(']'), type, differences);
+                path.setLength(length);
+            }
+        } else if (null != node) {
+            boolean removed = type == JsonDifference.Type.REMOVED;
+            differences.add(new JsonDifference(type, path.toString(), removed ? node : null, removed ? null : node, null));
+        }
+    }
+
+    private static StringBuilder appendField(StringBuilder path, Object name) {
+        return (path.length() > 0 ? path.append('.') : path).append(name);
+    }
+
+    private static boolean isContainer(Object node) {
+        return node instanceof Map || node instanceof List;
+    }
+
+    /**
+     * Writes the sorted tree, the subtrees up to CHUNK_WEIGHT nodes are written from their remembered json.
+     */
+    private void write(Object node, JsonGenerator generator) throws IOException {
+        long weight = SortedJsonWriter.weightOf(node);
+        if (weight > 1 && weight <= CHUNK_WEIGHT) {
+            generator.writeRawValue(chunkOf(node));
+        } else if (node instanceof SortedObject) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Object> field : ((SortedObject) node).entrySet()) {
+                generator.writeFieldName(field.getKey());
+                write(field.getValue(), generator);
+            }
+            generator.writeEndObject();
+        } else if (node instanceof SortedArray) {
+            generator.writeStartArray();
+            for (Object element : (SortedArray) node) {
+                write(element, generator);
+            }
+            generator.writeEndArray();
+        } else {
+            SortedJsonWriter.write(node, generator);
+        }
+    }
+
+    private String chunkOf(Object node) throws IOException {
+        String chunk = chunks.get(node);
+        if (null == chunk) {
+            Writer output = new StringWriter();
+            try (JsonGenerator generator = JsonInput.objectMapper().getFactory().createGenerator(output)) {
+                SortedJsonWriter.write(node, generator);
+            }
+            chunk = output.toString();
+            chunks.put(node, chunk);
+        }
+        return chunk;
+    }
+
+    private static void validate(Object input) {
+        if (null == input) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+    }
+
+    private static void validate(CompiledJsonPath jsonPath) {
+        if (null == jsonPath) {
+            throw new JsonUtilsException("Not a valid input, Json Path is a mandatory field.");
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package dev.javatools.jsonutils;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Map/List structure of a json that only parses the objects and lists that are reached.
+ * <pre>
+ * A first pass over the bytes records the start and end offset of every object and list (in the order they start)
+ * and the first object or list after each of them, three ints per object or list. Nothing else is created.
+ *
+ * The root is a Map whose fields are read the first time it is used. An object or a list in a field is not read
+ * then: it becomes a Map or List that knows its offsets, and the reader jumps to the byte after its end. So reading
+ * one path only reads the fields of the objects and lists along the path, the branches next to it are not parsed.
+ * </pre>
+ * The values are the ones the eager parse gives (Integer, Long, BigInteger, Double, String, Boolean, null), and the
+ * Maps and Lists can be updated once read. The first pass only checks that the brackets and the Strings are closed,
+ * a syntax error inside a branch is reported when the branch is read. Not thread safe, like {@link JsonDocument}.
+ */
+final class LazyJsonTree {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final byte[] json;
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int[] nexts = new int[INITIAL_CAPACITY];
+    private int count;
+    private int readCount;
+
+    private LazyJsonTree(byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     * @param json json text in UTF-8, not copied, it must not be changed while the tree is used
+     * @return the root object, none of its fields are read yet
+     */
+    static Map<String, Object> of(byte[] json) {
+        if (null == json) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        LazyJsonTree tree = new LazyJsonTree(json);
+        tree.index();
+        return tree.new LazyObject(0);
+    }
+
+    /**
+     * @return number of objects and lists in the json
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * @return number of objects and lists whose fields or elements have been read
+     */
+    int readCount() {
+        return readCount;
+    }
+
+    /**
+     * @return the tree of a Map or List returned by {@link #of(byte[])}, null for any other value
+     */
+    static LazyJsonTree treeOf(Object node) {
+        if (node instanceof LazyJsonTree.LazyObject) {
+            return ((LazyObject) node).tree();
+        }
+        return node instanceof LazyJsonTree.LazyList ? ((LazyList) node).tree() : null;
+    }
+
+    private void index() {
+        int[] open = new int[INITIAL_CAPACITY];
+        int depth = 0;
+        int position = skipWhitespace(skipByteOrderMark(0));
+        if (position >= json.length || json[position] != '{') {
+            throw new JsonUtilsException("Not a valid input, the Json is not an object.");
+        }
+        for (; position < json.length; position++) {
+            byte b = json[position];
+            if (b == '"') {
+                position = endOfString(position);
+            } else if (b == '{' || b == '[') {
+                if (depth == 0 && count > 0) {
+                    throw invalid(position);
+                }
+                if (count == starts.length) {
+                    int capacity = count * 2;
+                    starts = Arrays.copyOf(starts, capacity);
+                    ends = Arrays.copyOf(ends, capacity);
+                    nexts = Arrays.copyOf(nexts, capacity);
+                }
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth * 2);
+                }
+                starts[count] = position;
+                open[depth++] = count++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    throw invalid(position);
+                }
+                int id = open[--depth];
+                if (json[starts[id]] != (b == '}' ? '{' : '[')) {
+                    throw invalid(position);
+                }
+                ends[id] = position;
+                nexts[id] = count;
+            } else if (depth == 0 && !isWhitespace(b)) {
+                throw invalid(position);
+            }
+        }
+        if (depth > 0) {
+            throw new JsonUtilsException("Not a valid Json, unexpected end of the input.");
+        }
+    }
+
+    private Map<String, Object> readObject(int id) {
+        readCount++;
+        Map<String, Object> members = new LinkedHashMap<>();
+        Cursor cursor = new Cursor(skipWhitespace(starts[id] + 1), id + 1);
+        if (json[cursor.position] == '}') {
+            return members;
+        }
+        while (true) {
+            if (json[cursor.position] != '"') {
+                throw invalid(cursor.position);
+            }
+            String name = readString(cursor);
+            cursor.position = skipWhitespace(cursor.position);
+            if (json[cursor.position] != ':') {
+                throw invalid(cursor.position);
+            }
+            cursor.position = skipWhitespace(cursor.position + 1);
+            members.put(name, readValue(cursor));
+            if (separator(cursor, '}')) {
+                return members;
+            }
+        }
+    }
+
+    private List<Object> readList(int id) {
+        readCount++;
+        List<Object> elements = new ArrayList<>();
+        Cursor cursor = new Cursor(skipWhitespace(starts[id] + 1), id + 1);
+        if (json[cursor.position] == ']') {
+            return elements;
+        }
+        while (true) {
+            elements.add(readValue(cursor));
+            if (separator(cursor, ']')) {
+                return elements;
+            }
+        }
+    }
+
+    /**
+     * @return true at the end of the object or list, false after a comma
+     */
+    private boolean separator(Cursor cursor, char end) {
+        cursor.position = skipWhitespace(cursor.position);
+        byte b = json[cursor.position];
+        if (b == end) {
+            return true;
+        }
+        if (b != ',') {
+            throw invalid(cursor.position);
+        }
+        cursor.position = skipWhitespace(cursor.position + 1);
+        return false;
+    }
+
+    /**
+     * Objects and lists are skipped, the cursor moves to the byte after their end.
+     */
+    private Object readValue(Cursor cursor) {
+        int position = cursor.position;
+        switch (json[position]) {
+            case '{':
+            case '[':
+                int id = cursor.child;
+                if (id >= count || starts[id] != position) {
+                    throw invalid(position);
+                }
+                cursor.position = ends[id] + 1;
+                cursor.child = nexts[id];
+                return json[position] == '{' ? new LazyObject(id) : new LazyList(id);
+            case '"':
+                return readString(cursor);
+            case 't':
+                return literal(cursor, "true", Boolean.TRUE);
+            case 'f':
+                return literal(cursor, "false", Boolean.FALSE);
+            case 'n':
+                return literal(cursor, "null", null);
+            default:
+                return readNumber(cursor);
+        }
+    }
+
+    private Object literal(Cursor cursor, String literal, Object value) {
+        int position = cursor.position;
+        for (int i = 0; i < literal.length(); i++) {
+            if (position + i >= json.length || json[position + i] != literal.charAt(i)) {
+                throw invalid(position);
+            }
+        }
+        cursor.position = position + literal.length();
+        return value;
+    }
+
+    /**
+     * Integers are Integer, Long or BigInteger depending on their size, the other numbers are Double.
+     */
+    private Object readNumber(Cursor cursor) {
+        int start = cursor.position;
+        int position = start;
+        if (position < json.length && json[position] == '-') {
+            position++;
+        }
+        int digits = position;
+        while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+            position++;
+        }
+        if (position == digits || (json[digits] == '0' && position - digits > 1)) {
+            throw invalid(start);
+        }
+        boolean integer = true;
+        if (position < json.length && json[position] == '.') {
+            integer = false;
+            int fraction = ++position;
+            while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+                position++;
+            }
+            if (position == fraction) {
+                throw invalid(start);
+            }
+        }
+        if (position < json.length && (json[position] == 'e' || json[position] == 'E')) {
+            integer = false;
+            position++;
+            if (position < json.length && (json[position] == '+' || json[position] == '-')) {
+                position++;
+            }
+            int exponent = position;
+            while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+                position++;
+            }
+            if (position == exponent) {
+                throw invalid(start);
+            }
+        }
+        cursor.position = position;
+        String number = new String(json, start, position - start, StandardCharsets.US_ASCII);
+        if (!integer) {
+            return Double.parseDouble(number);
+        }
+        if (position - digits <= 9) {
+            return Integer.parseInt(number);
+        }
+        if (position - digits <= 18) {
+            long value = Long.parseLong(number);
+            return value == (int) value ? (Object) (int) value : (Object) value;
+        }
+        BigInteger value = new BigInteger(number);
+        return value.bitLength() < 64 ? (Object) value.longValue() : (Object) value;
+    }
+
+    /**
+     * The bytes without escapes are decoded in one go, the escapes are decoded one by one.
+     */
+    private String readString(Cursor cursor) {
+        int start = cursor.position + 1;
+        int end = endOfString(cursor.position);
+        cursor.position = end + 1;
+        int escape = start;
+        while (escape < end && json[escape] != '\\') {
+            escape++;
+        }
+        if (escape == end) {
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        int run = start;
+        for (int position = escape; position < end; position++) {
+            if (json[position] != '\\') {
+                continue;
+            }
+            builder.append(new String(json, run, position - run, StandardCharsets.UTF_8));
+            char escaped = (char) json[++position];
+            switch (escaped) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 >= end) {
+                        throw invalid(position);
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(new String(json, position + 1, 4, StandardCharsets.US_ASCII), 16));
+                    } catch (NumberFormatException numberFormatException) {
+                        throw invalid(position);
+                    }
+                    position += 4;
+                    break;
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append(escaped);
+                    break;
+                default:
+                    throw invalid(position);
+            }
+            run = position + 1;
+        }
+        return builder.append(new String(json, run, end - run, StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * @param quote offset of the opening quote
+     * @return offset of the closing quote
+     */
+    private int endOfString(int quote) {
+        for (int position = quote + 1; position < json.length; position++) {
+            byte b = json[position];
+            if (b == '"') {
+                return position;
+            }
+            if (b == '\\') {
+                position++;
+            }
+        }
+        throw new JsonUtilsException("Not a valid Json, unexpected end of the input.");
+    }
+
+    private int skipByteOrderMark(int position) {
+        return json.length >= 3 && (json[0] & 0xFF) == 0xEF && (json[1] & 0xFF) == 0xBB && (json[2] & 0xFF) == 0xBF ? 3 : position;
+    }
+
+    private int skipWhitespace(int position) {
+        while (position < json.length && isWhitespace(json[position])) {
+            position++;
+        }
+        if (position >= json.length) {
+            throw new JsonUtilsException("Not a valid Json, unexpected end of the input.");
+        }
+        return position;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static JsonUtilsException invalid(int position) {
+        return new JsonUtilsException("Not a valid Json, unexpected character at offset " + position + ".");
+    }
+
+    /**
+     * Position in the object or list being read, and the index of the next object or list in it.
+     */
+    private static final class Cursor {
+
+        private int position;
+        private int child;
+
+        private Cursor(int position, int child) {
+            this.position = position;
+            this.child = child;
+        }
+    }
+
+    /**
+     * Object whose fields are read the first time it is used.
+     */
+    final class LazyObject extends AbstractMap<String, Object> {
+
+        private final int id;
+        private Map<String, Object> members;
+
+        private LazyObject(int id) {
+            this.id = id;
+        }
+
+        private Map<String, Object> members() {
+            if (null == members) {
+                members = readObject(id);
+            }
+            return members;
+        }
+
+        private LazyJsonTree tree() {
+            return LazyJsonTree.this;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return members().entrySet();
+        }
+
+        @Override
+        public int size() {
+            return members().size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return members().containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            return members().get(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return members().put(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return members().remove(key);
+        }
+    }
+
+    /**
+     * List whose elements are read the first time it is used.
+     */
+    final class LazyList extends AbstractList<Object> implements RandomAccess {
+
+        private final int id;
+        private List<Object> elements;
+
+        private LazyList(int id) {
+            this.id = id;
+        }
+
+        private List<Object> elements() {
+            if (null == elements) {
+                elements = readList(id);
+            }
+            return elements;
+        }
+
+        private LazyJsonTree tree() {
+            return LazyJsonTree.this;
+        }
+
+        @Override
+        public Object get(int index) {
+            return elements().get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements().size();
+        }
+
+        @Override
+        public Object set(int index, Object element) {
+            return elements().set(index, element);
+        }
+
+        @Override
+        public void add(int index, Object element) {
+            modCount++;
+            elements().add(index, element);
+        }
+
+        @Override
+        public Object remove(int index) {
+            modCount++;
+            return elements().remove(index);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package dev.javatools.jsonutils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Paths and properties of a sorted tree, stored as a trie instead of one String per path.
+ * <pre>
+ * Every node of the trie is the parent node and the text it adds to the path of the parent (".city", "[0]", "[]"),
+ * stored in two int arrays, the text is negative for the nodes that are paths (leaves). The texts are interned
+ * in one table, so "friends[0].associatedAddresses[0]." is stored once and not once per path, and ".city" is
+ * stored once for the whole Json.
+ *
+ * The paths are built when the Set or Map views are read, the views don't keep them.
+ * The nodes are added in the String order of their paths, the same order as getAllPaths and getAllProperties,
+ * so contains and get are a binary search.
+ * </pre>
+ */
+final class PathTrie {
+
+    private static final int ROOT = -1;
+
+    private final String[] texts;
+    private final int[] parents;
+    private final int[] textOf;
+    private final int leafCount;
+    private final Object[] values;
+
+    private PathTrie(Builder builder) {
+        texts = builder.texts.toArray(new String[0]);
+        parents = Arrays.copyOf(builder.parents, builder.nodes);
+        textOf = Arrays.copyOf(builder.textOf, builder.nodes);
+        leafCount = builder.leafCount;
+        values = null == builder.values ? null : Arrays.copyOf(builder.values, builder.nodes);
+    }
+
+    /**
+     * @param tree   sorted tree, see {@link SortedTree}
+     * @param unique true to write [] instead of the position of the list elements
+     * @return trie of the paths of the tree
+     */
+    static PathTrie paths(Object tree, boolean unique) {
+        Builder builder = new Builder(unique, false);
+        builder.add(Collections.singletonList(tree), ROOT);
+        return new PathTrie(builder);
+    }
+
+    /**
+     * @param tree sorted tree, see {@link SortedTree}
+     * @return trie of the paths of the tree, with the value of each path
+     */
+    static PathTrie properties(Object tree) {
+        Builder builder = new Builder(false, true);
+        builder.add(Collections.singletonList(tree), ROOT);
+        return new PathTrie(builder);
+    }
+
+    /**
+     * @return sorted paths, read only
+     */
+    Set<String> pathSet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new LeafIterator<String>() {
+                    @Override
+                    String get(int leaf) {
+                        return path(leaf);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return leafCount;
+            }
+
+            @Override
+            public boolean contains(Object path) {
+                return path instanceof String && indexOf((String) path) >= 0;
+            }
+        };
+    }
+
+    /**
+     * @return properties sorted by path, read only
+     */
+    Map<String, Object> propertyMap() {
+        Set<Map.Entry<String, Object>> entries = new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new LeafIterator<Map.Entry<String, Object>>() {
+                    @Override
+                    Map.Entry<String, Object> get(int leaf) {
+                        return new AbstractMap.SimpleImmutableEntry<>(path(leaf), values[leaf]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return leafCount;
+            }
+        };
+        return new AbstractMap<String, Object>() {
+            @Override
+            public Set<Entry<String, Object>> entrySet() {
+                return entries;
+            }
+
+            @Override
+            public Object get(Object path) {
+                int leaf = path instanceof String ? indexOf((String) path) : -1;
+                return leaf < 0 ? null : values[leaf];
+            }
+
+            @Override
+            public boolean containsKey(Object path) {
+                return path instanceof String && indexOf((String) path) >= 0;
+            }
+        };
+    }
+
+    /**
+     * @return the leaf with the path, -1 if the path is not in the trie
+     */
+    private int indexOf(String path) {
+        int low = 0;
+        int high = parents.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = path(middle).compareTo(path);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return textOf[middle] < 0 ? middle : -1;
+            }
+        }
+        return -1;
+    }
+
+    private String path(int node) {
+        StringBuilder path = new StringBuilder();
+        append(node, path);
+        return path.toString();
+    }
+
+    private void append(int node, StringBuilder path) {
+        if (node != ROOT) {
+            append(parents[node], path);
+            path.append(texts[textOf[node] < 0 ? ~textOf[node] : textOf[node]]);
+        }
+    }
+
+    private abstract class LeafIterator<T> implements Iterator<T> {
+
+        private int next = nextLeaf(0);
+
+        abstract T get(int leaf);
+
+        @Override
+        public boolean hasNext() {
+            return next < textOf.length;
+        }
+
+        @Override
+        public T next() {
+            if (next >= textOf.length) {
+                throw new NoSuchElementException();
+            }
+            int leaf = next;
+            next = nextLeaf(leaf + 1);
+            return get(leaf);
+        }
+
+        private int nextLeaf(int from) {
+            int node = from;
+            while (node < textOf.length && textOf[node] >= 0) {
+                node++;
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Adds the nodes while walking the tree, the children of each node are added in the String order of their paths.
+     */
+    private static final class Builder {
+
+        private final boolean unique;
+        private final List<String> texts = new ArrayList<>();
+        private final Map<String, Integer> textIds = new HashMap<>();
+        private final boolean withValues;
+        private int[] parents = new int[64];
+        private int[] textOf = new int[64];
+        private Object[] values;
+        private int nodes;
+        private int leafCount;
+
+        private Builder(boolean unique, boolean withValues) {
+            this.unique = unique;
+            this.withValues = withValues;
+            this.values = withValues ? new Object[64] : null;
+        }
+
+        /**
+         * @param group values at the same path, more than one when unique paths merge the elements of a list
+         */
+        private void add(List<Object> group, int node) {
+            Object leafValue = null;
+            Map<String, List<Object>> fields = new LinkedHashMap<>();
+            List<Child> children = new ArrayList<>();
+            List<Object> elements = new ArrayList<>();
+            for (Object value : group) {
+                if (value instanceof Map) {
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                        if (null != entry.getValue()) {
+                            fields.computeIfAbsent(String.valueOf(entry.getKey()), key -> new ArrayList<>(1)).add(entry.getValue());
+                        }
+                    }
+                } else if (value instanceof List) {
+                    List<?> list = (List<?>) value;
+                    for (int i = 0; i < list.size(); i++) {
+                        if (null == list.get(i)) {
+                            continue;
+                        }
+                        if (unique) {
+                            elements.add(list.get(i));
+                        } else {
+                            children.add(new Child("[" + i + "]", Collections.singletonList(list.get(i))));
+                        }
+                    }
+                } else if (null != value && null == leafValue) {
+                    leafValue = value;
+                }
+            }
+            if (null != leafValue) {
+                addLeaf(node == ROOT ? addNode(ROOT, "") : node, leafValue);
+            }
+            for (Map.Entry<String, List<Object>> field : fields.entrySet()) {
+                children.add(new Child(node == ROOT ? field.getKey() : "." + field.getKey(), field.getValue()));
+            }
+            if (!elements.isEmpty()) {
+                children.add(new Child("[]", elements));
+            }
+            children.sort((first, second) -> first.sortKey.compareTo(second.sortKey));
+            for (Child child : children) {
+                add(child.group, addNode(node, child.text));
+            }
+        }
+
+        private int addNode(int parent, String text) {
+            if (nodes == parents.length) {
+                parents = Arrays.copyOf(parents, nodes * 2);
+                textOf = Arrays.copyOf(textOf, nodes * 2);
+                if (withValues) {
+                    values = Arrays.copyOf(values, nodes * 2);
+                }
+            }
+            Integer textId = textIds.get(text);
+            if (null == textId) {
+                textId = texts.size();
+                texts.add(text);
+                textIds.put(text, textId);
+            }
+            parents[nodes] = parent;
+            textOf[nodes] = textId;
+            return nodes++;
+        }
+
+        private void addLeaf(int node, Object value) {
+            textOf[node] = ~textOf[node];
+            leafCount++;
+            if (withValues) {
+                values[node] = value;
+            }
+        }
+    }
+
+    /**
+     * A child node before it is added. The sort key is the text followed by the first character the paths
+     * below it add, so the children are added in the String order of the paths ("[10]" before "[1]." and
+     * ".address-line" before ".address.").
+     */
+    private static final class Child {
+
+        private final String text;
+        private final String sortKey;
+        private final List<Object> group;
+
+        private Child(String text, List<Object> group) {
+            this.text = text;
+            this.group = group;
+            this.sortKey = text + next(group);
+        }
+
+        private static String next(List<Object> group) {
+            String next = null;
+            for (Object value : group) {
+                if (!(value instanceof Map) && !(value instanceof List)) {
+                    return "";
+                }
+                next = value instanceof Map ? "." : "[";
+            }
+            return null == next ? "" : next;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package dev.javatools.jsonutils;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Options of the sort APIs in {@link JsonSort} that take SortOptions.
+ * <pre>
+ *     JsonSort.sort(inputStream, outputStream, SortOptions.compact());
+ *     JsonSort.sort(inputJson, listKeys, SortOptions.parallel(pool));
+ *     JsonSort.sort(inputJson, listKeys, SortOptions.compact().withPool(pool).withParallelThreshold(50_000));
+ *     JsonSort.sort(smileInputStream, outputStream, SortOptions.compact().withFormat(DataFormat.SMILE));
+ * </pre>
+ * In parallel mode the lists of the json are ordered in the given ForkJoinPool. Subtrees with more nodes than the
+ * parallel threshold are split into separate tasks, smaller ones are ordered in the task that reached them.
+ * The sorted json is the same as in the sequential mode, parallel mode only pays off for large jsons.
+ * Instances are immutable and can be shared.
+ */
+public final class SortOptions {
+
+    /**
+     * Default number of nodes (objects, lists and values) of a subtree above which it is split into separate tasks.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+
+    private static final SortOptions PRETTY = new SortOptions(true, null, DEFAULT_PARALLEL_THRESHOLD, DataFormat.JSON);
+    private static final SortOptions COMPACT = new SortOptions(false, null, DEFAULT_PARALLEL_THRESHOLD, DataFormat.JSON);
+
+    private final boolean pretty;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final DataFormat format;
+
+    private SortOptions(boolean pretty, ForkJoinPool pool, int parallelThreshold, DataFormat format) {
+        this.pretty = pretty;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+        this.format = format;
+    }
+
+    /**
+     * @return options that write the sorted json with the default pretty printer, same as sort(String)
+     */
+    public static SortOptions pretty() {
+        return PRETTY;
+    }
+
+    /**
+     * @return options that write the sorted json without any white space
+     */
+    public static SortOptions compact() {
+        return COMPACT;
+    }
+
+    /**
+     * @param pool pool that runs the sort tasks
+     * @return options that sort in parallel and pretty print the sorted json
+     */
+    public static SortOptions parallel(ForkJoinPool pool) {
+        return PRETTY.withPool(pool);
+    }
+
+    /**
+     * @param pool pool that runs the sort tasks
+     * @return copy of these options that sorts in parallel
+     */
+    public SortOptions withPool(ForkJoinPool pool) {
+        if (null == pool) {
+            throw new JsonUtilsException("Not a valid input, pool is a mandatory field.");
+        }
+        return new SortOptions(pretty, pool, parallelThreshold, format);
+    }
+
+    /**
+     * @param parallelThreshold number of nodes of a subtree above which it is split into separate tasks
+     * @return copy of these options with the given threshold
+     */
+    public SortOptions withParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new JsonUtilsException("Not a valid input, parallel threshold must be greater than 0.");
+        }
+        return new SortOptions(pretty, pool, parallelThreshold, format);
+    }
+
+    /**
+     * The binary formats can only be written by the APIs that take an OutputStream, and are never pretty printed.
+     *
+     * @param format format of the sorted output
+     * @return copy of these options that writes the given format
+     */
+    public SortOptions withFormat(DataFormat format) {
+        if (null == format) {
+            throw new JsonUtilsException("Not a valid input, format is a mandatory field.");
+        }
+        return new SortOptions(pretty, pool, parallelThreshold, format);
+    }
+
+    /**
+     * @return true if the sorted json is pretty printed
+     */
+    public boolean isPretty() {
+        return pretty;
+    }
+
+    /**
+     * @return true if the json is sorted in parallel
+     */
+    public boolean isParallel() {
+        return null != pool;
+    }
+
+    /**
+     * @return pool that runs the sort tasks, null in sequential mode
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return number of nodes of a subtree above which it is split into separate tasks
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * @return format of the sorted output, JSON by default
+     */
+    public DataFormat getFormat() {
+        return format;
+    }
+}
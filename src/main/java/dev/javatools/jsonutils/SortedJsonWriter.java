@@ -0,0 +1,557 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reads a json into a sorted tree and writes the tree straight to a JsonGenerator.
+ * <pre>
+ * Each object is sorted when its last field is read, so only the sorted tree is kept in memory.
+ * Objects are stored as a sorted key array and a value array. Sibling objects that have the same fields
+ * in the same order (the usual case for the elements of a list) share the sorted key array, and the keys are only
+ * sorted once for all of them.
+ * Lists are ordered the same way as the Map based sort, so the output is the same as JsonSort.sort(String).
+ *
+ * In parallel mode the lists are ordered after the whole json is read. Subtrees and ranges of list elements larger
+ * than the parallel threshold are ordered in separate fork join tasks, and large keyed lists use a parallel stable
+ * sort. The order of every list is the same as in the sequential mode.
+ * </pre>
+ */
+final class SortedJsonWriter {
+
+    private static final String SORT = "sort";
+
+    private final Map<String, String> listKeys;
+    private final SortOptions sortOptions;
+
+    /**
+     * Field layout of the last object read at each depth.
+     */
+    private final List<Shape> shapes = new ArrayList<>();
+
+    private SortedJsonWriter(Map<String, String> listKeys, SortOptions sortOptions) {
+        this.listKeys = null == listKeys ? Collections.emptyMap() : listKeys;
+        this.sortOptions = sortOptions;
+    }
+
+    static void sort(JsonParser parser, Map<String, String> listKeys, OutputStream output, SortOptions sortOptions) throws IOException {
+        JsonOperationStats stats = JsonOperationStats.start(SORT);
+        try {
+            Object tree = read(parser, listKeys, sortOptions, stats);
+            OutputStream target = JsonOperationStats.counting(stats, output);
+            try (JsonGenerator generator = sortOptions.getFormat().factory().createGenerator(target, JsonEncoding.UTF8)) {
+                write(tree, generator, sortOptions);
+            }
+            JsonOperationStats.serialized(stats, JsonOperationStats.countOf(target));
+            JsonOperationStats.end(stats, tree);
+        } catch (IOException | RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    static String sort(JsonParser parser, Map<String, String> listKeys, SortOptions sortOptions) throws IOException {
+        if (null != sortOptions && sortOptions.getFormat() != DataFormat.JSON) {
+            parser.close();
+            throw new JsonUtilsException("Not a valid input, " + sortOptions.getFormat() + " can only be written to an OutputStream.");
+        }
+        JsonOperationStats stats = JsonOperationStats.start(SORT);
+        try {
+            Object tree = read(parser, listKeys, sortOptions, stats);
+            Writer output = new StringWriter();
+            try (JsonGenerator generator = JsonInput.objectMapper().getFactory().createGenerator(output)) {
+                write(tree, generator, sortOptions);
+            }
+            String sortedJson = output.toString();
+            JsonOperationStats.serialized(stats, sortedJson.length());
+            JsonOperationStats.end(stats, tree);
+            return sortedJson;
+        } catch (IOException | RuntimeException exception) {
+            JsonOperationStats.failed(stats, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * @return sorted tree of the json, objects are Maps and lists are Lists like in the Map based sort
+     */
+    static Object sortedTree(JsonParser parser, Map<String, String> listKeys) throws IOException {
+        return read(parser, listKeys, SortOptions.pretty(), null);
+    }
+
+    /**
+     * @return reader for the records of newline delimited json, the field layouts are kept from one record to the next
+     */
+    static SortedJsonWriter lineReader(Map<String, String> listKeys) {
+        return new SortedJsonWriter(listKeys, SortOptions.compact());
+    }
+
+    /**
+     * @param token first token of the record
+     * @return sorted tree of the record, the parser is left on the last token of the record
+     */
+    Object readRecord(JsonParser parser, JsonToken token) throws IOException {
+        return read(parser, token, "", 0);
+    }
+
+    /**
+     * @param stats stats of the operation, the fields are sorted while the json is read so that is part of the parse time
+     */
+    private static Object read(JsonParser parser, Map<String, String> listKeys, SortOptions sortOptions, JsonOperationStats stats) throws IOException {
+        try (JsonParser input = parser) {
+            if (null == sortOptions) {
+                throw new JsonUtilsException("Not a valid input, Sort options is a mandatory field.");
+            }
+            JsonToken token = input.nextToken();
+            if (null == token) {
+                throw new JsonUtilsException("Not a valid input, the json is empty.");
+            }
+            Object tree = new SortedJsonWriter(listKeys, sortOptions).read(input, token, "", 0);
+            JsonOperationStats.parsed(stats, input);
+            if (sortOptions.isParallel()) {
+                sortOptions.getPool().invoke(new OrderTask(new Object[]{tree}, 0, 1, false, sortOptions.getParallelThreshold()));
+            }
+            JsonOperationStats.transformed(stats);
+            return tree;
+        }
+    }
+
+    private static void write(Object tree, JsonGenerator generator, SortOptions sortOptions) throws IOException {
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        if (sortOptions.isPretty() && sortOptions.getFormat() == DataFormat.JSON) {
+            generator.useDefaultPrettyPrinter();
+        }
+        write(tree, generator);
+    }
+
+    private Object read(JsonParser parser, JsonToken token, String path, int depth) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                return readObject(parser, path, depth);
+            case START_ARRAY:
+                return readArray(parser, path, depth);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                return JsonInput.readValue(parser);
+        }
+    }
+
+    private SortedObject readObject(JsonParser parser, String path, int depth) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            String childPath = listKeys.isEmpty() ? path : path.isEmpty() ? name : path + "." + name;
+            names.add(name);
+            values.add(read(parser, parser.nextToken(), childPath, depth + 1));
+        }
+        Shape shape = shapeOf(names, depth);
+        Object[] sortedValues = new Object[shape.order.length];
+        long weight = 1;
+        for (int i = 0; i < sortedValues.length; i++) {
+            sortedValues[i] = values.get(shape.order[i]);
+            weight += weightOf(sortedValues[i]);
+        }
+        return new SortedObject(shape.sortedNames, sortedValues, weight);
+    }
+
+    private SortedArray readArray(JsonParser parser, String path, int depth) throws IOException {
+        String listPath = path + "[]";
+        List<Object> elements = new ArrayList<>();
+        long weight = 1;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            Object element = read(parser, token, listPath, depth + 1);
+            elements.add(element);
+            weight += weightOf(element);
+        }
+        SortedArray array = new SortedArray(elements.toArray(), listKeys.get(listPath), weight);
+        if (!sortOptions.isParallel()) {
+            array.order(false);
+        }
+        return array;
+    }
+
+    /**
+     * @param keys   sorted field names of an object
+     * @param values sorted trees of the values, in the order of the keys
+     * @return sorted object
+     */
+    static SortedObject sortedObject(String[] keys, Object[] values) {
+        long weight = 1;
+        for (Object value : values) {
+            weight += weightOf(value);
+        }
+        return new SortedObject(keys, values, weight);
+    }
+
+    /**
+     * @param elements sorted trees of the elements of a list, in the order of the json
+     * @param listKey  field the elements are sorted by, null to order them like the Map based sort
+     * @return ordered list
+     */
+    static SortedArray sortedArray(Object[] elements, String listKey) {
+        long weight = 1;
+        for (Object element : elements) {
+            weight += weightOf(element);
+        }
+        SortedArray array = new SortedArray(elements, listKey, weight);
+        array.order(false);
+        return array;
+    }
+
+    /**
+     * @return number of nodes in the subtree
+     */
+    static long weightOf(Object node) {
+        if (node instanceof SortedObject) {
+            return ((SortedObject) node).weight;
+        }
+        if (node instanceof SortedArray) {
+            return ((SortedArray) node).weight;
+        }
+        return 1;
+    }
+
+    private static Object[] childrenOf(Object node) {
+        if (node instanceof SortedObject) {
+            return ((SortedObject) node).values;
+        }
+        if (node instanceof SortedArray) {
+            return ((SortedArray) node).elements;
+        }
+        return null;
+    }
+
+    private Shape shapeOf(List<String> names, int depth) {
+        while (shapes.size() <= depth) {
+            shapes.add(null);
+        }
+        Shape shape = shapes.get(depth);
+        if (null == shape || !shape.matches(names)) {
+            shape = new Shape(names.toArray(new String[0]));
+            shapes.set(depth, shape);
+        }
+        return shape;
+    }
+
+    static void write(Object node, JsonGenerator generator) throws IOException {
+        if (node instanceof SortedObject) {
+            SortedObject object = (SortedObject) node;
+            generator.writeStartObject();
+            for (int i = 0; i < object.keys.length; i++) {
+                generator.writeFieldName(object.keys[i]);
+                write(object.values[i], generator);
+            }
+            generator.writeEndObject();
+        } else if (node instanceof SortedArray) {
+            generator.writeStartArray();
+            for (Object element : ((SortedArray) node).elements) {
+                write(element, generator);
+            }
+            generator.writeEndArray();
+        } else if (node instanceof String) {
+            generator.writeString((String) node);
+        } else {
+            generator.writeObject(node);
+        }
+    }
+
+    /**
+     * Field names of an object in the order they were read, and the positions that put them in sorted order.
+     * When a name is repeated only the last value is kept, like in a Map.
+     */
+    private static final class Shape {
+
+        private final String[] names;
+        private final String[] sortedNames;
+        private final int[] order;
+
+        private Shape(String[] names) {
+            this.names = names;
+            Integer[] positions = new Integer[names.length];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = i;
+            }
+            Arrays.sort(positions, Comparator.comparing(position -> names[position]));
+            int[] order = new int[positions.length];
+            int size = 0;
+            for (int i = 0; i < positions.length; i++) {
+                if (i + 1 < positions.length && names[positions[i]].equals(names[positions[i + 1]])) {
+                    continue;
+                }
+                order[size++] = positions[i];
+            }
+            this.order = size == order.length ? order : Arrays.copyOf(order, size);
+            this.sortedNames = new String[size];
+            for (int i = 0; i < size; i++) {
+                sortedNames[i] = names[this.order[i]];
+            }
+        }
+
+        private boolean matches(List<String> otherNames) {
+            if (otherNames.size() != names.length) {
+                return false;
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (!names[i].equals(otherNames.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Orders the lists of a range of sibling nodes. Ranges heavier than the threshold are split in two,
+     * a single heavy node is ordered after its children.
+     */
+    private static final class OrderTask extends RecursiveAction {
+
+        private final Object[] nodes;
+        private final int from;
+        private final int to;
+        private final boolean hashNodes;
+        private final int threshold;
+
+        /**
+         * @param hashNodes true when the nodes are elements of a list that is ordered by hash, the hashes are
+         *                  computed in the task so the parent only reads the cached values
+         */
+        private OrderTask(Object[] nodes, int from, int to, boolean hashNodes, int threshold) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.hashNodes = hashNodes;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            long weight = 0;
+            for (int i = from; i < to && weight <= threshold; i++) {
+                weight += weightOf(nodes[i]);
+            }
+            if (weight <= threshold) {
+                for (int i = from; i < to; i++) {
+                    orderSubtree(nodes[i], hashNodes);
+                }
+            } else if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new OrderTask(nodes, from, middle, hashNodes, threshold),
+                        new OrderTask(nodes, middle, to, hashNodes, threshold));
+            } else {
+                Object node = nodes[from];
+                Object[] children = childrenOf(node);
+                new OrderTask(children, 0, children.length, node instanceof SortedArray && ((SortedArray) node).listKey == null, threshold).compute();
+                if (node instanceof SortedArray) {
+                    ((SortedArray) node).order(true);
+                }
+                if (hashNodes) {
+                    node.hashCode();
+                }
+            }
+        }
+
+        private static void orderSubtree(Object node, boolean hash) {
+            Object[] children = childrenOf(node);
+            if (null == children) {
+                return;
+            }
+            boolean hashChildren = node instanceof SortedArray && ((SortedArray) node).listKey == null;
+            for (Object child : children) {
+                orderSubtree(child, hashChildren);
+            }
+            if (node instanceof SortedArray) {
+                ((SortedArray) node).order(false);
+            }
+            if (hash) {
+                node.hashCode();
+            }
+        }
+    }
+
+    /**
+     * Immutable object with sorted keys. Equals and hashCode follow the Map contract, the hash is computed once.
+     */
+    static final class SortedObject extends AbstractMap<String, Object> {
+
+        private final String[] keys;
+        private final Object[] values;
+        private final long weight;
+        private int hash;
+
+        SortedObject(String[] keys, Object[] values, long weight) {
+            this.keys = keys;
+            this.values = values;
+            this.weight = weight;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && Arrays.binarySearch(keys, key) >= 0;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int position = key instanceof String ? Arrays.binarySearch(keys, key) : -1;
+            return position < 0 ? null : values[position];
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int position;
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[position], values[position]);
+                            position++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+
+        @Override
+        public int hashCode() {
+            int result = hash;
+            if (result == 0) {
+                for (int i = 0; i < keys.length; i++) {
+                    result += keys[i].hashCode() ^ Objects.hashCode(values[i]);
+                }
+                hash = result;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof SortedObject) {
+                SortedObject object = (SortedObject) other;
+                return hashCode() == object.hashCode() && Arrays.equals(keys, object.keys) && Arrays.equals(values, object.values);
+            }
+            return super.equals(other);
+        }
+    }
+
+    /**
+     * List that is immutable once ordered. Equals and hashCode follow the List contract, the hash is computed once.
+     */
+    static final class SortedArray extends AbstractList<Object> implements RandomAccess {
+
+        private Object[] elements;
+        private final String listKey;
+        private final long weight;
+        private int hash;
+
+        SortedArray(Object[] elements, String listKey, long weight) {
+            this.elements = elements;
+            this.listKey = listKey;
+            this.weight = weight;
+        }
+
+        /**
+         * Without a list key the elements are ordered (and deduplicated) by a HashSet, like the Map based sort.
+         * With a list key the elements are sorted by the String value of that field, the sort is stable.
+         *
+         * @param parallel true to use a parallel sort for the keyed lists
+         */
+        private void order(boolean parallel) {
+            if (null == listKey) {
+                elements = new HashSet<>(Arrays.asList(elements)).toArray();
+                return;
+            }
+            Comparator<Object> byKey = Comparator.comparing(element -> String.valueOf(element instanceof Map ? ((Map) element).get(listKey) : element));
+            if (parallel) {
+                Arrays.parallelSort(elements, byKey);
+            } else {
+                Arrays.sort(elements, byKey);
+            }
+        }
+
+        @Override
+        public Object get(int index) {
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = hash;
+            if (result == 0) {
+                result = super.hashCode();
+                hash = result;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof SortedArray) {
+                SortedArray array = (SortedArray) other;
+                return hashCode() == array.hashCode() && Arrays.equals(elements, array.elements);
+            }
+            return super.equals(other);
+        }
+    }
+}
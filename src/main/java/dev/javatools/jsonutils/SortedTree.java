@@ -0,0 +1,108 @@
+package dev.javatools.jsonutils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Paths and properties of custom java models (and of the compact results), read from the sorted tree that
+ * {@link SortedJsonWriter} builds from the tokens of the model.
+ * <pre>
+ * The model is serialized straight into tokens, so neither the Map of the model nor a json String is created.
+ * The tree is flattened the same way as the Map based APIs: lists are numbered in sorted order and null values
+ * and empty objects or lists have no property.
+ * </pre>
+ */
+final class SortedTree {
+
+    private SortedTree() {
+    }
+
+    /**
+     * @return sorted tree of the model
+     */
+    static Object of(Object customJavaModel) {
+        try {
+            return SortedJsonWriter.sortedTree(JsonInput.modelParser(customJavaModel), Collections.emptyMap());
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @return sorted tree of the json, read from its tokens without creating the Map of the json
+     */
+    static Object ofJson(String jsonString) {
+        if (null == jsonString) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return SortedJsonWriter.sortedTree(JsonInput.parser(jsonString), Collections.emptyMap());
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    static Object ofJson(File jsonFile) {
+        if (null == jsonFile) {
+            throw new JsonUtilsException("Not a valid input, Input Json is a mandatory field.");
+        }
+        try {
+            return SortedJsonWriter.sortedTree(JsonInput.parser(jsonFile), Collections.emptyMap());
+        } catch (IOException ioException) {
+            throw new JsonUtilsException(ioException);
+        }
+    }
+
+    static Map<String, Object> properties(Object tree) {
+        Map<String, Object> properties = new TreeMap<>();
+        walk(tree, new StringBuilder(), false, properties::put);
+        return properties;
+    }
+
+    static Set<String> paths(Object tree) {
+        Set<String> paths = new TreeSet<>();
+        walk(tree, new StringBuilder(), false, (path, value) -> paths.add(path));
+        return paths;
+    }
+
+    static Set<String> uniquePaths(Object tree) {
+        Set<String> paths = new TreeSet<>();
+        walk(tree, new StringBuilder(), true, (path, value) -> paths.add(path));
+        return paths;
+    }
+
+    /**
+     * @param unique true to write [] instead of the position of the list elements
+     */
+    private static void walk(Object node, StringBuilder path, boolean unique, BiConsumer<String, Object> consumer) {
+        int length = path.length();
+        if (node instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                if (length > 0) {
+                    path.append('.');
+                }
+                walk(entry.getValue(), path.append(entry.getKey()), unique, consumer);
+                path.setLength(length);
+            }
+        } else if (node instanceof List) {
+            List<?> elements = (List<?>) node;
+            for (int i = 0; i < elements.size(); i++) {
+                path.append('[');
+                if (!unique) {
+                    path.append(i);
+                }
+                walk(elements.get(i), path.append(']'), unique, consumer);
+                path.setLength(length);
+            }
+        } else if (null != node) {
+            consumer.accept(path.toString(), node);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package dev.javatools.jsonutils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledJsonPathTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private String inputString;
+    private File inputFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path jsonSampleInputFilePath = Path.of(classLoader.getResource("jsonProperty/sample-input.json").getPath());
+        inputFile = new File(jsonSampleInputFilePath.toString());
+        inputString = Files.readString(jsonSampleInputFilePath);
+    }
+
+    @Test
+    void compileIsCached() {
+        CompiledJsonPath path = JsonProperty.compile("friends[{name=Art Venere}].age");
+        assertSame(path, JsonProperty.compile("friends[{name=Art Venere}].age"));
+        assertEquals("friends[{name=Art Venere}].age", path.getPath());
+    }
+
+    @Test
+    void leastRecentlyUsedPathsEvicted() {
+        CompiledJsonPath used = JsonProperty.compile("primaryAddress.zip");
+        CompiledJsonPath unused = JsonProperty.compile("primaryAddress.state");
+        for (int i = 0; i < 2048; i++) {
+            JsonProperty.compile("friends[" + i + "].name");
+            assertSame(used, JsonProperty.compile("primaryAddress.zip"));
+        }
+        assertNotSame(unused, JsonProperty.compile("primaryAddress.state"));
+    }
+
+    @Test
+    void compileFromManyThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CompiledJsonPath>> compiled = new ArrayList<>();
+            for (int i = 0; i < 800; i++) {
+                String path = "friends[" + (i % 100) + "].associatedAddresses[{state=TX}].city";
+                compiled.add(executor.submit(() -> JsonProperty.compile(path)));
+            }
+            for (int i = 0; i < compiled.size(); i++) {
+                assertSame(JsonProperty.compile("friends[" + (i % 100) + "].associatedAddresses[{state=TX}].city"), compiled.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void getPropertyWithCompiledPath() {
+        assertEquals("New Orleans", JsonProperty.getProperty(JsonProperty.compile("primaryAddress.city"), inputString));
+        assertEquals(28, JsonProperty.getProperty(JsonProperty.compile("friends[{name=Art Venere}].age"), inputString));
+        assertEquals("Chagrin Falls", JsonProperty.getProperty(JsonProperty.compile("friends[0].associatedAddresses[1].city"), inputFile));
+        assertEquals("618 W Yakima Ave", JsonProperty.getProperty(
+                JsonProperty.compile("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX},{city:Irving}].street"), inputString));
+        assertEquals("Los Angeles", JsonProperty.getProperty(JsonProperty.compile("friends[].associatedAddresses[].city"), inputString));
+        assertNull(JsonProperty.getProperty(JsonProperty.compile("friends[{name=Nobody}].age"), inputString));
+        assertNull(JsonProperty.getProperty(JsonProperty.compile("friends[10].age"), inputString));
+    }
+
+    @Test
+    void setPropertyWithCompiledPath() {
+        CompiledJsonPath path = JsonProperty.compile("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}, {city=Irving}].street");
+        String updatedJson = JsonProperty.setProperty(path, inputString, "street in Irving, Texas");
+        assertEquals("street in Irving, Texas", JsonProperty.getProperty(path, updatedJson));
+        assertEquals("6 S 33rd St", JsonProperty.getProperty("friends[{name=Lenna Paprocki}].associatedAddresses[0].street", updatedJson));
+    }
+
+    @Test
+    void setPropertyAddsMatchingElement() {
+        String updatedJson = JsonProperty.setProperty("friends[{name=Art Venere}].age", "{}", 29);
+        assertEquals(29, JsonProperty.getProperty("friends[0].age", updatedJson));
+        assertEquals("Art Venere", JsonProperty.getProperty("friends[0].name", updatedJson));
+    }
+
+    @Test
+    void invalidPaths() {
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.compile("friends[{name=Art Venere}"));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.compile("friends[x].age"));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.compile("friends..age"));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.compile(""));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.setProperty("friends[{name=Art Venere}]", inputString, "value"));
+    }
+}
@@ -0,0 +1,99 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataFormatTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private String sampleInput;
+    private Object sampleMap;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sampleInput = Files.readString(Path.of(classLoader.getResource("jsonSort/sample-input.json").getPath()));
+        sampleMap = new ObjectMapper().readValue(sampleInput, Object.class);
+    }
+
+    @Test
+    void formatDetected() throws IOException {
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(sampleMap);
+        byte[] cbor = new ObjectMapper(new CBORFactory()).writeValueAsBytes(sampleMap);
+        byte[] json = sampleInput.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(DataFormat.SMILE, DataFormat.detect(smile, smile.length));
+        assertEquals(DataFormat.CBOR, DataFormat.detect(cbor, cbor.length));
+        assertEquals(DataFormat.JSON, DataFormat.detect(json, json.length));
+        assertEquals(DataFormat.JSON, DataFormat.detect(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, 3));
+        assertEquals(DataFormat.JSON, DataFormat.detect(new byte[0], 0));
+    }
+
+    @Test
+    void binaryInputsReadAsJson() throws IOException {
+        Map<String, String> listKeys = Map.of("friends[]", "name");
+        String sorted = JsonSort.sort(sampleInput, listKeys);
+        Map<String, Object> properties = JsonProperty.getAllProperties(sampleInput);
+        for (DataFormat format : new DataFormat[]{DataFormat.SMILE, DataFormat.CBOR}) {
+            byte[] binary = writerOf(format).writeValueAsBytes(sampleMap);
+            Path binaryFile = Files.createTempFile("sample", "." + format);
+            try {
+                Files.write(binaryFile, binary);
+                File file = binaryFile.toFile();
+                assertEquals(sorted, JsonSort.sort(file, listKeys));
+                assertEquals(properties, JsonProperty.getAllProperties(file));
+                assertEquals(JsonProperty.getProperty("friends[0].name", sampleInput), JsonProperty.getProperty("friends[0].name", file));
+            } finally {
+                Files.delete(binaryFile);
+            }
+            assertEquals(properties, JsonProperty.parse(new ByteArrayInputStream(binary)).getAllProperties());
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            JsonSort.sort(new ByteArrayInputStream(binary), listKeys, output, SortOptions.compact());
+            assertEquals(JsonSort.sort(sampleInput, listKeys, SortOptions.compact()), output.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void binaryOutputsReadBack() throws IOException {
+        Map<String, String> listKeys = Map.of("friends[]", "name");
+        String sorted = JsonSort.sort(sampleInput, listKeys, SortOptions.compact());
+        for (DataFormat format : new DataFormat[]{DataFormat.SMILE, DataFormat.CBOR}) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            JsonSort.sort(new ByteArrayInputStream(sampleInput.getBytes(StandardCharsets.UTF_8)), listKeys, output, SortOptions.compact().withFormat(format));
+            byte[] binary = output.toByteArray();
+
+            assertEquals(format, DataFormat.detect(binary, binary.length));
+            assertEquals(sorted, new ObjectMapper().writeValueAsString(writerOf(format).readValue(binary, Object.class)));
+
+            ByteArrayOutputStream updated = new ByteArrayOutputStream();
+            JsonProperty.update(new ByteArrayInputStream(binary)).set("name", "Jane").format(format).writeTo(updated);
+            assertEquals("Jane", JsonProperty.getProperty("name", JsonProperty.parse(new ByteArrayInputStream(updated.toByteArray())).toJson()));
+        }
+    }
+
+    @Test
+    void binaryFormatNotValid() {
+        SortOptions smile = SortOptions.compact().withFormat(DataFormat.SMILE);
+        assertThrows(JsonUtilsException.class, () -> JsonSort.sort(sampleInput, smile));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.update(sampleInput).format(DataFormat.CBOR).toJson());
+        assertThrows(JsonUtilsException.class, () -> SortOptions.compact().withFormat(null));
+    }
+
+    private static ObjectMapper writerOf(DataFormat format) {
+        return new ObjectMapper(format == DataFormat.SMILE ? new SmileFactory() : new CBORFactory());
+    }
+}
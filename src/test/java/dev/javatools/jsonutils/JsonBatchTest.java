@@ -0,0 +1,115 @@
+package dev.javatools.jsonutils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonBatchTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private Path directory;
+    private List<Path> files = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String sampleInput = Files.readString(Path.of(classLoader.getResource("jsonSort/sample-input.json").getPath()));
+        directory = Files.createTempDirectory("json-batch");
+        for (int i = 0; i < 20; i++) {
+            files.add(Files.writeString(directory.resolve(String.format("input-%02d.json", i)), sampleInput.replace("James Butt", "James " + i)));
+        }
+        files.add(Files.writeString(directory.resolve("input-20.json"), "{\"name\": "));
+        Files.writeString(directory.resolve("notes.txt"), "not a json");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void runInOrder() {
+        List<JsonBatch.Result<String>> results = new ArrayList<>();
+        long count = JsonBatch.of(files.stream()).ordered().withMaxInFlight(3).run(JsonSort::sort, results::add);
+
+        assertEquals(21, count);
+        for (int i = 0; i < 20; i++) {
+            JsonBatch.Result<String> result = results.get(i);
+            assertEquals(files.get(i), result.getPath());
+            assertTrue(result.isSuccess());
+            assertEquals(JsonSort.sort(files.get(i).toFile()), result.getValue());
+        }
+        assertFalse(results.get(20).isSuccess());
+        assertNotNull(results.get(20).getError());
+        assertNull(results.get(20).getValue());
+    }
+
+    @Test
+    void runGlobOnExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Path> processed = new ArrayList<>();
+            long count = JsonBatch.of(directory, "*.json").withExecutor(executor).run(JsonProperty::getAllProperties, result -> {
+                if (result.isSuccess()) {
+                    assertEquals(JsonProperty.getAllProperties(result.getPath().toFile()), result.getValue());
+                    processed.add(result.getPath());
+                }
+            });
+            assertEquals(21, count);
+            assertEquals(20, processed.size());
+            assertTrue(processed.containsAll(files.subList(0, 20)));
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void runWithFailingOperation() {
+        List<JsonBatch.Result<Map<String, Object>>> results = new ArrayList<>();
+        JsonBatch.of(directory).<Map<String, Object>>run(file -> {
+            throw new IllegalStateException(file.getName());
+        }, results::add);
+        assertEquals(22, results.size());
+        for (JsonBatch.Result<Map<String, Object>> result : results) {
+            assertTrue(result.getError().getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    void runStopsOnError() {
+        List<JsonBatch.Result<Object>> results = new ArrayList<>();
+        StackOverflowError error = assertThrows(StackOverflowError.class, () -> JsonBatch.of(directory).ordered().run(file -> {
+            throw new StackOverflowError(file.getName());
+        }, results::add));
+        assertNotNull(error.getMessage());
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void batchNotValid() {
+        assertThrows(JsonUtilsException.class, () -> JsonBatch.of((Path) null));
+        assertThrows(JsonUtilsException.class, () -> JsonBatch.of(directory).withMaxInFlight(0));
+        assertThrows(JsonUtilsException.class, () -> JsonBatch.of(directory).withExecutor(null));
+        assertThrows(JsonUtilsException.class, () -> JsonBatch.of(directory).run(JsonSort::sort, null));
+        assertThrows(JsonUtilsException.class, () -> JsonBatch.of(directory.resolve("missing")).run(JsonSort::sort, result -> {
+        }));
+    }
+}
@@ -0,0 +1,98 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.javatools.jsonutils.model.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCompareTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private String inputString;
+    private File inputFile;
+    private Person person;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path jsonSampleInputFilePath = Path.of(classLoader.getResource("jsonProperty/sample-input.json").getPath());
+        inputFile = new File(jsonSampleInputFilePath.toString());
+        inputString = Files.readString(jsonSampleInputFilePath);
+        person = objectMapper.readValue(inputString, Person.class);
+    }
+
+    @Test
+    void compareEqualJsons() {
+        assertTrue(JsonCompare.compare(inputString, JsonProperty.parse(inputString).toJson()).isEmpty());
+        assertTrue(JsonCompare.compare(inputFile, inputFile).isEmpty());
+        assertTrue(JsonCompare.compare(person, person).isEmpty());
+        assertEquals("[]", JsonCompare.toJsonPatch(JsonCompare.compare(inputString, inputString)));
+    }
+
+    @Test
+    void compareChangedField() {
+        String updatedJson = JsonProperty.setProperty("friends[{name=Art Venere}].associatedAddresses[{state=WI}].city", inputString, "Madison");
+        List<JsonDifference> differences = JsonCompare.compare(inputString, updatedJson);
+        assertEquals(1, differences.size());
+        JsonDifference difference = differences.get(0);
+        assertEquals(JsonDifference.Type.CHANGED, difference.getType());
+        assertEquals("friends[1].associatedAddresses[1].city", difference.getPath());
+        assertEquals("Milwaukee", difference.getLeftValue());
+        assertEquals("Madison", difference.getRightValue());
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/friends/1/associatedAddresses/1/city\",\"value\":\"Madison\"}]",
+                JsonCompare.toJsonPatch(differences));
+    }
+
+    @Test
+    void compareListsByPosition() {
+        String left = "{\"name\":\"James Butt\",\"age\":25,\"friends\":[{\"name\":\"Art Venere\",\"age\":28}]}";
+        String right = "{\"name\":\"James Butt\",\"age\":26,\"friends\":[{\"name\":\"Art Venere\",\"age\":28},{\"name\":\"Lenna Paprocki\"}]}";
+        List<JsonDifference> differences = JsonCompare.compare(left, right);
+        assertEquals(2, differences.size());
+        assertEquals("age", differences.get(0).getPath());
+        assertEquals(JsonDifference.Type.ADDED, differences.get(1).getType());
+        assertEquals("friends[1]", differences.get(1).getPath());
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/age\",\"value\":26},{\"op\":\"add\",\"path\":\"/friends/1\",\"value\":{\"name\":\"Lenna Paprocki\"}}]",
+                JsonCompare.toJsonPatch(differences));
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/age\",\"value\":25},{\"op\":\"remove\",\"path\":\"/friends/1\"}]",
+                JsonCompare.toJsonPatch(JsonCompare.compare(right, left)));
+    }
+
+    @Test
+    void compareListsByKey() {
+        String left = "{\"friends\":[{\"name\":\"Art Venere\",\"age\":28},{\"name\":\"Lenna Paprocki\",\"age\":96},{\"name\":\"Donette Foller\",\"age\":55}]}";
+        String right = "{\"friends\":[{\"name\":\"Donette Foller\",\"age\":55},{\"name\":\"Josephine Darakjy\",\"age\":22},{\"name\":\"Art Venere\",\"age\":29}]}";
+        Map<String, String> listKeys = new HashMap<>();
+        listKeys.put("friends[]", "name");
+
+        assertEquals(6, JsonCompare.compare(left, right).size());
+
+        List<JsonDifference> differences = JsonCompare.compare(left, right, listKeys);
+        assertEquals(3, differences.size());
+        assertEquals("CHANGED friends[0].age: 28 -> 29", differences.get(0).toString());
+        assertEquals(JsonDifference.Type.REMOVED, differences.get(1).getType());
+        assertEquals("friends[1]", differences.get(1).getPath());
+        assertEquals(JsonDifference.Type.ADDED, differences.get(2).getType());
+        assertEquals("friends[1]", differences.get(2).getPath());
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/friends/0/age\",\"value\":29},{\"op\":\"remove\",\"path\":\"/friends/1\"},"
+                        + "{\"op\":\"add\",\"path\":\"/friends/-\",\"value\":{\"name\":\"Josephine Darakjy\",\"age\":22}}]",
+                JsonCompare.toJsonPatch(differences));
+    }
+
+    @Test
+    void compareEscapesPointer() {
+        List<JsonDifference> differences = JsonCompare.compare("{\"a/b\":{\"c~d\":1}}", "{\"a/b\":{}}", Collections.emptyMap());
+        assertEquals("[{\"op\":\"remove\",\"path\":\"/a~1b/c~0d\"}]", JsonCompare.toJsonPatch(differences));
+    }
+}
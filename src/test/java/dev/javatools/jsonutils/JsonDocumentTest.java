@@ -0,0 +1,79 @@
+package dev.javatools.jsonutils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonDocumentTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private String inputString;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path jsonSampleInputFilePath = Path.of(classLoader.getResource("jsonProperty/sample-input.json").getPath());
+        inputString = Files.readString(jsonSampleInputFilePath);
+    }
+
+    @Test
+    void readMultiplePropertiesFromOneParse() {
+        JsonDocument document = JsonProperty.parse(inputString);
+        assertEquals("James Butt", document.getProperty("name"));
+        assertEquals(28, document.getProperty("friends[{name=Art Venere}].age"));
+        assertEquals("Irving", document.getProperty("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].city"));
+        assertEquals(JsonProperty.getAllProperties(inputString), document.getAllProperties());
+        assertEquals(JsonPath.getAllPaths(inputString), document.getAllPaths());
+        assertEquals(JsonPath.getAllUniquePaths(inputString), document.getAllUniquePaths());
+    }
+
+    @Test
+    void propertiesOfBranch() {
+        String friend = "friends[{name=Art Venere}]";
+        Map<String, Object> properties = JsonProperty.parse(inputString).getAllProperties(friend);
+        assertEquals(28, properties.get(friend + ".age"));
+        assertEquals("Art Venere", properties.get(friend + ".name"));
+        assertTrue(properties.keySet().stream().allMatch(path -> path.startsWith(friend + ".")));
+        Map<String, Object> expected = new HashMap<>();
+        JsonProperty.getAllProperties(JsonProperty.getProperty(friend, inputString))
+                .forEach((path, value) -> expected.put(friend + "." + path, value));
+        assertEquals(expected, properties);
+        assertEquals(properties, JsonProperty.parseLazy(inputString).getAllProperties(friend));
+        assertTrue(JsonProperty.parse(inputString).getAllProperties("friends[{name=Nobody}]").isEmpty());
+    }
+
+    @Test
+    void parseFromStream() throws IOException {
+        try (InputStream inputStream = classLoader.getResourceAsStream("jsonProperty/sample-input.json")) {
+            JsonDocument document = JsonProperty.parse(inputStream);
+            assertEquals("New Orleans", document.getProperty("primaryAddress.city"));
+        }
+    }
+
+    @Test
+    void sortDocument() throws IOException {
+        String sortInput = Files.readString(Path.of(classLoader.getResource("jsonSort/sample-input.json").getPath()));
+        Map<String, String> listKeys = new HashMap<>();
+        listKeys.put("friends[]", "name");
+        JsonDocument document = JsonProperty.parse(sortInput);
+        assertEquals(JsonSort.sort(sortInput), document.sort());
+        assertEquals(JsonSort.sort(sortInput, listKeys), document.sort(listKeys));
+    }
+
+    @Test
+    void updatesAreSerializedOnce() throws IOException {
+        String expected = Files.readString(Path.of(classLoader.getResource("jsonProperty/output_01.json").getPath()));
+        String updatedJson = JsonProperty.parse("{}")
+                .setProperty("name", "James Butt")
+                .setProperty(JsonProperty.compile("age"), 26)
+                .toJson();
+        assertEquals(expected, updatedJson);
+    }
+}
@@ -0,0 +1,91 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFilterTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private String inputString;
+    private File inputFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path jsonSampleInputFilePath = Path.of(classLoader.getResource("jsonProperty/sample-input.json").getPath());
+        inputFile = new File(jsonSampleInputFilePath.toString());
+        inputString = Files.readString(jsonSampleInputFilePath);
+    }
+
+    @Test
+    void filterToOutputStream() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(1, JsonFilter.filter("friends[{name=Art Venere}]", inputString, output));
+        List<Map<String, Object>> friends = objectMapper.readValue(output.toByteArray(), List.class);
+        assertEquals(1, friends.size());
+        assertEquals(28, friends.get(0).get("age"));
+        assertEquals(4, ((List) friends.get(0).get("associatedAddresses")).size());
+
+        output.reset();
+        assertEquals(4, JsonFilter.filter("friends[]", inputFile, output));
+        assertEquals(JsonProperty.parse(inputString).getProperty("friends"), objectMapper.readValue(output.toByteArray(), List.class));
+
+        output.reset();
+        assertEquals(0, JsonFilter.filter("friends[{name=Nobody}]", inputFile, output));
+        assertEquals("[]", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void filterWithMultipleConditions() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(1, JsonFilter.filter("friends[{name:Lenna Paprocki}, {age:96}]", inputString, output));
+        assertEquals(0, JsonFilter.filter("friends[{name:Lenna Paprocki}, {age:97}]", inputString, output));
+        assertEquals(1, JsonFilter.filter("friends[1].associatedAddresses[{state=WI}]", inputString, output));
+    }
+
+    @Test
+    void conditionsMatchLikeGetProperty() {
+        String json = "{\"items\": [{\"id\": \"a\", \"price\": 1.50}, {\"id\": \"b\", \"price\": 1e2}, {\"id\": \"c\", \"price\": true}]}";
+        for (String condition : List.of("price=1.5", "price=1.50", "price=100.0", "price=1e2", "price=true")) {
+            Object expected = JsonProperty.getProperty("items[{" + condition + "}].id", json);
+            try (Stream<Map<String, Object>> items = JsonFilter.stream("items[{" + condition + "}]", json)) {
+                assertEquals(expected, items.map(item -> item.get("id")).findFirst().orElse(null), condition);
+            }
+        }
+        assertEquals("a", JsonProperty.getProperty("items[{price=1.5}].id", json));
+    }
+
+    @Test
+    void streamMatchingElements() {
+        try (Stream<Map<String, Object>> addresses = JsonFilter.stream("[{state=CA}]",
+                new ByteArrayInputStream("[{\"city\":\"Los Angeles\",\"state\":\"CA\"},{\"city\":\"Chagrin Falls\",\"state\":\"OH\"},5,{\"city\":\"San Jose\",\"state\":\"CA\"}]"
+                        .getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals(List.of("Los Angeles", "San Jose"), addresses.map(address -> address.get("city")).collect(Collectors.toList()));
+        }
+        try (Stream<Map<String, Object>> friends = JsonFilter.stream("friends[]", inputFile)) {
+            assertEquals("Josephine Darakjy", friends.findFirst().get().get("name"));
+        }
+    }
+
+    @Test
+    void filterNotValid() {
+        assertThrows(JsonUtilsException.class, () -> JsonFilter.filter("friends", inputString, new ByteArrayOutputStream()));
+        assertThrows(JsonUtilsException.class, () -> JsonFilter.stream("friends[].associatedAddresses[{state=CA}]", inputString));
+        assertThrows(JsonUtilsException.class, () -> JsonFilter.stream(null, inputString));
+    }
+}
@@ -0,0 +1,119 @@
+package dev.javatools.jsonutils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonIndexTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private File inputFile;
+    private List<String> conditionPaths = Arrays.asList(
+            "name",
+            "friends[{name=Art Venere}].age",
+            "friends[{name=Art Venere}].associatedAddresses[{state=WI}].city",
+            "friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}, {city=Irving}].street",
+            "friends[{age=28}].name",
+            "friends[].primaryAddress.zip",
+            "friends[{name=Unknown}].age",
+            "friends[7].name",
+            "primaryAddress.street.name");
+
+    @BeforeEach
+    void setUp() {
+        inputFile = new File(Path.of(classLoader.getResource("jsonProperty/sample-input.json").getPath()).toString());
+    }
+
+    @Test
+    void getSameAsGetProperty() {
+        JsonDocument document = JsonProperty.parse(inputFile);
+        JsonIndex index = document.index("name", "state");
+        assertSameAsDocument(document, index);
+        assertEquals("Irving", index.get("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].city"));
+        assertTrue(index.get("friends") instanceof List);
+        assertEquals(document.getProperty("friends[1]. name"), index.get("friends[1]. name"));
+        assertEquals(document.getProperty(" primaryAddress . city"), index.get(" primaryAddress . city"));
+        assertNotNull(index.get(" primaryAddress . city"));
+        assertNull(index.get("primaryAddress.country"));
+        assertThrows(JsonUtilsException.class, () -> index.get((String) null));
+    }
+
+    @Test
+    void sortedIndexFindsAllPaths() {
+        JsonDocument document = JsonProperty.parse(inputFile);
+        JsonIndex index = document.sortedIndex("name");
+        Map<String, Object> sortedProperties = JsonProperty.getAllProperties(inputFile);
+        Set<String> paths = JsonPath.getAllPaths(inputFile);
+        assertTrue(paths.contains("friends[2].name"));
+        for (String path : paths) {
+            assertEquals(sortedProperties.get(path), index.get(path), path);
+        }
+        String name = (String) index.get("friends[1].name");
+        assertEquals(index.get("friends[1].age"), index.get("friends[{name=" + name + "}].age"));
+
+        document.setProperty("friends[1].name", "Changed");
+        assertEquals(name, index.get("friends[1].name"));
+    }
+
+    @Test
+    void scanPrefix() {
+        JsonIndex index = JsonProperty.parse(inputFile).index();
+        Map<String, Object> expected = new LinkedHashMap<>();
+        try (Stream<Map.Entry<String, Object>> properties = JsonProperty.streamAllProperties(inputFile)) {
+            properties.filter(property -> property.getKey().startsWith("friends[1]."))
+                    .forEach(property -> expected.put(property.getKey(), property.getValue()));
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, index.scan("friends[1].*"));
+        assertEquals(expected, index.scan("friends[1]"));
+        assertEquals(JsonProperty.getAllProperties(inputFile).size(), index.scan("").size());
+        assertTrue(index.scan("unknown.*").isEmpty());
+    }
+
+    @Test
+    void setPropertyUpdatesIndex() {
+        JsonDocument document = JsonProperty.parse(inputFile);
+        JsonIndex index = document.index("name", "state");
+        Map<String, Object> primaryAddress = new LinkedHashMap<>();
+        primaryAddress.put("state", "WI");
+        primaryAddress.put("city", "Madison");
+        document.setProperty("friends[{name=Art Venere}].name", "Art")
+                .setProperty("friends[{name=Art}].age", 30)
+                .setProperty("friends[{name=Art}].associatedAddresses[{state=WI}].state", "IL")
+                .setProperty("friends[{name=New Friend}].primaryAddress", primaryAddress)
+                .setProperty("friends[].name", "Appended Friend")
+                .setProperty("friends[9].name", "Padded Friend")
+                .setProperty("friends[0]", primaryAddress)
+                .setProperty("primaryAddress.country", "USA")
+                .setProperty("age", null);
+
+        assertSameAsDocument(document, index);
+        assertNull(index.get("friends[{name=Art Venere}].age"));
+        assertNull(index.get("friends[0].age"));
+        assertNull(index.get("friends[0].associatedAddresses[0].city"));
+        assertEquals(30, index.get("friends[{name=Art}].age"));
+        assertEquals("Madison", index.get("friends[{name=New Friend}].primaryAddress.city"));
+        assertEquals("Padded Friend", index.get("friends[{name=Padded Friend}].name"));
+        assertEquals(document.getAllProperties().size(), index.scan("").size());
+        JsonIndex rebuilt = document.index("name", "state");
+        assertEquals(rebuilt.scan(""), index.scan(""));
+    }
+
+    private void assertSameAsDocument(JsonDocument document, JsonIndex index) {
+        List<String> paths = Stream.concat(conditionPaths.stream(), index.scan("").keySet().stream()).collect(Collectors.toList());
+        for (String path : paths) {
+            assertEquals(document.getProperty(path), index.get(path), path);
+        }
+    }
+}
@@ -2,16 +2,30 @@ package dev.javatools.jsonutils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.javatools.jsonutils.model.Person;
+import dev.javatools.maputils.MapCreator;
+import dev.javatools.maputils.MapPaths;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JsonPathTest {
@@ -76,6 +90,22 @@ class JsonPathTest {
         }
     }
 
+    @Test
+    void getPathsFromMappedJsonFile() {
+        assertEquals(new HashSet<>(allPaths), JsonPath.getAllPaths(inputFile, FileReadMode.MEMORY_MAPPED));
+        assertEquals(new HashSet<>(allUniquePaths), JsonPath.getAllUniquePaths(inputFile, FileReadMode.MEMORY_MAPPED));
+    }
+
+    @Test
+    void streamPathsFromJsonFile() {
+        try (Stream<String> paths = JsonPath.streamAllPaths(inputFile)) {
+            assertEquals(new HashSet<>(allPaths), paths.collect(Collectors.toSet()));
+        }
+        try (Stream<String> paths = JsonPath.streamAllSortedPaths(inputFile, 10)) {
+            assertEquals(new ArrayList<>(JsonPath.getAllPaths(inputFile)), paths.collect(Collectors.toList()));
+        }
+    }
+
     @Test
     void getPathsFromJsonObject() {
         Set<String> paths = JsonPath.getAllPaths(person);
@@ -93,4 +123,48 @@ class JsonPathTest {
             assertTrue(allUniquePaths.contains(path));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPathsFromJsonObjectSameAsMap() {
+        Person friend = person.getFriends().get(0);
+        friend.setPrimaryAddress(null);
+        person.setFriends(Arrays.asList(friend, person.getFriends().get(1), friend));
+        assertEquals(MapPaths.getPaths(MapCreator.create(person)), JsonPath.getAllPaths(person));
+        assertEquals(MapPaths.getUniquePaths(MapCreator.create(person)), JsonPath.getAllUniquePaths(person));
+    }
+
+    @Test
+    void getPathsOfLinesSameAsPaths() throws IOException {
+        String line = objectMapper.writeValueAsString(objectMapper.readTree(inputString));
+        String simpleLine = objectMapper.writeValueAsString(objectMapper.readTree(classLoader.getResource("jsonPath/simple-input.json")));
+        byte[] lines = (line + "\n" + simpleLine).getBytes(StandardCharsets.UTF_8);
+        List<Set<String>> expected = Arrays.asList(JsonPath.getAllPaths(line), JsonPath.getAllPaths(simpleLine));
+
+        try (Stream<Set<String>> paths = JsonPath.streamAllPathsOfLines(new ByteArrayInputStream(lines))) {
+            assertEquals(expected, paths.collect(Collectors.toList()));
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(2, JsonPath.writeAllPathsOfLines(new ByteArrayInputStream(lines), output, ForkJoinPool.commonPool()));
+        String[] written = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written.length);
+        for (int i = 0; i < written.length; i++) {
+            assertEquals(new ArrayList<>(expected.get(i)), objectMapper.readValue(written[i], List.class));
+        }
+    }
+
+    @Test
+    void getCompactPathsSameAsPaths() {
+        assertEquals(new ArrayList<>(JsonPath.getAllPaths(inputString)), new ArrayList<>(JsonPath.getAllPathsCompact(inputString)));
+        assertEquals(new ArrayList<>(JsonPath.getAllUniquePaths(inputFile)), new ArrayList<>(JsonPath.getAllUniquePathsCompact(inputFile)));
+        assertEquals(JsonPath.getAllPaths(person), JsonPath.getAllPathsCompact(person));
+        assertEquals(JsonPath.getAllUniquePaths(person), JsonPath.getAllUniquePathsCompact(person));
+
+        String json = "{\"list\": [" + IntStream.range(0, 12).mapToObj(i -> "{\"id\": " + i + ", \"tags\": [\"a\", " + i + "]}")
+                .collect(Collectors.joining(", ")) + "], \"address\": {\"city\": \"Irving\"}, \"address-line\": \"1 Main St\", \"empty\": []}";
+        Set<String> paths = JsonPath.getAllPathsCompact(json);
+        assertEquals(new ArrayList<>(JsonPath.getAllPaths(json)), new ArrayList<>(paths));
+        assertEquals(new ArrayList<>(JsonPath.getAllUniquePaths(json)), new ArrayList<>(JsonPath.getAllUniquePathsCompact(json)));
+        assertTrue(paths.contains("list[10].tags[1]"));
+        assertFalse(paths.contains("list[10]"));
+    }
+}
@@ -2,16 +2,30 @@ package dev.javatools.jsonutils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.javatools.jsonutils.model.Person;
+import dev.javatools.maputils.MapCreator;
+import dev.javatools.maputils.MapProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -70,6 +84,158 @@ class JsonPropertyTest {
         }
     }
 
+    @Test
+    void getPropertiesFromJsonObjectSameAsMap() {
+        assertEquals(MapProperties.getProperties(MapCreator.create(person)), JsonProperty.getAllProperties(person));
+
+        Person friend = person.getFriends().get(0);
+        friend.setName(null);
+        person.setFriends(Arrays.asList(friend, person.getFriends().get(1), friend));
+        assertEquals(MapProperties.getProperties(MapCreator.create(person)), JsonProperty.getAllProperties(person));
+    }
+
+    @Test
+    void getCompactPropertiesSameAsProperties() {
+        Map<String, Object> properties = JsonProperty.getAllPropertiesCompact(inputFile);
+        assertEquals(new ArrayList<>(JsonProperty.getAllProperties(inputFile).entrySet()), new ArrayList<>(properties.entrySet()));
+        assertEquals(JsonProperty.getAllProperties(inputString), JsonProperty.getAllPropertiesCompact(inputString));
+        assertEquals(JsonProperty.getAllProperties(person), JsonProperty.getAllPropertiesCompact(person));
+        assertEquals("James Butt", properties.get("name"));
+        assertNull(properties.get("friends[0]"));
+        assertThrows(UnsupportedOperationException.class, () -> properties.put("name", "James"));
+    }
+
+    @Test
+    void getPropertiesOfLinesSameAsProperties() throws IOException {
+        String line = objectMapper.writeValueAsString(objectMapper.readTree(inputString));
+        String otherLine = line.replace("James Butt", "James");
+        byte[] lines = (line + "\n\n" + otherLine + "\n").getBytes(StandardCharsets.UTF_8);
+        List<Map<String, Object>> expected = Arrays.asList(JsonProperty.getAllProperties(line), JsonProperty.getAllProperties(otherLine));
+
+        try (Stream<Map<String, Object>> properties = JsonProperty.streamAllPropertiesOfLines(new ByteArrayInputStream(lines))) {
+            assertEquals(expected, properties.collect(Collectors.toList()));
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(2, JsonProperty.writeAllPropertiesOfLines(new ByteArrayInputStream(lines), output));
+        String[] written = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written.length);
+        for (int i = 0; i < written.length; i++) {
+            assertEquals(expected.get(i), objectMapper.readValue(written[i], Map.class));
+        }
+        ByteArrayOutputStream parallelOutput = new ByteArrayOutputStream();
+        assertEquals(2, JsonProperty.writeAllPropertiesOfLines(new ByteArrayInputStream(lines), parallelOutput, ForkJoinPool.commonPool()));
+        assertEquals(output.toString(StandardCharsets.UTF_8), parallelOutput.toString(StandardCharsets.UTF_8));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.streamAllPropertiesOfLines(null));
+    }
+
+    @Test
+    void getFlatPropertiesSameAsStreamedProperties() {
+        Map<String, Object> expected = new TreeMap<>();
+        JsonProperty.forEachProperty(inputFile, expected::put);
+        FlatJson flatJson = JsonProperty.getAllPropertiesFlat(inputFile);
+        assertEquals(expected.size(), flatJson.size());
+        int ordinal = 0;
+        for (Map.Entry<String, Object> property : expected.entrySet()) {
+            assertEquals(property.getKey(), flatJson.path(ordinal));
+            assertEquals(ordinal, flatJson.ordinal(property.getKey()));
+            assertEquals(String.valueOf(property.getValue()), flatJson.getString(ordinal));
+            ordinal++;
+        }
+        assertEquals(FlatJson.Type.LONG, flatJson.type("friends[1].age"));
+        assertEquals(28, flatJson.getLong("friends[1].age"));
+        assertEquals(28.0, flatJson.getDouble("friends[1].age"));
+        assertEquals(FlatJson.Type.STRING, flatJson.type("name"));
+        assertNull(flatJson.type("friends[1]"));
+        assertEquals(-1, flatJson.ordinal("unknown"));
+        assertThrows(JsonUtilsException.class, () -> flatJson.getLong("name"));
+        assertThrows(JsonUtilsException.class, () -> flatJson.getLong("unknown"));
+
+        FlatJson numbers = JsonProperty.getAllPropertiesFlat("{\"amount\": 10.25, \"active\": true, \"count\": 12345678901, "
+                + "\"big\": 123456789012345678901234567890, \"none\": null, \"empty\": [], \"list\": [1, 2]}");
+        assertEquals(10.25, numbers.getDouble("amount"));
+        assertTrue(numbers.getBoolean("active"));
+        assertEquals(12345678901L, numbers.getLong("count"));
+        assertEquals(FlatJson.Type.BIG_INTEGER, numbers.type("big"));
+        assertEquals("123456789012345678901234567890", numbers.getString("big"));
+        assertEquals(2, numbers.getLong("list[1]"));
+        assertEquals(6, numbers.size());
+    }
+
+    @Test
+    void streamPropertiesFromJsonFile() {
+        Map<String, Object> streamed = new LinkedHashMap<>();
+        JsonProperty.forEachProperty(inputFile, streamed::put);
+        assertEquals(allProperties.keySet(), streamed.keySet());
+        for (Map.Entry<String, Object> property : streamed.entrySet()) {
+            assertEquals(JsonProperty.getProperty(property.getKey(), inputString), property.getValue());
+        }
+
+        List<String> expectedOrder = new ArrayList<>(new TreeMap<>(streamed).keySet());
+        try (Stream<Map.Entry<String, Object>> sorted = JsonProperty.streamAllSortedProperties(inputFile, 10)) {
+            List<Map.Entry<String, Object>> sortedProperties = sorted.collect(Collectors.toList());
+            assertEquals(expectedOrder, sortedProperties.stream().map(Map.Entry::getKey).collect(Collectors.toList()));
+            for (Map.Entry<String, Object> property : sortedProperties) {
+                assertEquals(streamed.get(property.getKey()), property.getValue());
+            }
+        }
+    }
+
+    @Test
+    void streamedListPositionsAreFilePositions() throws IOException {
+        Path jsonFile = Files.createTempFile("json-stream", ".json");
+        try {
+            Files.writeString(jsonFile, "{\"tags\": [\"b\", \"a\", \"b\"], \"items\": [{\"n\": 2}, {\"n\": 1}]}");
+            Map<String, Object> expected = new TreeMap<>();
+            expected.put("items[0].n", 2);
+            expected.put("items[1].n", 1);
+            expected.put("tags[0]", "b");
+            expected.put("tags[1]", "a");
+            expected.put("tags[2]", "b");
+
+            Map<String, Object> streamed = new TreeMap<>();
+            JsonProperty.forEachProperty(jsonFile.toFile(), streamed::put);
+            assertEquals(expected, streamed);
+            try (Stream<Map.Entry<String, Object>> sorted = JsonProperty.streamAllSortedProperties(jsonFile.toFile())) {
+                Map<String, Object> sortedProperties = new LinkedHashMap<>();
+                sorted.forEach(property -> sortedProperties.put(property.getKey(), property.getValue()));
+                assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(sortedProperties.entrySet()));
+            }
+            try (Stream<String> paths = JsonPath.streamAllPaths(jsonFile.toFile())) {
+                assertEquals(Arrays.asList("tags[0]", "tags[1]", "tags[2]", "items[0].n", "items[1].n"), paths.collect(Collectors.toList()));
+            }
+        } finally {
+            Files.delete(jsonFile);
+        }
+    }
+
+    @Test
+    void getPropertiesInOnePass() throws IOException {
+        List<String> paths = Arrays.asList("name", "primaryAddress", "primaryAddress.zip", "friends[2].age",
+                "friends[{name=Art Venere}].associatedAddresses[{state=WI}].city", "friends[].associatedAddresses[3].street",
+                "associatedAddresses[{state=OH}, {city=Hamilton}].street", "friends[{name=Nobody}].age", "unknown.field");
+        Map<String, Object> expected = new LinkedHashMap<>();
+        for (String path : paths) {
+            expected.put(path, JsonProperty.getProperty(path, inputString));
+        }
+        assertEquals("Milwaukee", expected.get("friends[{name=Art Venere}].associatedAddresses[{state=WI}].city"));
+        assertEquals("34 Center St", expected.get("associatedAddresses[{state=OH}, {city=Hamilton}].street"));
+        assertNull(expected.get("unknown.field"));
+
+        assertEquals(expected, JsonProperty.getProperties(paths, inputString));
+        assertEquals(expected, JsonProperty.getProperties(paths, inputFile));
+        try (InputStream inputStream = classLoader.getResourceAsStream("jsonProperty/sample-input.json")) {
+            assertEquals(expected, JsonProperty.getProperties(paths, inputStream));
+        }
+    }
+
+    @Test
+    void getPropertiesStopsOnceResolved() {
+        String truncatedJson = "{\"name\" : \"James Butt\", \"age\" : 25, \"friends\" : [ {";
+        Map<String, Object> properties = JsonProperty.getProperties(Arrays.asList("age", "name"), truncatedJson);
+        assertEquals("James Butt", properties.get("name"));
+        assertEquals(25, properties.get("age"));
+    }
+
     @Test
     void setPropertyTest01() throws IOException {
         String newJson = "{}";
@@ -211,4 +377,73 @@ class JsonPropertyTest {
 //        assertEquals("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}, {city=Irving}]: Found the element in this path, but to assign the value, we also need a key.", mapUtilsException.getMessage());
 //    }
 
+
+    @Test
+    void setPropertiesWhileCopyingSameAsSetProperty() throws IOException {
+        Map<String, Object> primaryAddress = new LinkedHashMap<>();
+        primaryAddress.put("street", "1 Main St");
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("age", 26);
+        properties.put("primaryAddress.zip", "53703");
+        properties.put("friends[{name=Art Venere}].age", 30);
+        properties.put("friends[{name=Art Venere}].associatedAddresses[{state=WI}].city", "Green Bay");
+        properties.put("friends[{name=Art Venere}].associatedAddresses[]", primaryAddress);
+        properties.put("friends[2].primaryAddress.city", "Madison");
+        properties.put("friends[{name=New Friend}].age", 20);
+        properties.put("friends[{name=New Friend}].primaryAddress.city", "Boston");
+        properties.put("friends[6].name", "Padded Friend");
+        properties.put("nickName.first", "Jim");
+        properties.put("dateOfBirth", null);
+
+        String expected = inputString;
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            expected = JsonProperty.setProperty(property.getKey(), expected, property.getValue());
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        JsonProperty.setProperties(properties, inputFile, output);
+        assertEquals(objectMapper.writeValueAsString(objectMapper.readValue(expected, LinkedHashMap.class)), output.toString(StandardCharsets.UTF_8));
+
+        output.reset();
+        try (InputStream inputStream = classLoader.getResourceAsStream("jsonProperty/sample-input.json")) {
+            JsonProperty.setProperty("friends[{name=Lenna Paprocki}].primaryAddress.zip", inputStream, "60601", output);
+        }
+        String updatedJson = output.toString(StandardCharsets.UTF_8);
+        assertEquals("60601", JsonProperty.getProperty("friends[{name=Lenna Paprocki}].primaryAddress.zip", updatedJson));
+        assertEquals(JsonProperty.getAllProperties(inputString).size(), JsonProperty.getAllProperties(updatedJson).size());
+    }
+
+    @Test
+    void setPropertiesWhileCopyingKeepsValues() throws IOException {
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("city", "Madison");
+        List<Object> nickNames = new ArrayList<>(List.of("Jim"));
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("primaryAddress", address);
+        properties.put("primaryAddress.country", "USA");
+        properties.put("nickName", address);
+        properties.put("nickName.city", "Boston");
+        properties.put("nickNames", nickNames);
+        properties.put("nickNames[]", "Jimmy");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        JsonProperty.setProperties(properties, inputFile, output);
+        String updatedJson = output.toString(StandardCharsets.UTF_8);
+        assertEquals(Map.of("city", "Madison"), address);
+        assertEquals(List.of("Jim"), nickNames);
+        assertEquals("USA", JsonProperty.getProperty("primaryAddress.country", updatedJson));
+        assertEquals("Madison", JsonProperty.getProperty("primaryAddress.city", updatedJson));
+        assertEquals("Boston", JsonProperty.getProperty("nickName.city", updatedJson));
+        assertEquals(List.of("Jim", "Jimmy"), JsonProperty.getProperty("nickNames", updatedJson));
+    }
+
+    @Test
+    void setPropertiesWhileCopyingNotValid() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.setProperty(null, inputFile, 1, output));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.setProperties(null, inputFile, output));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.setProperty("age", inputFile, 1, null));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.setProperty("friends[{name=Art Venere}]", inputFile, 1, output));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.setProperty("name.first", inputFile, "James", output));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package dev.javatools.jsonutils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonResultCacheTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private String sampleInput;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sampleInput = Files.readString(Path.of(classLoader.getResource("jsonSort/sample-input.json").getPath()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        JsonUtilsConfig.setResultCache(null);
+    }
+
+    @Test
+    void cachedResultsSameAsComputed() {
+        Map<String, String> listKeys = new HashMap<>();
+        listKeys.put("friends[]", "name");
+        String sorted = JsonSort.sort(sampleInput, listKeys);
+        Set<String> uniquePaths = JsonPath.getAllUniquePaths(sampleInput);
+        JsonResultCache cache = JsonResultCache.ofMaxBytes(1 << 20);
+        JsonUtilsConfig.setResultCache(cache);
+
+        assertEquals(sorted, JsonSort.sort(sampleInput, listKeys));
+        assertSame(JsonSort.sort(sampleInput, listKeys), JsonSort.sort(new String(sampleInput), new HashMap<>(listKeys)));
+        assertEquals(JsonSort.sort(sampleInput), JsonSort.sort(sampleInput));
+        assertNotEquals(sorted, JsonSort.sort(sampleInput, Map.of("friends[]", "age")));
+        assertEquals(uniquePaths, JsonPath.getAllUniquePaths(sampleInput));
+        assertSame(JsonPath.getAllUniquePaths(sampleInput), JsonPath.getAllUniquePaths(sampleInput));
+        assertThrows(UnsupportedOperationException.class, () -> JsonPath.getAllUniquePaths(sampleInput).clear());
+        assertNotSame(JsonProperty.getAllProperties(sampleInput), JsonProperty.getAllProperties(sampleInput));
+
+        assertEquals(4, cache.getMissCount());
+        assertEquals(6, cache.getHitCount());
+        assertEquals(4, cache.getSize());
+        assertEquals(0, cache.getEvictionCount());
+        assertTrue(cache.getWeight() > 2L * sampleInput.length());
+    }
+
+    @Test
+    void leastRecentlyUsedResultsEvicted() {
+        JsonResultCache cache = JsonResultCache.ofMaxBytes(16 * 4 * sampleInput.length());
+        JsonUtilsConfig.setResultCache(cache);
+        List<String> inputs = IntStream.range(0, 200).mapToObj(i -> sampleInput.replace("James Butt", "James " + i)).collect(Collectors.toList());
+        inputs.parallelStream().forEach(input -> assertEquals(JsonDocument.of(input).sort(), JsonSort.sort(input)));
+
+        assertEquals(200, cache.getMissCount());
+        assertTrue(cache.getEvictionCount() > 0);
+        assertEquals(200 - cache.getEvictionCount(), cache.getSize());
+        assertTrue(cache.getWeight() <= cache.getMaxBytes());
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    void cacheNotValid() {
+        assertThrows(JsonUtilsException.class, () -> JsonResultCache.ofMaxBytes(0));
+    }
+}
@@ -0,0 +1,98 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonSchemaProfileTest {
+
+    private static final Set<JsonSchemaProfile.Type> VALUE_TYPES = EnumSet.of(JsonSchemaProfile.Type.STRING,
+            JsonSchemaProfile.Type.INTEGER, JsonSchemaProfile.Type.DECIMAL, JsonSchemaProfile.Type.BOOLEAN);
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private File inputFile;
+    private String inputString;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path inputFilePath = Path.of(classLoader.getResource("jsonPath/sample-input.json").getPath());
+        inputFile = new File(inputFilePath.toString());
+        inputString = Files.readString(inputFilePath);
+    }
+
+    @Test
+    void profileHasUniquePaths() {
+        JsonSchemaProfile profile = JsonSchemaProfile.of(inputFile);
+        assertEquals(1, profile.getDocumentCount());
+        Set<String> valuePaths = profile.getPaths().stream()
+                .filter(path -> profile.getPath(path).getTypes().stream().anyMatch(VALUE_TYPES::contains))
+                .collect(Collectors.toCollection(TreeSet::new));
+        assertEquals(JsonPath.getAllUniquePaths(inputFile), valuePaths);
+        assertEquals(profile, JsonSchemaProfile.of(inputString));
+
+        int friends = ((List<?>) JsonProperty.getProperty("friends", inputString)).size();
+        JsonSchemaProfile.PathProfile friendsProfile = profile.getPath("friends");
+        assertEquals(EnumSet.of(JsonSchemaProfile.Type.ARRAY), friendsProfile.getTypes());
+        assertEquals(friends, friendsProfile.getMinLength());
+        assertEquals(friends, friendsProfile.getMaxLength());
+        assertEquals(friends, profile.getPath("friends[]").getCount(JsonSchemaProfile.Type.OBJECT));
+        assertEquals(friends, profile.getPath("friends[].age").getCount());
+        assertEquals(-1, profile.getPath("friends[].age").getMinLength());
+        assertEquals(0, profile.getPath("friends[].age").getNullRate());
+        assertNull(profile.getPath("unknown"));
+        assertThrows(JsonUtilsException.class, () -> JsonSchemaProfile.of(""));
+    }
+
+    @Test
+    void mergeSameAsLines() throws IOException {
+        String line = objectMapper.writeValueAsString(objectMapper.readTree(inputString));
+        List<String> lines = IntStream.range(0, 20)
+                .mapToObj(i -> i % 3 == 0 ? line.replace("\"age\":25", "\"age\":null") : i % 3 == 1 ? line.replace("\"age\":25", "\"age\":25.5") : line)
+                .collect(Collectors.toList());
+        JsonSchemaProfile merged = lines.parallelStream().map(JsonSchemaProfile::of).reduce(JsonSchemaProfile.empty(), JsonSchemaProfile::merge);
+        JsonSchemaProfile profile = JsonSchemaProfile.ofLines(new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)));
+        assertEquals(profile, merged);
+        assertEquals(20, profile.getDocumentCount());
+
+        JsonSchemaProfile.PathProfile age = profile.getPath("age");
+        assertEquals(EnumSet.of(JsonSchemaProfile.Type.INTEGER, JsonSchemaProfile.Type.DECIMAL, JsonSchemaProfile.Type.NULL), age.getTypes());
+        assertEquals(20, age.getCount());
+        assertEquals(7, age.getNullCount());
+        assertEquals(0.35, age.getNullRate(), 0.0001);
+        assertSame(profile, profile.merge(JsonSchemaProfile.empty()));
+        assertThrows(JsonUtilsException.class, () -> profile.merge(null));
+    }
+
+    @Test
+    void bytesAndChangedPaths() {
+        JsonSchemaProfile profile = JsonSchemaProfile.of(inputFile);
+        byte[] bytes = profile.toBytes();
+        assertEquals(profile, JsonSchemaProfile.fromBytes(bytes));
+        assertTrue(profile.changedPaths(JsonSchemaProfile.fromBytes(bytes)).isEmpty());
+
+        String changedInput = JsonProperty.setProperty("age", JsonProperty.setProperty("nickName", inputString, "Jim"), "25");
+        JsonSchemaProfile changed = profile.merge(JsonSchemaProfile.of(changedInput));
+        assertEquals(Set.of("age", "nickName"), profile.changedPaths(changed));
+        assertEquals(changed, JsonSchemaProfile.fromBytes(changed.toBytes()));
+        assertTrue(bytes.length < inputString.length());
+
+        assertThrows(JsonUtilsException.class, () -> JsonSchemaProfile.fromBytes(new byte[]{1, 2, 3, 4}));
+        assertThrows(JsonUtilsException.class, () -> JsonSchemaProfile.fromBytes(new byte[0]));
+    }
+}
@@ -3,17 +3,35 @@ package dev.javatools.jsonutils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.javatools.jsonutils.model.Person;
+import dev.javatools.maputils.MapCreator;
+import dev.javatools.maputils.MapSort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32C;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JsonSortTest {
 
@@ -70,6 +88,18 @@ class JsonSortTest {
         assertEquals(sortedJson, complexExpectedOutputString);
     }
 
+    @Test
+    public void getSortedJsonFromMappedFile() {
+        assertEquals(simpleExpectedOutputString, JsonSort.sort(sampleInputFile, FileReadMode.MEMORY_MAPPED));
+        assertEquals(complexExpectedOutputString, JsonSort.sort(sampleInputFile, listFilters, FileReadMode.MEMORY_MAPPED));
+        JsonUtilsConfig.setFileReadMode(FileReadMode.MEMORY_MAPPED);
+        try {
+            assertEquals(complexExpectedOutputString, JsonSort.sort(sampleInputFile, listFilters));
+        } finally {
+            JsonUtilsConfig.setFileReadMode(FileReadMode.BUFFERED);
+        }
+    }
+
     @Test
     public void getSortedJsonFromObject() throws JsonProcessingException {
         String sortedJson = JsonSort.sort(sampleInputObject);
@@ -82,5 +112,186 @@ class JsonSortTest {
         assertEquals(sortedJson, complexExpectedOutputString);
     }
 
+    @Test
+    public void getSortedJsonFromObjectSameAsMap() throws JsonProcessingException {
+        Person friend = sampleInputObject.getFriends().get(0);
+        friend.setDateOfBirth(null);
+        sampleInputObject.setFriends(Arrays.asList(friend, sampleInputObject.getFriends().get(1), friend));
+        assertEquals(JsonSort.sort(sampleInputObject),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(MapSort.getSortedMap(MapCreator.create(sampleInputObject))));
+        assertEquals(JsonSort.sort(sampleInputObject, listFilters),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(MapSort.getSortedMap(MapCreator.create(sampleInputObject), listFilters)));
+    }
+
+    @Test
+    public void getSortedJsonToOutputStream() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        JsonSort.sort(sampleInputFile, output, SortOptions.pretty());
+        assertEquals(output.toString(StandardCharsets.UTF_8), simpleExpectedOutputString);
+
+        output.reset();
+        try (InputStream input = Files.newInputStream(sampleInputFile.toPath())) {
+            JsonSort.sort(input, listFilters, output, SortOptions.pretty());
+        }
+        assertEquals(output.toString(StandardCharsets.UTF_8), complexExpectedOutputString);
+
+        output.reset();
+        JsonSort.sort(sampleInputFile, listFilters, output, SortOptions.compact());
+        assertEquals(output.toString(StandardCharsets.UTF_8), objectMapper.writeValueAsString(objectMapper.readValue(complexExpectedOutputString, Map.class)));
+    }
+
+    @Test
+    public void getSortedJsonToOutputStreamNotValid() {
+        assertThrows(JsonUtilsException.class, () -> JsonSort.sort(new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream(), SortOptions.compact()));
+        assertThrows(JsonUtilsException.class, () -> JsonSort.sort(sampleInputFile, new ByteArrayOutputStream(), null));
+    }
+
+    @Test
+    public void getSortedJsonInParallel() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SortOptions sortOptions = SortOptions.parallel(pool).withParallelThreshold(1);
+            assertEquals(JsonSort.sort(sampleInputString, sortOptions), simpleExpectedOutputString);
+            assertEquals(JsonSort.sort(sampleInputFile, listFilters, sortOptions), complexExpectedOutputString);
+
+            List<Map<String, Object>> members = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                Map<String, Object> member = new LinkedHashMap<>();
+                member.put("name", "member " + (i * 7919 % 20_000));
+                member.put("age", i % 90);
+                member.put("tags", List.of("tag " + i % 13, "tag " + i % 5, "tag " + i % 13));
+                members.add(member);
+            }
+            Map<String, Object> group = new LinkedHashMap<>();
+            group.put("members", members);
+            group.put("copy", members.subList(0, 5_000));
+            String groupJson = objectMapper.writeValueAsString(group);
+            Map<String, String> listKeys = new HashMap<>();
+            listKeys.put("members[]", "name");
+
+            SortOptions parallel = SortOptions.compact().withPool(pool).withParallelThreshold(500);
+            assertEquals(JsonSort.sort(groupJson, SortOptions.compact()), JsonSort.sort(groupJson, parallel));
+            assertEquals(JsonSort.sort(groupJson, listKeys, SortOptions.compact()), JsonSort.sort(groupJson, listKeys, parallel));
+            assertEquals(JsonSort.sort(groupJson, listKeys), JsonSort.sort(groupJson, listKeys, SortOptions.parallel(pool)));
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(JsonUtilsException.class, () -> SortOptions.compact().withParallelThreshold(0));
+        assertThrows(JsonUtilsException.class, () -> SortOptions.parallel(null));
+    }
+
+    @Test
+    public void sortLinesSameAsSort() throws IOException {
+        String compactInput = objectMapper.writeValueAsString(objectMapper.readTree(sampleInputString));
+        StringBuilder lines = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            String line = compactInput.replace("James Butt", "James " + i).replace("\"age\":25", "\"age\":" + i);
+            lines.append(line).append(i % 100 == 0 ? "\n\n" : "\n");
+            expected.append(JsonSort.sort(line, listFilters, SortOptions.compact())).append('\n');
+        }
+        byte[] input = lines.toString().getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(1_000, JsonSort.sortLines(new ByteArrayInputStream(input), listFilters, output));
+        assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            output = new ByteArrayOutputStream();
+            assertEquals(1_000, JsonSort.sortLines(new ByteArrayInputStream(input), listFilters, output, pool));
+            assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8));
+
+            Path linesFile = Files.createTempFile("json-lines", ".json");
+            try {
+                Files.write(linesFile, input);
+                output = new ByteArrayOutputStream();
+                assertEquals(1_000, JsonSort.sortLines(linesFile.toFile(), listFilters, output, pool));
+                assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8));
+                output = new ByteArrayOutputStream();
+                assertEquals(1_000, JsonSort.sortLines(linesFile.toFile(), listFilters, output));
+                assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8));
+            } finally {
+                Files.delete(linesFile);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sortLinesNotValid() {
+        byte[] input = "{\"b\":1,\"a\":2}\n{\"b\":".getBytes(StandardCharsets.UTF_8);
+        assertThrows(JsonUtilsException.class, () -> JsonSort.sortLines(new ByteArrayInputStream(input), null, new ByteArrayOutputStream()));
+        assertThrows(JsonUtilsException.class, () -> JsonSort.sortLines(new ByteArrayInputStream(input), null, new ByteArrayOutputStream(), ForkJoinPool.commonPool()));
+        assertThrows(JsonUtilsException.class, () -> JsonSort.sortLines((InputStream) null, null, new ByteArrayOutputStream()));
+        assertThrows(JsonUtilsException.class, () -> JsonSort.sortLines(sampleInputFile, null, null));
+        assertThrows(JsonUtilsException.class, () -> JsonSort.sortLines(sampleInputFile, null, new ByteArrayOutputStream(), null));
+    }
+
+    @Test
+    public void fingerprintSameAsHashOfSortedJson() throws Exception {
+        byte[] sortedJson = JsonSort.sort(sampleInputString, listFilters, SortOptions.compact()).getBytes(StandardCharsets.UTF_8);
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(sortedJson);
+        assertArrayEquals(expected, JsonSort.fingerprint(sampleInputString, listFilters, "SHA-256"));
+        assertArrayEquals(expected, JsonSort.fingerprint(sampleInputFile, listFilters, "SHA-256"));
+        try (InputStream inputStream = Files.newInputStream(sampleInputFile.toPath())) {
+            assertArrayEquals(expected, JsonSort.fingerprint(inputStream, listFilters, "SHA-256"));
+        }
+        assertArrayEquals(expected, JsonSort.fingerprint(JsonSort.sort(sampleInputString), listFilters, "SHA-256"));
+
+        CRC32C crc = new CRC32C();
+        crc.update(sortedJson);
+        assertEquals(crc.getValue(), JsonSort.fingerprint(sampleInputString, listFilters, new CRC32C()));
+        assertEquals(crc.getValue(), JsonSort.fingerprint(sampleInputFile, listFilters, new CRC32C()));
+
+        assertThrows(JsonUtilsException.class, () -> JsonSort.fingerprint(sampleInputString, listFilters, "NO-SUCH-HASH"));
+        assertThrows(JsonUtilsException.class, () -> JsonSort.fingerprint(sampleInputString, listFilters, (String) null));
+        assertThrows(JsonUtilsException.class, () -> JsonSort.fingerprint((String) null, listFilters, "SHA-256"));
+    }
+
+    @Test
+    public void fingerprintIgnoresListOrder() throws Exception {
+        assertArrayEquals(JsonSort.fingerprint("{\"a\": [\"Aa\", \"BB\"]}", null, "SHA-256"), JsonSort.fingerprint("{\"a\": [\"BB\", \"Aa\"]}", null, "SHA-256"));
+        assertFalse(Arrays.equals(JsonSort.fingerprint("[1, 1]", null, "SHA-256"), JsonSort.fingerprint("[1]", null, "SHA-256")));
+        assertEquals("{\"a\":[1,1,{\"b\":[false,null]}],\"c\":\"d\"}",
+                new String(JsonFingerprint.canonical(JsonInput.parser("{\"c\": \"d\", \"a\": [{\"b\": [null, false]}, 1, 1]}"), null), StandardCharsets.UTF_8));
+
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            numbers.add(i);
+        }
+        String ascending = objectMapper.writeValueAsString(Map.of("numbers", numbers, "friends", objectMapper.readValue(sampleInputString, Map.class).get("friends")));
+        Collections.reverse(numbers);
+        String descending = objectMapper.writeValueAsString(Map.of("numbers", numbers, "friends", objectMapper.readValue(sampleInputString, Map.class).get("friends")));
+        assertArrayEquals(JsonSort.fingerprint(ascending, listFilters, "SHA-256"), JsonSort.fingerprint(descending, listFilters, "SHA-256"));
+        assertArrayEquals(JsonSort.fingerprint(ascending, null, "SHA-256"), JsonSort.fingerprint(descending, null, "SHA-256"));
+        assertEquals(JsonSort.fingerprints(ascending, null, "SHA-256").keySet(), JsonSort.fingerprints(descending, null, "SHA-256").keySet());
+        assertArrayEquals(JsonSort.fingerprints(ascending, null, "SHA-256").get("friends[2]"), JsonSort.fingerprints(descending, null, "SHA-256").get("friends[2]"));
+    }
+
+    @Test
+    public void fingerprintsOfSubtrees() throws Exception {
+        Map<String, byte[]> fingerprints = JsonSort.fingerprints(sampleInputString, listFilters, "SHA-256");
+        assertArrayEquals(JsonSort.fingerprint(sampleInputString, listFilters, "SHA-256"), fingerprints.get(""));
+        String friend = objectMapper.writeValueAsString(JsonProperty.getProperty("friends[0]", JsonSort.sort(sampleInputString, listFilters)));
+        assertArrayEquals(JsonSort.fingerprint(friend, listFilters, "SHA-256"), fingerprints.get("friends[0]"));
+        assertEquals(fingerprints.keySet(), JsonSort.fingerprints(sampleInputFile, listFilters, "SHA-256").keySet());
+
+        String changedInput = JsonProperty.setProperty("friends[{name=Art Venere}].associatedAddresses[0].zip", sampleInputString, "00000");
+        Map<String, byte[]> changed = JsonSort.fingerprints(changedInput, listFilters, "SHA-256");
+        assertEquals(fingerprints.keySet(), changed.keySet());
+        List<String> changedPaths = new ArrayList<>();
+        for (Map.Entry<String, byte[]> fingerprint : fingerprints.entrySet()) {
+            if (!Arrays.equals(fingerprint.getValue(), changed.get(fingerprint.getKey()))) {
+                changedPaths.add(fingerprint.getKey());
+            }
+        }
+        assertEquals(5, changedPaths.size());
+        assertEquals("", changedPaths.get(0));
+        assertEquals("friends", changedPaths.get(1));
+        assertEquals(changedPaths.get(2) + ".associatedAddresses", changedPaths.get(3));
+        assertTrue(changedPaths.get(4).startsWith(changedPaths.get(3) + "["));
+    }
 
-}
\ No newline at end of file
+}
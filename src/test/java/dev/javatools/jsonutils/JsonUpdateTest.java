@@ -2,19 +2,105 @@ package dev.javatools.jsonutils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.*;
 
 class JsonUpdateTest {
 
     private ClassLoader classLoader = getClass().getClassLoader();
     private ObjectMapper objectMapper = new ObjectMapper();
     private String sampleInput;
+    private File sampleInputFile;
 
     @BeforeEach
     void setUp() throws IOException {
+        Path sampleInputFilePath = Path.of(classLoader.getResource("jsonUpdate/sample-input.json").getPath());
+        sampleInputFile = new File(sampleInputFilePath.toString());
+        sampleInput = Files.readString(sampleInputFilePath);
+    }
+
+    @Test
+    void updateSameAsSetProperty() {
+        Map<String, Object> primaryAddress = new LinkedHashMap<>();
+        primaryAddress.put("street", "1 Main St");
+        List<Map.Entry<String, Object>> updates = Arrays.asList(
+                new AbstractMap.SimpleEntry<>("age", 26),
+                new AbstractMap.SimpleEntry<>("friends[{name=Art Venere}].primaryAddress.city", "Madison"),
+                new AbstractMap.SimpleEntry<>("friends[{name=Art Venere}].primaryAddress.zip", "53703"),
+                new AbstractMap.SimpleEntry<>("friends[{name=Art Venere}].associatedAddresses[{state=WI}].city", "Green Bay"),
+                new AbstractMap.SimpleEntry<>("friends[{name=Art Venere}].name", "Art"),
+                new AbstractMap.SimpleEntry<>("friends[{name=Art Venere}].age", 30),
+                new AbstractMap.SimpleEntry<>("friends[0].primaryAddress", primaryAddress),
+                new AbstractMap.SimpleEntry<>("friends[{name=Josephine Darakjy}].primaryAddress.city", "Boston"),
+                new AbstractMap.SimpleEntry<>("friends[].name", "New Friend"),
+                new AbstractMap.SimpleEntry<>("friends[].name", "Another Friend"),
+                new AbstractMap.SimpleEntry<>("associatedAddresses[7].city", "San Ramon"),
+                new AbstractMap.SimpleEntry<>("associatedAddresses[7].state", "CA"),
+                new AbstractMap.SimpleEntry<>("multiDimArray[0][0][1]", 5),
+                new AbstractMap.SimpleEntry<>("multiDimArray[1][2][]", 6),
+                new AbstractMap.SimpleEntry<>("citiesVisited[{Name=Rajahmundry}].friendsInTheCity[]", "Art Venere"));
+
+        String expected = sampleInput;
+        JsonUpdate update = JsonProperty.update(sampleInput);
+        for (Map.Entry<String, Object> entry : updates) {
+            expected = JsonProperty.setProperty(entry.getKey(), expected, entry.getValue());
+            update.set(entry.getKey(), entry.getValue());
+        }
+        assertEquals(expected, update.toJson());
+        assertEquals("Boston", JsonProperty.getProperty("friends[0].primaryAddress.city", expected));
+        assertEquals(30, JsonProperty.getProperty("friends[{name=Art Venere}].age", expected));
+    }
 
+    @Test
+    void removeProperties() {
+        String updatedJson = JsonProperty.update(sampleInputFile)
+                .remove("dateOfBirth")
+                .remove("friends[{name=Art Venere}].associatedAddresses[{state=WI}]")
+                .remove("friends[{name=Lenna Paprocki}].primaryAddress.zip")
+                .remove("friends[0]")
+                .remove("unknown.field")
+                .toJson();
+        assertNull(JsonProperty.getProperty("dateOfBirth", updatedJson));
+        assertEquals("Art Venere", JsonProperty.getProperty("friends[0].name", updatedJson));
+        assertEquals(3, ((List) JsonProperty.getProperty("friends[0].associatedAddresses", updatedJson)).size());
+        assertNull(JsonProperty.getProperty("friends[{name=Art Venere}].associatedAddresses[{state=WI}].city", updatedJson));
+        assertNull(JsonProperty.getProperty("friends[{name=Lenna Paprocki}].primaryAddress.zip", updatedJson));
+        assertNotNull(JsonProperty.getProperty("friends[{name=Lenna Paprocki}].primaryAddress.city", updatedJson));
+        assertTrue(((List) JsonProperty.getProperty("friends", JsonProperty.update(updatedJson).remove("friends[]").toJson())).isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    void writeUpdatedJson() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream inputStream = classLoader.getResourceAsStream("jsonUpdate/sample-input.json")) {
+            JsonProperty.update(inputStream).set("age", 26).writeTo(output);
+        }
+        String prettyJson = JsonProperty.setProperty("age", sampleInput, 26);
+        assertEquals(prettyJson, output.toString(StandardCharsets.UTF_8));
+
+        output.reset();
+        JsonProperty.update(sampleInput).set("age", 26).compact().writeTo(output);
+        assertEquals(objectMapper.writeValueAsString(objectMapper.readValue(prettyJson, LinkedHashMap.class)), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void updateNotValid() {
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.update((String) null));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.update(sampleInput).set((String) null, 1));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.update(sampleInput).set("friends[{name=Art Venere}]", 1).toJson());
+    }
+}
@@ -0,0 +1,90 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonUtilsConfigTest {
+
+    @AfterEach
+    void tearDown() {
+        JsonUtilsConfig.resetMappers();
+    }
+
+    @Test
+    void readersAndWritersAreShared() throws IOException {
+        assertSame(JsonUtilsConfig.getWriter(), JsonUtilsConfig.getWriter());
+        assertSame(JsonUtilsConfig.getPrettyWriter(), JsonUtilsConfig.getPrettyWriter());
+        assertSame(JsonUtilsConfig.getReader(), JsonUtilsConfig.getReader());
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("name", "James");
+        assertEquals("{\"name\":\"James\"}", JsonUtilsConfig.getWriter().writeValueAsString(json));
+        assertEquals(json, JsonUtilsConfig.getReader().readValue("{\"name\":\"James\"}"));
+    }
+
+    @Test
+    void setJsonFactory() {
+        JsonFactory jsonFactory = new JsonFactory().enable(JsonGenerator.Feature.ESCAPE_NON_ASCII);
+        JsonUtilsConfig.setJsonFactory(jsonFactory);
+        assertNotSame(jsonFactory, JsonUtilsConfig.getJsonFactory());
+        assertTrue(JsonUtilsConfig.getJsonFactory().isEnabled(JsonGenerator.Feature.ESCAPE_NON_ASCII));
+        assertEquals("{\"a\":1,\"b\":\"\\u00E9\"}", JsonSort.sort("{\"b\":\"\u00e9\",\"a\":1}", SortOptions.compact()));
+
+        JsonUtilsConfig.resetMappers();
+        assertEquals("{\"a\":1,\"b\":\"\u00e9\"}", JsonSort.sort("{\"b\":\"\u00e9\",\"a\":1}", SortOptions.compact()));
+        assertThrows(JsonUtilsException.class, () -> JsonUtilsConfig.setJsonFactory(null));
+    }
+
+    @Test
+    void registerModule() throws IOException {
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("temperature", new Temperature(21.5));
+        JsonUtilsConfig.registerModule(new SimpleModule().addSerializer(Temperature.class, ToStringSerializer.instance));
+        assertEquals("21.5C", JsonProperty.getProperty("temperature", (Object) model));
+        assertEquals("{\"temperature\":\"21.5C\"}", JsonUtilsConfig.getWriter().writeValueAsString(model));
+        assertThrows(JsonUtilsException.class, () -> JsonUtilsConfig.registerModule(null));
+    }
+
+    @Test
+    void allInputsReadWithConfiguredMappers() throws IOException {
+        JsonUtilsConfig.setJsonFactory(JsonFactory.builder().enable(JsonReadFeature.ALLOW_JAVA_COMMENTS).build());
+        String json = "{/* comment */ \"a\": 1}";
+        assertEquals(1, JsonProperty.getProperty("a", json));
+        assertEquals(1, JsonProperty.parse(json).getProperty("a"));
+        assertEquals(1, JsonCompare.compare(json, "{\"a\": 2}").size());
+
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("temperature", new Temperature(21.5));
+        Map<String, Object> other = new LinkedHashMap<>();
+        other.put("temperature", new Temperature(22.0));
+        JsonUtilsConfig.registerModule(new SimpleModule().addSerializer(Temperature.class, ToStringSerializer.instance));
+        List<JsonDifference> differences = JsonCompare.compare((Object) model, (Object) other);
+        assertEquals(1, differences.size());
+        assertEquals("22.0C", differences.get(0).getRightValue());
+    }
+
+    private static final class Temperature {
+
+        private final double degrees;
+
+        private Temperature(double degrees) {
+            this.degrees = degrees;
+        }
+
+        @Override
+        public String toString() {
+            return degrees + "C";
+        }
+    }
+}
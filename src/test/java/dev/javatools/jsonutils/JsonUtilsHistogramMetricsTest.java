@@ -0,0 +1,107 @@
+package dev.javatools.jsonutils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonUtilsHistogramMetricsTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private String sampleInput;
+    private JsonUtilsHistogramMetrics metrics = new JsonUtilsHistogramMetrics(true);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sampleInput = Files.readString(Path.of(classLoader.getResource("jsonSort/sample-input.json").getPath()));
+        JsonUtilsConfig.setMetrics(metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JsonUtilsConfig.setMetrics(null);
+    }
+
+    @Test
+    void nodesNotCountedByDefault() {
+        JsonUtilsHistogramMetrics defaultMetrics = new JsonUtilsHistogramMetrics();
+        JsonUtilsConfig.setMetrics(defaultMetrics);
+        JsonSort.sort(sampleInput);
+        JsonOperationStats stats = defaultMetrics.getOperation("sort").getSlowest();
+        assertEquals(-1, stats.getNodeCount());
+        assertEquals(-1, stats.getMaxDepth());
+        assertEquals(0, defaultMetrics.getOperation("sort").getNodeCount().getCount());
+        assertEquals(1, defaultMetrics.getOperation("sort").getLatency().getCount());
+    }
+
+    @Test
+    void operationsRecorded() {
+        String sorted = JsonSort.sort(sampleInput);
+        JsonUtilsHistogramMetrics.OperationMetrics sort = metrics.getOperation("sort");
+        assertEquals(1, sort.getLatency().getCount());
+        JsonOperationStats stats = sort.getSlowest();
+        assertEquals(sampleInput.length(), stats.getBytesIn());
+        assertEquals(sorted.length(), stats.getBytesOut());
+        assertTrue(stats.getParseNanos() > 0 && stats.getTransformNanos() > 0 && stats.getSerializeNanos() > 0);
+        assertTrue(stats.getTotalNanos() >= stats.getParseNanos() + stats.getTransformNanos() + stats.getSerializeNanos());
+        assertTrue(stats.getNodeCount() > 100);
+        assertEquals(5, stats.getMaxDepth());
+
+        List<JsonOperationStats> recorded = new ArrayList<>();
+        JsonUtilsConfig.setMetrics(operation -> {
+            recorded.add(operation);
+            metrics.record(operation);
+        });
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] input = sampleInput.getBytes(StandardCharsets.UTF_8);
+        JsonSort.sort(new ByteArrayInputStream(input), output, SortOptions.compact());
+        assertEquals(2, sort.getLatency().getCount());
+        assertEquals(input.length, recorded.get(0).getBytesIn());
+        assertEquals(output.size(), recorded.get(0).getBytesOut());
+        JsonUtilsConfig.setMetrics(metrics);
+
+        JsonProperty.getAllProperties(sampleInput);
+        assertEquals(1, metrics.getOperation("getAllProperties").getLatency().getCount());
+        assertEquals(0, metrics.getOperation("getAllProperties").getBytesOut().getCount());
+
+        assertThrows(JsonUtilsException.class, () -> JsonSort.sort(new ByteArrayInputStream("{\"name\": ".getBytes(StandardCharsets.UTF_8)), new ByteArrayOutputStream(), SortOptions.compact()));
+        assertEquals(1, sort.getErrorCount());
+        assertTrue(metrics.dump().contains("sort count=2 errors=1"));
+    }
+
+    @Test
+    void percentilesWithinBucketPrecision() {
+        JsonUtilsHistogramMetrics.Histogram histogram = new JsonUtilsHistogramMetrics.Histogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-1);
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 0.001);
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long expected = (long) (percentile * 1000);
+            long value = histogram.getValueAtPercentile(percentile);
+            assertTrue(value >= expected && value <= expected * 33 / 32, percentile + ": " + value);
+        }
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+        assertEquals(Long.MAX_VALUE, JsonUtilsHistogramMetrics.Histogram.highestValueOf(JsonUtilsHistogramMetrics.Histogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void nothingRecordedWithoutMetrics() {
+        JsonUtilsConfig.setMetrics(null);
+        JsonSort.sort(sampleInput);
+        assertTrue(metrics.getOperations().isEmpty());
+    }
+}
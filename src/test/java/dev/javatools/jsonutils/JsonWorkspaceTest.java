@@ -0,0 +1,96 @@
+package dev.javatools.jsonutils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonWorkspaceTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private String sampleInput;
+    private Map<String, String> listKeys = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sampleInput = Files.readString(Path.of(classLoader.getResource("jsonUpdate/sample-input.json").getPath()));
+        listKeys.put("friends[]", "name");
+    }
+
+    @Test
+    void workspaceSameAsSortAfterUpdates() {
+        Map<String, Object> primaryAddress = new LinkedHashMap<>();
+        primaryAddress.put("street", "1 Main St");
+        primaryAddress.put("city", "Madison");
+        JsonWorkspace workspace = JsonWorkspace.of(sampleInput, listKeys);
+        JsonUpdate update = JsonProperty.update(sampleInput);
+        workspace.set("age", 26).set("friends[{name=Art Venere}].name", "Aaron Venere")
+                .set("friends[{name=Aaron Venere}].primaryAddress", primaryAddress)
+                .set("friends[0].associatedAddresses[1].city", "Boston")
+                .remove("dateOfBirth");
+        update.set("age", 26).set("friends[{name=Art Venere}].name", "Aaron Venere")
+                .set("friends[{name=Aaron Venere}].primaryAddress", primaryAddress)
+                .set("friends[0].associatedAddresses[1].city", "Boston")
+                .remove("dateOfBirth");
+        String updatedJson = update.toJson();
+
+        assertEquals(JsonSort.sort(updatedJson, listKeys), workspace.sort());
+        assertEquals(JsonSort.sort(updatedJson, listKeys, SortOptions.compact()), workspace.toJson());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        workspace.writeTo(output);
+        assertEquals(workspace.toJson(), output.toString(StandardCharsets.UTF_8));
+        assertEquals(JsonWorkspace.of(updatedJson, listKeys).getAllProperties(), workspace.getAllProperties());
+        assertEquals(JsonProperty.getAllProperties(JsonProperty.update(sampleInput).set("age", 26).toJson()),
+                JsonWorkspace.of(sampleInput).set("age", 26).getAllProperties());
+
+        workspace.remove("friends[{name=Aaron Venere}]").set("tags[]", 1L);
+        assertEquals(JsonSort.sort(update.remove("friends[{name=Aaron Venere}]").set("tags[]", 1).toJson(), listKeys), workspace.sort());
+    }
+
+    @Test
+    void commitReturnsChangedProperties() {
+        JsonWorkspace workspace = JsonWorkspace.of(sampleInput, listKeys);
+        Map<String, Object> properties = new TreeMap<>(workspace.getAllProperties());
+        assertTrue(workspace.commit().isEmpty());
+
+        List<JsonDifference> differences = workspace.set("age", 26).remove("dateOfBirth").commit();
+        assertEquals(2, differences.size());
+        assertEquals(JsonDifference.Type.CHANGED, differences.get(0).getType());
+        assertEquals("age", differences.get(0).getPath());
+        assertEquals(25, differences.get(0).getLeftValue());
+        assertEquals(26, differences.get(0).getRightValue());
+        assertEquals(JsonDifference.Type.REMOVED, differences.get(1).getType());
+        assertEquals("dateOfBirth", differences.get(1).getPath());
+
+        properties.putAll(Map.of("age", 26));
+        properties.remove("dateOfBirth");
+        for (JsonDifference difference : workspace.set("friends[{name=Art Venere}].name", "Aaron Venere").commit()) {
+            if (difference.getType() == JsonDifference.Type.REMOVED) {
+                properties.remove(difference.getPath());
+            } else {
+                properties.put(difference.getPath(), difference.getRightValue());
+            }
+        }
+        assertEquals(workspace.getAllProperties(), properties);
+        assertTrue(workspace.commit().isEmpty());
+    }
+
+    @Test
+    void workspaceNotValid() {
+        assertThrows(JsonUtilsException.class, () -> JsonWorkspace.of((String) null));
+        assertThrows(JsonUtilsException.class, () -> JsonWorkspace.of(sampleInput).set((String) null, 1));
+        assertThrows(JsonUtilsException.class, () -> JsonWorkspace.of(sampleInput).remove((CompiledJsonPath) null));
+        assertThrows(JsonUtilsException.class, () -> JsonWorkspace.of(sampleInput).writeTo(null));
+    }
+}
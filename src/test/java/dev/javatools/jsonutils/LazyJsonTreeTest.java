@@ -0,0 +1,86 @@
+package dev.javatools.jsonutils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyJsonTreeTest {
+
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private String inputString;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        inputString = Files.readString(Path.of(classLoader.getResource("jsonProperty/sample-input.json").getPath()));
+    }
+
+    @Test
+    void onlyReachedBranchesAreRead() {
+        Map<String, Object> root = LazyJsonTree.of(inputString.getBytes(StandardCharsets.UTF_8));
+        LazyJsonTree tree = LazyJsonTree.treeOf(root);
+        assertEquals(0, tree.readCount());
+
+        assertEquals("James Butt", root.get("name"));
+        assertEquals(1, tree.readCount());
+        assertEquals("New Orleans", ((Map) root.get("primaryAddress")).get("city"));
+        assertEquals(2, tree.readCount());
+        assertEquals("Irving", CompiledJsonPath.compile("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].city").read(root));
+        assertTrue(tree.readCount() < tree.size() / 2);
+    }
+
+    @Test
+    void lazyDocumentSameAsParsed() throws IOException {
+        String sortInput = Files.readString(Path.of(classLoader.getResource("jsonSort/sample-input.json").getPath()));
+        Map<String, String> listKeys = Map.of("friends[]", "name");
+        JsonDocument document = JsonProperty.parse(sortInput);
+
+        assertEquals(document.getAllProperties(), JsonProperty.parseLazy(sortInput).getAllProperties());
+        assertEquals(document.sort(listKeys), JsonProperty.parseLazy(sortInput).sort(listKeys));
+        assertEquals(document.toJson(), JsonProperty.parseLazy(sortInput).toJson());
+        assertEquals(document.getAllProperties("friends[1]"), JsonProperty.parseLazy(sortInput).getAllProperties("friends[1]"));
+        assertEquals(document.sortProperty("friends[0]"), JsonProperty.parseLazy(sortInput).sortProperty("friends[0]"));
+
+        File jsonFile = new File(classLoader.getResource("jsonSort/sample-input.json").getPath());
+        JsonDocument lazy = JsonProperty.parseLazy(jsonFile);
+        assertEquals(document.getProperty("friends[{name=Art Venere}].age"), lazy.getProperty("friends[{name=Art Venere}].age"));
+        lazy.setProperty("friends[{name=Art Venere}].age", 30).setProperty("nickname", "JB");
+        document.setProperty("friends[{name=Art Venere}].age", 30).setProperty("nickname", "JB");
+        assertEquals(document.toJson(), lazy.toJson());
+    }
+
+    @Test
+    void valuesSameAsParsed() throws IOException {
+        String input = "\uFEFF{ \"text\" : \"a\\\"b\\\\c\\/d\\n\\u00e9\\ud83d\\ude00 \u00FC\", \"empty\": {}, \"list\" : [ ],"
+                + " \"numbers\": [0, -0, 7, -2147483648, 2147483648, 9223372036854775807, 9223372036854775808, 1.5, -2e3, 1E-2],"
+                + " \"values\": [true, false, null, [[{\"a\": [1]}]], \"\"] }";
+        Object expected = new ObjectMapper().readValue(input.substring(1), LinkedHashMap.class);
+        Map<String, Object> root = LazyJsonTree.of(input.getBytes(StandardCharsets.UTF_8));
+        assertEquals(expected, root);
+        assertEquals(Long.class, ((List) root.get("numbers")).get(4).getClass());
+        assertEquals(expected.toString(), root.toString());
+    }
+
+    @Test
+    void jsonNotValid() {
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.parseLazy("[1, 2]"));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.parseLazy("{\"a\": [1, 2}"));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.parseLazy("{\"a\": \"b}"));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.parseLazy("{} {}"));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.parseLazy((String) null));
+        JsonDocument document = JsonProperty.parseLazy("{\"a\": 1, \"b\": {\"c\": 01}}");
+        assertEquals(1, document.getProperty("a"));
+        assertThrows(JsonUtilsException.class, () -> document.getProperty("b.c"));
+        assertThrows(JsonUtilsException.class, () -> JsonProperty.parseLazy("{\"a\": 1,}").getProperty("a"));
+    }
+}